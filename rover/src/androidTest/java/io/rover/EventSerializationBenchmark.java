@@ -0,0 +1,125 @@
+package io.rover;
+
+import android.location.Location;
+import android.os.Debug;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import io.rover.model.Event;
+import io.rover.model.LocationUpdateEvent;
+import io.rover.network.JsonApiPayloadProvider;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Compares allocations per serialized event between the JSONObject based ObjectSerializer path and
+ * the streaming EventSerializer path. Results are logged under the Rover:Benchmark tag.
+ */
+public class EventSerializationBenchmark extends AndroidTestCase {
+
+    private static final String TAG = "Rover:Benchmark";
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+
+    private static class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+    private Event mEvent;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        Location location = new Location("benchmark");
+        location.setLatitude(43.6532);
+        location.setLongitude(-79.3832);
+        location.setAccuracy(12.5f);
+
+        mEvent = new LocationUpdateEvent(location, new Date());
+    }
+
+    public void testStreamingSerializerAllocatesLess() throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            writeWithObjectSerializer();
+            writeWithEventSerializer();
+        }
+
+        long[] tree = measure(new Runnable() {
+            @Override
+            public void run() {
+                writeWithObjectSerializer();
+            }
+        });
+
+        long[] streaming = measure(new Runnable() {
+            @Override
+            public void run() {
+                writeWithEventSerializer();
+            }
+        });
+
+        Log.i(TAG, "ObjectSerializer: " + tree[0] + " objects, " + tree[1] + " bytes per event");
+        Log.i(TAG, "EventSerializer: " + streaming[0] + " objects, " + streaming[1] + " bytes per event");
+
+        assertTrue(streaming[0] < tree[0]);
+        assertTrue(streaming[1] < tree[1]);
+    }
+
+    /*
+        Returns the number of objects and bytes allocated on this thread per iteration
+     */
+    private long[] measure(Runnable runnable) {
+        Debug.resetThreadAllocCount();
+        Debug.resetThreadAllocSize();
+        Debug.startAllocCounting();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            runnable.run();
+        }
+
+        Debug.stopAllocCounting();
+
+        return new long[] {
+                Debug.getThreadAllocCount() / ITERATIONS,
+                Debug.getThreadAllocSize() / ITERATIONS
+        };
+    }
+
+    /*
+        The path events took before the journal: the user and device are serialized into every event
+        through ObjectSerializer and written by JsonApiPayloadProvider
+     */
+    private void writeWithObjectSerializer() {
+        JsonApiPayloadProvider provider = new JsonApiPayloadProvider(new ObjectSerializer(mEvent, getContext()));
+
+        try {
+            provider.onProvidePayload(new OutputStreamWriter(new DiscardingOutputStream(), "UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeWithEventSerializer() {
+        try {
+            List<EventJournal.Record> records = Collections.singletonList(new EventJournal.Record(0, 0, EventSerializer.toBytes(mEvent)));
+            EventBatchPayloadProvider provider = new EventBatchPayloadProvider(records, getContext());
+            provider.onProvidePayload(new OutputStreamWriter(new DiscardingOutputStream(), "UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
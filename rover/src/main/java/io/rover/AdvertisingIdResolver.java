@@ -0,0 +1,83 @@
+package io.rover;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.android.gms.ads.identifier.AdvertisingIdClient;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.rover.model.Device;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Looks up the advertising id on its own thread, once at setup and then periodically so a reset id
+ * or a change to limit ad tracking reaches the server. The lookup is a blocking call into Play
+ * Services and must never run on an event lane.
+ */
+class AdvertisingIdResolver {
+
+    interface Listener {
+        void onAdvertisingIdResolved();
+    }
+
+    private static final String TAG = "Rover:AdvertisingId";
+
+    private final Context mContext;
+    private final long mRefreshInterval;
+    private final Listener mListener;
+    private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> mRefresh;
+
+    AdvertisingIdResolver(Context context, long refreshInterval, Listener listener) {
+        mContext = context;
+        mRefreshInterval = refreshInterval;
+        mListener = listener;
+    }
+
+    synchronized void start() {
+        if (mRefresh != null) {
+            return;
+        }
+
+        Runnable resolve = new Runnable() {
+            @Override
+            public void run() {
+                resolve();
+            }
+        };
+
+        if (mRefreshInterval > 0) {
+            mRefresh = mExecutor.scheduleWithFixedDelay(resolve, 0, mRefreshInterval, TimeUnit.MILLISECONDS);
+        } else {
+            mRefresh = mExecutor.schedule(resolve, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void resolve() {
+        Device device = Device.getInstance();
+        boolean firstLookup = !device.hasCheckedForAdTracking();
+
+        AdvertisingIdClient.Info info = new AdvertisingIdTask(mContext).execute();
+
+        if (info != null) {
+            device.setAdvertisingId(info.getId());
+            device.setAdTrackingEnabled(!info.isLimitAdTrackingEnabled());
+        } else if (firstLookup) {
+            device.setAdTrackingEnabled(false);
+        } else {
+            // Keep the last known id rather than dropping it on a transient failure
+            Log.w(TAG, "Advertising id refresh failed");
+        }
+
+        device.setCheckedForAdTracking(true);
+
+        if (firstLookup && mListener != null) {
+            mListener.onAdvertisingIdResolved();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import io.rover.model.BeaconTransitionEvent;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Turns the found and lost callbacks from Nearby into beacon transitions without the enter/exit
+ * storms a beacon at the edge of its range produces. An enter is reported as soon as a beacon is
+ * found, but a loss only becomes an exit once the beacon stayed lost for the exit delay and the
+ * device dwelled inside for the minimum dwell. A beacon found again before then cancels the exit,
+ * so the flapping pair is never reported. Duplicate founds and losts are dropped. The state is
+ * persisted since Nearby delivers its callbacks to short lived services.
+ */
+class BeaconDebouncer {
+
+    private static final String SHARED_BEACON_STATE = "ROVER_SHARED_BEACON_STATE";
+
+    static class Transition {
+        final String id;
+        final int transition;
+        final long time;
+
+        Transition(String id, int transition, long time) {
+            this.id = id;
+            this.transition = transition;
+            this.time = time;
+        }
+    }
+
+    // A beacon the device is inside of. lostAt is 0 while the beacon is in range
+    private static class State {
+        long enteredAt;
+        long lostAt;
+
+        State(long enteredAt, long lostAt) {
+            this.enteredAt = enteredAt;
+            this.lostAt = lostAt;
+        }
+    }
+
+    private final long mExitDelay;
+    private final long mMinDwell;
+    private final HashMap<String, State> mInside = new HashMap<>();
+
+    private int mSuppressed;
+
+    BeaconDebouncer(long exitDelay, long minDwell) {
+        mExitDelay = Math.max(0, exitDelay);
+        mMinDwell = Math.max(0, minDwell);
+    }
+
+    /*
+        Returns the enter to report, or null if the device is already inside
+     */
+    synchronized Transition onFound(String id, long now) {
+        State state = mInside.get(id);
+
+        if (state == null) {
+            mInside.put(id, new State(now, 0));
+            return new Transition(id, BeaconTransitionEvent.TRANSITION_ENTER, now);
+        }
+
+        if (state.lostAt != 0) {
+            // Found again before the exit was confirmed, neither half of the pair is reported
+            state.lostAt = 0;
+            mSuppressed += 2;
+        } else {
+            mSuppressed++;
+        }
+
+        return null;
+    }
+
+    /*
+        Starts the exit delay. The exit is reported by a later call to expire
+     */
+    synchronized void onLost(String id, long now) {
+        State state = mInside.get(id);
+
+        if (state == null || state.lostAt != 0) {
+            mSuppressed++;
+            return;
+        }
+
+        state.lostAt = now;
+    }
+
+    /*
+        Returns the exits whose delay passed, dated when the beacon was lost
+     */
+    synchronized List<Transition> expire(long now) {
+        ArrayList<Transition> exits = new ArrayList<>();
+
+        Iterator<Map.Entry<String, State>> iterator = mInside.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, State> entry = iterator.next();
+            State state = entry.getValue();
+
+            if (state.lostAt != 0 && deadline(state) <= now) {
+                exits.add(new Transition(entry.getKey(), BeaconTransitionEvent.TRANSITION_EXIT, state.lostAt));
+                iterator.remove();
+            }
+        }
+
+        return exits;
+    }
+
+    /*
+        When the next pending exit is due, or -1 if none is pending
+     */
+    synchronized long nextDeadline() {
+        long next = -1;
+
+        for (State state : mInside.values()) {
+            if (state.lostAt != 0) {
+                long deadline = deadline(state);
+                if (next == -1 || deadline < next) {
+                    next = deadline;
+                }
+            }
+        }
+
+        return next;
+    }
+
+    /*
+        Returns how many callbacks were dropped since the last call
+     */
+    synchronized int takeSuppressedCount() {
+        int suppressed = mSuppressed;
+        mSuppressed = 0;
+        return suppressed;
+    }
+
+    synchronized void clear() {
+        mInside.clear();
+    }
+
+    private long deadline(State state) {
+        return Math.max(state.lostAt + mExitDelay, state.enteredAt + mMinDwell);
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_BEACON_STATE, 0);
+
+        mInside.clear();
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+
+            String[] times = ((String) entry.getValue()).split(",");
+            if (times.length != 2) {
+                continue;
+            }
+
+            try {
+                mInside.put(entry.getKey(), new State(Long.parseLong(times[0]), Long.parseLong(times[1])));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    synchronized void save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_BEACON_STATE, 0).edit();
+        editor.clear();
+
+        for (Map.Entry<String, State> entry : mInside.entrySet()) {
+            editor.putString(entry.getKey(), entry.getValue().enteredAt + "," + entry.getValue().lostAt);
+        }
+
+        editor.apply();
+    }
+}
@@ -0,0 +1,136 @@
+package io.rover;
+
+import android.content.Context;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.rover.model.Customer;
+import io.rover.model.Device;
+import io.rover.network.CompactJsonWriter;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Immutable, already encoded user and device attributes. A snapshot is rebuilt only when the
+ * version of the customer or the device changes, so every batch reuses the same JSON. A few device
+ * values such as the carrier or the notification setting have no change broadcast, so a snapshot
+ * also expires after MAX_AGE.
+ */
+class ContextSnapshot {
+
+    private static final long MAX_AGE = 60 * 60 * 1000;
+
+    private static final AtomicLong sSequence = new AtomicLong();
+    private static volatile ContextSnapshot sCurrent;
+
+    private final long mSequence;
+    private final Customer mCustomer;
+    private final int mCustomerVersion;
+    private final int mDeviceVersion;
+    private final long mDeviceTimestamp;
+    private final Map<String, String> mCustomerFields;
+    private final Map<String, String> mDeviceFields;
+    private final String mCustomerJson;
+    private final String mDeviceJson;
+
+    ContextSnapshot(Customer customer, int customerVersion, Map<String, String> customerFields, String customerJson,
+                    int deviceVersion, long deviceTimestamp, Map<String, String> deviceFields, String deviceJson) {
+        mSequence = sSequence.incrementAndGet();
+        mCustomer = customer;
+        mCustomerVersion = customerVersion;
+        mCustomerFields = Collections.unmodifiableMap(customerFields);
+        mCustomerJson = customerJson;
+        mDeviceVersion = deviceVersion;
+        mDeviceTimestamp = deviceTimestamp;
+        mDeviceFields = Collections.unmodifiableMap(deviceFields);
+        mDeviceJson = deviceJson;
+    }
+
+    ContextSnapshot(Map<String, String> customerFields, Map<String, String> deviceFields) throws IOException {
+        this(null, 0, customerFields, toJson(customerFields), 0, 0, deviceFields, toJson(deviceFields));
+    }
+
+    /*
+        Snapshots built later have a higher sequence
+     */
+    long getSequence() {
+        return mSequence;
+    }
+
+    Map<String, String> getCustomerFields() {
+        return mCustomerFields;
+    }
+
+    Map<String, String> getDeviceFields() {
+        return mDeviceFields;
+    }
+
+    String getCustomerJson() {
+        return mCustomerJson;
+    }
+
+    String getDeviceJson() {
+        return mDeviceJson;
+    }
+
+    static ContextSnapshot get(Context context) throws IOException {
+        Customer customer = Customer.getInstance(context);
+        Device device = Device.getInstance();
+
+        // Versions are read before encoding so a change made while encoding causes another rebuild
+        int customerVersion = customer.getVersion();
+        int deviceVersion = device.getVersion();
+        long now = System.currentTimeMillis();
+
+        ContextSnapshot current = sCurrent;
+
+        boolean customerValid = current != null && current.mCustomer == customer
+                && current.mCustomerVersion == customerVersion;
+        boolean deviceValid = current != null && current.mDeviceVersion == deviceVersion
+                && now - current.mDeviceTimestamp < MAX_AGE;
+
+        if (customerValid && deviceValid) {
+            return current;
+        }
+
+        Map<String, String> customerFields;
+        String customerJson;
+        if (customerValid) {
+            customerFields = current.mCustomerFields;
+            customerJson = current.mCustomerJson;
+        } else {
+            customerFields = EventSerializer.encodeCustomer(customer);
+            customerJson = toJson(customerFields);
+        }
+
+        Map<String, String> deviceFields;
+        String deviceJson;
+        if (deviceValid) {
+            deviceFields = current.mDeviceFields;
+            deviceJson = current.mDeviceJson;
+        } else {
+            deviceFields = EventSerializer.encodeDevice(device, context);
+            deviceJson = toJson(deviceFields);
+        }
+
+        ContextSnapshot snapshot = new ContextSnapshot(customer, customerVersion, customerFields, customerJson,
+                deviceVersion, deviceValid ? current.mDeviceTimestamp : now, deviceFields, deviceJson);
+        sCurrent = snapshot;
+        return snapshot;
+    }
+
+    static void invalidate() {
+        sCurrent = null;
+    }
+
+    private static String toJson(Map<String, String> fields) throws IOException {
+        StringWriter writer = new StringWriter(512);
+        EventSerializer.writeFields(fields, new CompactJsonWriter(writer));
+        return writer.toString();
+    }
+}
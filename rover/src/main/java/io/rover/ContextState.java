@@ -0,0 +1,216 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * The user and device attributes the server last acknowledged, member by member. Batches only
+ * carry the members that differ from it. The full attributes are sent when nothing was acknowledged
+ * yet, when the customer identifier changes, when the server asks for a resync and once every
+ * RESYNC_INTERVAL in case the server lost track.
+ */
+class ContextState {
+
+    private static final String SHARED_CONTEXT_STATE = "ROVER_SHARED_CONTEXT_STATE";
+    private static final String USER_PREFIX = "user/";
+    private static final String DEVICE_PREFIX = "device/";
+    private static final String SYNCED_AT = "synced-at";
+
+    static final long RESYNC_INTERVAL = 24 * 60 * 60 * 1000;
+    static final String RESYNC_HEADER = "X-Rover-Context-Resync";
+
+    // Members sent with every delta so the server can tell whose attributes changed
+    static final String CUSTOMER_KEY = "identifier";
+    static final String DEVICE_KEY = "udid";
+
+    private static ContextState sInstance;
+
+    static class Update {
+        private final ContextSnapshot mSnapshot;
+        private final boolean mFull;
+        private final int mGeneration;
+        private final Map<String, String> mCustomerFields;
+        private final Map<String, String> mDeviceFields;
+
+        private Update(ContextSnapshot snapshot, boolean full, int generation,
+                       Map<String, String> customerFields, Map<String, String> deviceFields) {
+            mSnapshot = snapshot;
+            mFull = full;
+            mGeneration = generation;
+            mCustomerFields = customerFields;
+            mDeviceFields = deviceFields;
+        }
+
+        boolean isFull() {
+            return mFull;
+        }
+
+        Map<String, String> getCustomerFields() {
+            return mCustomerFields;
+        }
+
+        Map<String, String> getDeviceFields() {
+            return mDeviceFields;
+        }
+    }
+
+    private Map<String, String> mCustomerFields;
+    private Map<String, String> mDeviceFields;
+    private long mSyncedAt;
+    private long mSequence;
+    private int mGeneration;
+    private SharedPreferences mSharedData;
+
+    static synchronized ContextState getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ContextState();
+            sInstance.load(context.getSharedPreferences(SHARED_CONTEXT_STATE, 0));
+        }
+        return sInstance;
+    }
+
+    synchronized Update prepare(ContextSnapshot snapshot, long now) {
+        boolean full = mCustomerFields == null || mDeviceFields == null
+                || now - mSyncedAt >= RESYNC_INTERVAL || now < mSyncedAt
+                || !equal(mCustomerFields.get(CUSTOMER_KEY), snapshot.getCustomerFields().get(CUSTOMER_KEY));
+
+        if (full) {
+            return new Update(snapshot, true, mGeneration, snapshot.getCustomerFields(), snapshot.getDeviceFields());
+        }
+
+        return new Update(snapshot, false, mGeneration,
+                delta(mCustomerFields, snapshot.getCustomerFields(), CUSTOMER_KEY),
+                delta(mDeviceFields, snapshot.getDeviceFields(), DEVICE_KEY));
+    }
+
+    /*
+        The full attributes regardless of what was acknowledged, for resending a batch whose delta
+        was rejected
+     */
+    synchronized Update prepareFull(ContextSnapshot snapshot) {
+        return new Update(snapshot, true, mGeneration, snapshot.getCustomerFields(), snapshot.getDeviceFields());
+    }
+
+    /*
+        The server accepted the batch the update was written into
+     */
+    synchronized void acknowledge(Update update, long now) {
+        // A resync requested since the update was prepared wins, as does a newer acknowledged snapshot
+        if (update.mGeneration != mGeneration || update.mSnapshot.getSequence() < mSequence) {
+            return;
+        }
+
+        Map<String, String> customerFields = update.mSnapshot.getCustomerFields();
+        Map<String, String> deviceFields = update.mSnapshot.getDeviceFields();
+        boolean changed = update.mFull || !customerFields.equals(mCustomerFields) || !deviceFields.equals(mDeviceFields);
+
+        mSequence = update.mSnapshot.getSequence();
+        mCustomerFields = customerFields;
+        mDeviceFields = deviceFields;
+        if (update.mFull) {
+            mSyncedAt = now;
+        }
+
+        if (changed) {
+            save();
+        }
+    }
+
+    /*
+        Forgets what the server acknowledged so the next batch carries the full attributes
+     */
+    synchronized void requestResync() {
+        mGeneration++;
+        mCustomerFields = null;
+        mDeviceFields = null;
+        mSyncedAt = 0;
+        save();
+    }
+
+    /*
+        Members that changed, and null for members that are gone
+     */
+    private static Map<String, String> delta(Map<String, String> acknowledged, Map<String, String> current, String key) {
+        LinkedHashMap<String, String> delta = new LinkedHashMap<>();
+
+        if (current.containsKey(key)) {
+            delta.put(key, current.get(key));
+        }
+
+        for (Map.Entry<String, String> field : current.entrySet()) {
+            if (!field.getValue().equals(acknowledged.get(field.getKey()))) {
+                delta.put(field.getKey(), field.getValue());
+            }
+        }
+
+        for (String name : acknowledged.keySet()) {
+            if (!current.containsKey(name)) {
+                delta.put(name, "null");
+            }
+        }
+
+        return delta;
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /*
+        Persistence
+     */
+
+    private void load(SharedPreferences sharedData) {
+        mSharedData = sharedData;
+
+        if (!sharedData.contains(SYNCED_AT)) {
+            return;
+        }
+
+        HashMap<String, String> customerFields = new HashMap<>();
+        HashMap<String, String> deviceFields = new HashMap<>();
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+
+            if (entry.getKey().startsWith(USER_PREFIX)) {
+                customerFields.put(entry.getKey().substring(USER_PREFIX.length()), (String) entry.getValue());
+            } else if (entry.getKey().startsWith(DEVICE_PREFIX)) {
+                deviceFields.put(entry.getKey().substring(DEVICE_PREFIX.length()), (String) entry.getValue());
+            }
+        }
+
+        mCustomerFields = customerFields;
+        mDeviceFields = deviceFields;
+        mSyncedAt = sharedData.getLong(SYNCED_AT, 0);
+    }
+
+    private void save() {
+        if (mSharedData == null) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = mSharedData.edit();
+        editor.clear();
+
+        if (mCustomerFields != null && mDeviceFields != null) {
+            for (Map.Entry<String, String> field : mCustomerFields.entrySet()) {
+                editor.putString(USER_PREFIX + field.getKey(), field.getValue());
+            }
+            for (Map.Entry<String, String> field : mDeviceFields.entrySet()) {
+                editor.putString(DEVICE_PREFIX + field.getKey(), field.getValue());
+            }
+            editor.putLong(SYNCED_AT, mSyncedAt);
+        }
+
+        editor.apply();
+    }
+}
@@ -0,0 +1,92 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.os.PowerManager;
+
+import io.rover.network.NetworkTask;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+class DeviceUploadConditions implements UploadPolicy.Conditions {
+
+    // Below this battery level, and not charging, optional network work is skipped
+    private static final float LOW_BATTERY_LEVEL = 0.15f;
+
+    // The cellular radio stays in its high power state for roughly this long after a request
+    private static final long RADIO_ACTIVE_WINDOW = 15000;
+
+    private Context mContext;
+
+    DeviceUploadConditions(Context context) {
+        mContext = context.getApplicationContext();
+    }
+
+    @Override
+    public boolean isNetworkConnected() {
+        ConnectivityManager connectivityManager = getConnectivityManager();
+        if (connectivityManager == null) {
+            return true;
+        }
+
+        NetworkInfo networkInfo = connectivityManager.getActiveNetworkInfo();
+        return networkInfo != null && networkInfo.isConnected();
+    }
+
+    @Override
+    public boolean isUnmeteredNetwork() {
+        ConnectivityManager connectivityManager = getConnectivityManager();
+        return connectivityManager != null && isNetworkConnected() && !connectivityManager.isActiveNetworkMetered();
+    }
+
+    @Override
+    public boolean isCharging() {
+        Intent batteryStatus = mContext.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        return batteryStatus != null && batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0;
+    }
+
+    @Override
+    public boolean isRadioActive() {
+        if (System.currentTimeMillis() - NetworkTask.getLastRequestTime() < RADIO_ACTIVE_WINDOW) {
+            return true;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            ConnectivityManager connectivityManager = getConnectivityManager();
+            return connectivityManager != null && connectivityManager.isDefaultNetworkActive();
+        }
+
+        return false;
+    }
+
+    /*
+        Battery saver is on, or the battery is low and not charging
+     */
+    boolean isLowPower() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            PowerManager powerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
+            if (powerManager != null && powerManager.isPowerSaveMode()) {
+                return true;
+            }
+        }
+
+        Intent batteryStatus = mContext.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (batteryStatus == null || batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, 0) != 0) {
+            return false;
+        }
+
+        int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        return level >= 0 && scale > 0 && level / (float) scale < LOW_BATTERY_LEVEL;
+    }
+
+    private ConnectivityManager getConnectivityManager() {
+        return (ConnectivityManager) mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+    }
+}
@@ -0,0 +1,99 @@
+package io.rover;
+
+import android.content.Context;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.net.HttpURLConnection;
+import java.util.List;
+
+import io.rover.network.CompactJsonWriter;
+import io.rover.network.NetworkTask;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Writes journaled events as a JSON API `data` array. The records already hold encoded attributes
+ * so they are copied into the payload as is, and the user and device are written once in `meta`,
+ * either in full or as the members that changed since the server last acknowledged them. The
+ * records must all belong to the same customer.
+ */
+class EventBatchPayloadProvider implements NetworkTask.PayloadProvider {
+
+    private final List<EventJournal.Record> mRecords;
+    private final Context mContext;
+    private final ContextSnapshot mSnapshot;
+    private final ContextState mContextState;
+    private boolean mFullContext;
+    private ContextState.Update mContextUpdate;
+
+    EventBatchPayloadProvider(List<EventJournal.Record> records, Context context) {
+        mRecords = records;
+        mContext = context;
+        mSnapshot = null;
+        mContextState = null;
+    }
+
+    /*
+        Writes the given context instead of the current user and device
+     */
+    EventBatchPayloadProvider(List<EventJournal.Record> records, ContextSnapshot snapshot, ContextState contextState) {
+        mRecords = records;
+        mContext = null;
+        mSnapshot = snapshot;
+        mContextState = contextState;
+    }
+
+    /*
+        Writes the full user and device attributes even if the server acknowledged them before
+     */
+    void setFullContext(boolean fullContext) {
+        mFullContext = fullContext;
+    }
+
+    /*
+        The user and device attributes written into the last payload provided
+     */
+    ContextState.Update getContextUpdate() {
+        return mContextUpdate;
+    }
+
+    @Override
+    public void onPrepareConnection(HttpURLConnection connection) {
+        connection.setRequestProperty("Accept", "application/vn.api+json");
+        connection.setRequestProperty("Content-Type", "application/json");
+    }
+
+    @Override
+    public void onProvidePayload(OutputStreamWriter writer) throws IOException {
+        CompactJsonWriter jsonWriter = new CompactJsonWriter(writer);
+        String customer = null;
+
+        jsonWriter.beginObject();
+        {
+            jsonWriter.name("data").beginArray();
+            for (EventJournal.Record record : mRecords) {
+                jsonWriter.beginObject();
+                jsonWriter.name("type").value("events");
+                jsonWriter.name("attributes").rawValue(EventSerializer.getRecordAttributes(record.getPayload()));
+                jsonWriter.endObject();
+
+                if (customer == null) {
+                    customer = EventSerializer.getRecordCustomer(record.getPayload());
+                }
+            }
+            jsonWriter.endArray();
+
+            jsonWriter.name("meta").beginObject();
+            if (mSnapshot != null) {
+                mContextUpdate = EventSerializer.writeContext(mSnapshot, mContextState, mFullContext, customer, jsonWriter);
+            } else {
+                mContextUpdate = EventSerializer.writeContext(mContext, mFullContext, customer, jsonWriter);
+            }
+            jsonWriter.endObject();
+        }
+        jsonWriter.endObject();
+
+        jsonWriter.close();
+    }
+}
@@ -0,0 +1,479 @@
+package io.rover;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Append-only on-disk queue of serialized events. Records are written to numbered segment files
+ * as [length][crc32][payload] and consumed from a persisted cursor. Every append is handed to the
+ * OS immediately so it survives process death, while fsync (which only matters for power loss)
+ * is batched across records.
+ */
+public class EventJournal {
+
+    private static final String TAG = "Rover:EventJournal";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CURSOR_FILE = "cursor";
+
+    private static final int DEFAULT_MAX_SEGMENT_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 1024 * 1024;
+    private static final int SYNC_INTERVAL_RECORDS = 16;
+    private static final long SYNC_INTERVAL_MILLIS = 2000;
+    private static final int HEADER_SIZE = 8;
+
+    public static class Record {
+        private final long mSegment;
+        private final long mEndOffset;
+        private final byte[] mPayload;
+
+        Record(long segment, long endOffset, byte[] payload) {
+            mSegment = segment;
+            mEndOffset = endOffset;
+            mPayload = payload;
+        }
+
+        public byte[] getPayload() {
+            return mPayload;
+        }
+    }
+
+    private final File mDirectory;
+    private final int mMaxSegmentSize;
+
+    private long mWriteSegment;
+    private long mWriteOffset;
+    private FileOutputStream mWriteFileStream;
+    private DataOutputStream mWriteStream;
+
+    private long mCursorSegment;
+    private long mCursorOffset;
+
+    private int mPendingCount;
+    private int mUnsyncedCount;
+    private long mLastSyncTime;
+
+    public EventJournal(File directory) throws IOException {
+        this(directory, DEFAULT_MAX_SEGMENT_SIZE);
+    }
+
+    EventJournal(File directory, int maxSegmentSize) throws IOException {
+        mDirectory = directory;
+        mMaxSegmentSize = maxSegmentSize;
+
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            throw new IOException("Unable to create journal directory: " + mDirectory);
+        }
+
+        open();
+    }
+
+    /*
+        Appends a record. The bytes are flushed to the OS before returning
+     */
+    public synchronized void append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IOException("Record too large: " + payload.length);
+        }
+
+        if (mWriteStream == null) {
+            openWriteSegment(mWriteSegment);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        mWriteStream.writeInt(payload.length);
+        mWriteStream.writeInt((int) crc.getValue());
+        mWriteStream.write(payload);
+        mWriteStream.flush();
+
+        mWriteOffset += HEADER_SIZE + payload.length;
+        mPendingCount++;
+        mUnsyncedCount++;
+
+        long now = System.currentTimeMillis();
+        if (mUnsyncedCount >= SYNC_INTERVAL_RECORDS || now - mLastSyncTime >= SYNC_INTERVAL_MILLIS) {
+            sync();
+        }
+
+        if (mWriteOffset >= mMaxSegmentSize) {
+            rotate();
+        }
+    }
+
+    /*
+        Returns up to maxRecords unacknowledged records in the order they were appended
+     */
+    public synchronized List<Record> read(int maxRecords) {
+        if (mPendingCount == 0 || maxRecords <= 0) {
+            return Collections.emptyList();
+        }
+
+        ArrayList<Record> records = new ArrayList<>();
+
+        long segment = mCursorSegment;
+        long offset = mCursorOffset;
+
+        while (records.size() < maxRecords && segment <= mWriteSegment) {
+            File file = segmentFile(segment);
+
+            if (file.exists()) {
+                readSegment(file, segment, offset, maxRecords, records);
+            }
+
+            segment++;
+            offset = 0;
+        }
+
+        return records;
+    }
+
+    /*
+        Marks the given records, which must be the oldest unacknowledged records, as consumed.
+        Records that were already consumed, for example dropped while they were being submitted,
+        are ignored. Fully consumed segments are deleted. Returns the number of records consumed
+     */
+    public synchronized int acknowledge(List<Record> records) {
+        int consumed = 0;
+
+        for (Record record : records) {
+            if (isAfterCursor(record)) {
+                consumed++;
+            }
+        }
+
+        if (consumed == 0) {
+            return 0;
+        }
+
+        Record last = records.get(records.size() - 1);
+
+        mCursorSegment = last.mSegment;
+        mCursorOffset = last.mEndOffset;
+        mPendingCount = Math.max(0, mPendingCount - consumed);
+
+        if (mCursorSegment < mWriteSegment && mCursorOffset >= segmentFile(mCursorSegment).length()) {
+            mCursorSegment++;
+            mCursorOffset = 0;
+        }
+
+        writeCursor();
+        deleteConsumedSegments();
+        return consumed;
+    }
+
+    public synchronized int getPendingCount() {
+        return mPendingCount;
+    }
+
+    public synchronized void sync() {
+        if (mWriteFileStream == null || mUnsyncedCount == 0) {
+            return;
+        }
+
+        try {
+            mWriteFileStream.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to sync journal segment", e);
+        }
+
+        mUnsyncedCount = 0;
+        mLastSyncTime = System.currentTimeMillis();
+    }
+
+    public synchronized void close() {
+        sync();
+        closeWriteSegment();
+    }
+
+    /*
+        Private
+     */
+
+    private boolean isAfterCursor(Record record) {
+        return record.mSegment > mCursorSegment
+                || (record.mSegment == mCursorSegment && record.mEndOffset > mCursorOffset);
+    }
+
+    private void open() throws IOException {
+        readCursor();
+
+        long[] segments = listSegments();
+
+        if (segments.length == 0) {
+            mWriteSegment = mCursorSegment;
+        } else {
+            mWriteSegment = segments[segments.length - 1];
+
+            if (mCursorSegment < segments[0]) {
+                mCursorSegment = segments[0];
+                mCursorOffset = 0;
+            }
+        }
+
+        // Drop any torn record at the tail of the last segment before appending after it
+        File writeFile = segmentFile(mWriteSegment);
+        mWriteOffset = writeFile.exists() ? validLength(writeFile) : 0;
+
+        if (writeFile.exists() && mWriteOffset < writeFile.length()) {
+            Log.w(TAG, "Truncating torn record in segment " + mWriteSegment);
+            RandomAccessFile file = new RandomAccessFile(writeFile, "rw");
+            try {
+                file.setLength(mWriteOffset);
+            } finally {
+                file.close();
+            }
+        }
+
+        mPendingCount = countPending(segments);
+        mLastSyncTime = System.currentTimeMillis();
+    }
+
+    private int countPending(long[] segments) {
+        int count = 0;
+
+        for (long segment : segments) {
+            if (segment < mCursorSegment) {
+                continue;
+            }
+
+            long offset = segment == mCursorSegment ? mCursorOffset : 0;
+            ArrayList<Record> records = new ArrayList<>();
+            readSegment(segmentFile(segment), segment, offset, Integer.MAX_VALUE, records);
+            count += records.size();
+        }
+
+        return count;
+    }
+
+    private void readSegment(File file, long segment, long offset, int maxRecords, List<Record> records) {
+        DataInputStream input = null;
+
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            if (input.skip(offset) != offset) {
+                return;
+            }
+
+            long position = offset;
+
+            while (records.size() < maxRecords) {
+                byte[] payload = readRecord(input);
+
+                if (payload == null) {
+                    break;
+                }
+
+                position += HEADER_SIZE + payload.length;
+                records.add(new Record(segment, position, payload));
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to read journal segment " + segment, e);
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    /*
+        Returns null at the end of the segment or at the first torn or corrupt record
+     */
+    private static byte[] readRecord(DataInputStream input) throws IOException {
+        int length;
+        int checksum;
+
+        try {
+            length = input.readInt();
+            checksum = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        if (length < 0 || length > MAX_RECORD_SIZE) {
+            return null;
+        }
+
+        byte[] payload = new byte[length];
+
+        try {
+            input.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        return payload;
+    }
+
+    private long validLength(File file) throws IOException {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        long length = 0;
+
+        try {
+            byte[] payload;
+            while ((payload = readRecord(input)) != null) {
+                length += HEADER_SIZE + payload.length;
+            }
+        } finally {
+            input.close();
+        }
+
+        return length;
+    }
+
+    private void rotate() throws IOException {
+        sync();
+        closeWriteSegment();
+        mWriteSegment++;
+        mWriteOffset = 0;
+    }
+
+    private void openWriteSegment(long segment) throws IOException {
+        mWriteFileStream = new FileOutputStream(segmentFile(segment), true);
+        mWriteStream = new DataOutputStream(new BufferedOutputStream(mWriteFileStream));
+    }
+
+    private void closeWriteSegment() {
+        if (mWriteStream != null) {
+            try {
+                mWriteStream.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Unable to close journal segment", e);
+            }
+        }
+
+        mWriteStream = null;
+        mWriteFileStream = null;
+    }
+
+    private void deleteConsumedSegments() {
+        for (long segment : listSegments()) {
+            if (segment < mCursorSegment) {
+                if (!segmentFile(segment).delete()) {
+                    Log.w(TAG, "Unable to delete consumed segment " + segment);
+                }
+            }
+        }
+    }
+
+    private void readCursor() {
+        File file = new File(mDirectory, CURSOR_FILE);
+
+        if (!file.exists()) {
+            mCursorSegment = 0;
+            mCursorOffset = 0;
+            return;
+        }
+
+        DataInputStream input = null;
+
+        try {
+            input = new DataInputStream(new FileInputStream(file));
+            mCursorSegment = input.readLong();
+            mCursorOffset = input.readLong();
+        } catch (IOException e) {
+            // A lost cursor only means already submitted events may be sent again
+            Log.w(TAG, "Unable to read journal cursor", e);
+            mCursorSegment = 0;
+            mCursorOffset = 0;
+        } finally {
+            if (input != null) {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    private void writeCursor() {
+        File temp = new File(mDirectory, CURSOR_FILE + ".tmp");
+        FileOutputStream fileStream = null;
+
+        try {
+            fileStream = new FileOutputStream(temp);
+            DataOutputStream output = new DataOutputStream(fileStream);
+            output.writeLong(mCursorSegment);
+            output.writeLong(mCursorOffset);
+            output.flush();
+            fileStream.getFD().sync();
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write journal cursor", e);
+            return;
+        } finally {
+            if (fileStream != null) {
+                try {
+                    fileStream.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        if (!temp.renameTo(new File(mDirectory, CURSOR_FILE))) {
+            Log.w(TAG, "Unable to replace journal cursor");
+        }
+    }
+
+    private long[] listSegments() {
+        String[] names = mDirectory.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+
+        if (names == null) {
+            return new long[0];
+        }
+
+        long[] segments = new long[names.length];
+        int count = 0;
+
+        for (String name : names) {
+            try {
+                segments[count] = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                count++;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        segments = Arrays.copyOf(segments, count);
+        Arrays.sort(segments);
+        return segments;
+    }
+
+    private File segmentFile(long segment) {
+        return new File(mDirectory, String.format(Locale.US, "%010d%s", segment, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,283 @@
+package io.rover;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * A journal of events with its own submission thread, so a slow request in one lane never holds
+ * up another. The journal is bounded and overflows according to the lane's drop policy. A failed
+ * submission is retried by the lane with exponential backoff. The oldest events are dropped on the
+ * lane's thread so a batch being submitted is never dropped, the lane may go over its capacity
+ * until that submission is done.
+ */
+class EventLane {
+
+    interface Listener {
+        void onSubmissionFinished(EventLane lane);
+    }
+
+    interface OnEventsDroppedListener {
+        void onEventsDropped(EventLane lane, List<EventJournal.Record> records);
+    }
+
+    private static final String TAG = "Rover:EventLane";
+
+    static final long RETRY_DELAY = 30 * 1000;
+    static final long MAX_RETRY_DELAY = 30 * 60 * 1000;
+
+    private final String mName;
+    private final EventJournal mJournal;
+    private final int mCapacity;
+    private final int mDropPolicy;
+    private final boolean mWaitForAdvertisingId;
+    private final RoverMetrics mMetrics;
+
+    private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean mSubmissionScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean mTrimScheduled = new AtomicBoolean(false);
+    private volatile OnEventsDroppedListener mDroppedListener;
+
+    // Only touched on the lane's thread
+    private int mFailures;
+
+    private ScheduledFuture<?> mScheduledFlush;
+    private long mScheduledFlushAt;
+
+    // Append times of the newest pending events, oldest first, used to measure how long events wait
+    private final long[] mAppendTimes;
+    private int mAppendTimesHead;
+    private int mAppendTimesSize;
+
+    private final String mDepthMetric;
+    private final String mSubmittedMetric;
+    private final String mDroppedMetric;
+    private final String mWaitMetric;
+    private final String mLastWaitMetric;
+
+    EventLane(String name, EventJournal journal, int capacity, int dropPolicy, boolean waitForAdvertisingId, RoverMetrics metrics) {
+        mName = name;
+        mJournal = journal;
+        mCapacity = Math.max(1, capacity);
+        mDropPolicy = dropPolicy;
+        mWaitForAdvertisingId = waitForAdvertisingId;
+        mMetrics = metrics;
+
+        mDepthMetric = RoverMetrics.eventLaneMetric(name, RoverMetrics.EVENT_LANE_DEPTH);
+        mSubmittedMetric = RoverMetrics.eventLaneMetric(name, RoverMetrics.EVENT_LANE_SUBMITTED);
+        mDroppedMetric = RoverMetrics.eventLaneMetric(name, RoverMetrics.EVENT_LANE_DROPPED);
+        mWaitMetric = RoverMetrics.eventLaneMetric(name, RoverMetrics.EVENT_LANE_WAIT);
+        mLastWaitMetric = RoverMetrics.eventLaneMetric(name, RoverMetrics.EVENT_LANE_LAST_WAIT);
+
+        // Events replayed from a previous process are timed from when the lane was opened
+        mAppendTimes = new long[mCapacity];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < Math.min(mCapacity, mJournal.getPendingCount()); i++) {
+            pushAppendTime(now);
+        }
+
+        mMetrics.set(mDepthMetric, mJournal.getPendingCount());
+    }
+
+    String getName() {
+        return mName;
+    }
+
+    /*
+        Told about events that will never reach the server, either dropped because the lane was full
+        or rejected by the server
+     */
+    void setOnEventsDroppedListener(OnEventsDroppedListener listener) {
+        mDroppedListener = listener;
+    }
+
+    int getPendingCount() {
+        return mJournal.getPendingCount();
+    }
+
+    /*
+        Returns false if the event was dropped because the lane is full
+     */
+    synchronized boolean append(byte[] payload) throws IOException {
+        int pendingCount = mJournal.getPendingCount();
+
+        if (pendingCount >= mCapacity) {
+            if (mDropPolicy == RoverConfig.DROP_NEWEST) {
+                Log.w(TAG, "Lane " + mName + " is full, dropping new event");
+                mMetrics.increment(mDroppedMetric);
+                return false;
+            }
+
+            if (mTrimScheduled.compareAndSet(false, true)) {
+                mExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        mTrimScheduled.set(false);
+                        trim();
+                    }
+                });
+            }
+        }
+
+        mJournal.append(payload);
+        pushAppendTime(System.currentTimeMillis());
+        mMetrics.set(mDepthMetric, mJournal.getPendingCount());
+        return true;
+    }
+
+    /*
+        Submits everything in the lane on its own thread. At most one submission is queued at a time
+        since a submission drains the whole journal
+     */
+    void flush(final Context context, final int batchSize, final EventSubmitTask.Callback callback, final Listener listener) {
+        if (mJournal.getPendingCount() == 0) {
+            return;
+        }
+
+        if (!mSubmissionScheduled.compareAndSet(false, true)) {
+            return;
+        }
+
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                mSubmissionScheduled.set(false);
+
+                EventSubmitTask eventTask = new EventSubmitTask(context, mJournal, batchSize);
+                eventTask.setCallback(callback);
+                eventTask.setWaitForAdvertisingId(mWaitForAdvertisingId);
+                eventTask.setOnBatchAcknowledgedListener(new EventSubmitTask.OnBatchAcknowledgedListener() {
+                    @Override
+                    public void onBatchAcknowledged(int count) {
+                        onSubmitted(count);
+                    }
+                });
+                eventTask.setOnBatchRejectedListener(new EventSubmitTask.OnBatchRejectedListener() {
+                    @Override
+                    public void onBatchRejected(List<EventJournal.Record> records) {
+                        onDropped(records);
+                    }
+                });
+                eventTask.run();
+
+                if (eventTask.hasFailed()) {
+                    long delay = Math.min(MAX_RETRY_DELAY, RETRY_DELAY << Math.min(mFailures, 10));
+                    mFailures++;
+                    Log.w(TAG, "Lane " + mName + " submission failed, retrying in " + delay + "ms");
+                    scheduleFlush(delay, context, batchSize, callback, listener);
+                } else {
+                    mFailures = 0;
+                }
+
+                listener.onSubmissionFinished(EventLane.this);
+            }
+        });
+    }
+
+    /*
+        Flushes the lane after the delay. A flush already scheduled is kept, another is only added
+        when it would run earlier
+     */
+    synchronized void scheduleFlush(long delay, final Context context, final int batchSize,
+                                    final EventSubmitTask.Callback callback, final Listener listener) {
+        long at = System.currentTimeMillis() + delay;
+
+        if (mScheduledFlush != null && !mScheduledFlush.isDone() && mScheduledFlushAt <= at) {
+            return;
+        }
+
+        mScheduledFlushAt = at;
+        mScheduledFlush = mExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                flush(context, batchSize, callback, listener);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /*
+        Runs the task on the lane's thread after any submission already queued
+     */
+    void execute(Runnable runnable) {
+        mExecutor.execute(runnable);
+    }
+
+    /*
+        Runs on the lane's thread, so no batch is being submitted
+     */
+    private synchronized void trim() {
+        int overflow = mJournal.getPendingCount() - mCapacity;
+
+        if (overflow <= 0) {
+            return;
+        }
+
+        List<EventJournal.Record> records = mJournal.read(overflow);
+        int dropped = mJournal.acknowledge(records);
+        Log.w(TAG, "Lane " + mName + " is full, dropped " + dropped + " oldest event(s)");
+
+        popAppendTimes(consumedAppendTimes());
+        mMetrics.add(mDroppedMetric, dropped);
+        mMetrics.set(mDepthMetric, mJournal.getPendingCount());
+
+        onDropped(records);
+    }
+
+    private void onDropped(List<EventJournal.Record> records) {
+        OnEventsDroppedListener listener = mDroppedListener;
+
+        if (listener != null && !records.isEmpty()) {
+            listener.onEventsDropped(this, records);
+        }
+    }
+
+    private synchronized void onSubmitted(int count) {
+        long now = System.currentTimeMillis();
+        long totalWait = 0;
+        long lastWait = 0;
+        int timed = consumedAppendTimes();
+
+        for (int i = 0; i < timed; i++) {
+            lastWait = now - mAppendTimes[mAppendTimesHead];
+            totalWait += lastWait;
+            popAppendTimes(1);
+        }
+
+        mMetrics.add(mSubmittedMetric, count);
+        mMetrics.add(mWaitMetric, totalWait);
+        mMetrics.set(mLastWaitMetric, lastWait);
+        mMetrics.set(mDepthMetric, mJournal.getPendingCount());
+    }
+
+    /*
+        Append times kept for events that are no longer in the journal. Events appended after a
+        batch was consumed add to both, so any excess belongs to the consumed events
+     */
+    private int consumedAppendTimes() {
+        return Math.max(0, mAppendTimesSize - mJournal.getPendingCount());
+    }
+
+    private void pushAppendTime(long time) {
+        if (mAppendTimesSize == mAppendTimes.length) {
+            popAppendTimes(1);
+        }
+
+        mAppendTimes[(mAppendTimesHead + mAppendTimesSize) % mAppendTimes.length] = time;
+        mAppendTimesSize++;
+    }
+
+    private void popAppendTimes(int count) {
+        int popped = Math.min(count, mAppendTimesSize);
+        mAppendTimesHead = (mAppendTimesHead + popped) % mAppendTimes.length;
+        mAppendTimesSize -= popped;
+    }
+}
@@ -0,0 +1,499 @@
+package io.rover;
+
+import android.content.Context;
+
+import com.google.android.gms.location.Geofence;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Array;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import io.rover.model.Action;
+import io.rover.model.BeaconTransitionEvent;
+import io.rover.model.BlockPressEvent;
+import io.rover.model.Customer;
+import io.rover.model.Device;
+import io.rover.model.DeviceUpdateEvent;
+import io.rover.model.Event;
+import io.rover.model.ExperienceDismissEvent;
+import io.rover.model.ExperienceLaunchEvent;
+import io.rover.model.GeofenceTransitionEvent;
+import io.rover.model.GimbalPlaceTransitionEvent;
+import io.rover.model.LocationUpdateEvent;
+import io.rover.model.MessageOpenEvent;
+import io.rover.model.ScreenViewEvent;
+import io.rover.network.CompactJsonWriter;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Streams events and the user/device context straight to a CompactJsonWriter. Produces the same
+ * event attributes as ObjectSerializer without building a JSONObject tree first, except that the
+ * user and device are left out of each event and written once per batch by writeContext.
+ *
+ * A journal record is the encoded identifier of the customer the event happened for, a newline and
+ * the event attributes. Records written before the identifier was kept are the attributes alone.
+ */
+class EventSerializer {
+
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ", Locale.US);
+        }
+    };
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /*
+        Returns the UTF-8 encoded attributes of the event as they are stored in the journal
+     */
+    static byte[] toBytes(Event event) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+        OutputStreamWriter writer = new OutputStreamWriter(output, "UTF-8");
+        writeEvent(event, new CompactJsonWriter(writer));
+        writer.flush();
+        return output.toByteArray();
+    }
+
+    static byte[] toRecord(Event event, String customer) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+        OutputStreamWriter writer = new OutputStreamWriter(output, "UTF-8");
+        writer.write(customer);
+        writer.write('\n');
+        writeEvent(event, new CompactJsonWriter(writer));
+        writer.flush();
+        return output.toByteArray();
+    }
+
+    /*
+        The identifier as it is encoded in the user attributes. The JSON encoding never contains a
+        newline so it can head a record
+     */
+    static String encodeCustomerIdentifier(String identifier) throws IOException {
+        StringWriter writer = new StringWriter(64);
+        new CompactJsonWriter(writer).value(identifier);
+        return writer.toString();
+    }
+
+    /*
+        The encoded identifier of the customer the record's event happened for, or null if the
+        record does not say
+     */
+    static String getRecordCustomer(byte[] record) {
+        int separator = recordSeparator(record);
+        return separator < 0 ? null : new String(record, 0, separator, UTF_8);
+    }
+
+    static String getRecordAttributes(byte[] record) {
+        int start = recordSeparator(record) + 1;
+        return new String(record, start, record.length - start, UTF_8);
+    }
+
+    /*
+        How many records from the first happened for the same customer. Records that do not say
+        whose they are go with any customer
+     */
+    static int countSameCustomer(List<EventJournal.Record> records) {
+        String customer = null;
+
+        for (int i = 0; i < records.size(); i++) {
+            String recordCustomer = getRecordCustomer(records.get(i).getPayload());
+
+            if (recordCustomer == null) {
+                continue;
+            }
+
+            if (customer == null) {
+                customer = recordCustomer;
+            } else if (!customer.equals(recordCustomer)) {
+                return i;
+            }
+        }
+
+        return records.size();
+    }
+
+    private static int recordSeparator(byte[] record) {
+        if (record.length == 0 || record[0] == '{') {
+            return -1;
+        }
+
+        for (int i = 0; i < record.length; i++) {
+            if (record[i] == '\n') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    static void writeEvent(Event event, CompactJsonWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name("time").value(DATE_FORMAT.get().format(event.getDate()));
+
+        if (event instanceof LocationUpdateEvent) {
+            LocationUpdateEvent luEvent = (LocationUpdateEvent) event;
+
+            writer.name("object").value("location");
+            writer.name("action").value("update");
+            writer.name("latitude").value(luEvent.getLocation().getLatitude());
+            writer.name("longitude").value(luEvent.getLocation().getLongitude());
+            writer.name("accuracy").value(luEvent.getLocation().getAccuracy());
+        } else if (event instanceof GeofenceTransitionEvent) {
+            GeofenceTransitionEvent gtEvent = (GeofenceTransitionEvent) event;
+
+            writer.name("object").value("geofence-region");
+            writer.name("action").value(gtEvent.getGeofenceTransition() == Geofence.GEOFENCE_TRANSITION_EXIT ? "exit" : "enter");
+            writeOptional(writer, "identifier", gtEvent.getGeofenceId());
+        } else if (event instanceof BeaconTransitionEvent) {
+            BeaconTransitionEvent btEvent = (BeaconTransitionEvent) event;
+
+            writer.name("object").value("beacon-region");
+            writer.name("action").value(btEvent.getTransition() == BeaconTransitionEvent.TRANSITION_EXIT ? "exit" : "enter");
+            writeOptional(writer, "configuration-id", btEvent.getId());
+        } else if (event instanceof DeviceUpdateEvent) {
+            writer.name("object").value("device");
+            writer.name("action").value("update");
+        } else if (event instanceof GimbalPlaceTransitionEvent) {
+            GimbalPlaceTransitionEvent gmblEvent = (GimbalPlaceTransitionEvent) event;
+
+            writer.name("object").value("gimbal-place");
+            writer.name("action").value(gmblEvent.getGimbalPlaceTransition() == GimbalPlaceTransitionEvent.TRANSITION_EXIT ? "exit" : "enter");
+            writeOptional(writer, "gimbal-place-id", gmblEvent.getPlaceId());
+        } else if (event instanceof ExperienceLaunchEvent) {
+            ExperienceLaunchEvent expEvent = (ExperienceLaunchEvent) event;
+
+            writer.name("object").value("experience");
+            writer.name("action").value("launched");
+            writeOptional(writer, "experience-id", expEvent.getExperience().getId());
+            writeOptional(writer, "version-id", expEvent.getExperience().getVersion());
+            writeOptional(writer, "experience-session-id", expEvent.getSessionId());
+            writeOptional(writer, "campaign-id", expEvent.getCampaignId());
+        } else if (event instanceof ExperienceDismissEvent) {
+            ExperienceDismissEvent expEvent = (ExperienceDismissEvent) event;
+
+            writer.name("object").value("experience");
+            writer.name("action").value("dismissed");
+            writeOptional(writer, "experience-id", expEvent.getExperience().getId());
+            writeOptional(writer, "version-id", expEvent.getExperience().getVersion());
+            writeOptional(writer, "experience-session-id", expEvent.getSessionId());
+            writeOptional(writer, "campaign-id", expEvent.getCampaignId());
+        } else if (event instanceof ScreenViewEvent) {
+            ScreenViewEvent expEvent = (ScreenViewEvent) event;
+
+            writer.name("object").value("experience");
+            writer.name("action").value("screen-viewed");
+            writeOptional(writer, "experience-id", expEvent.getExperience().getId());
+            writeOptional(writer, "version-id", expEvent.getExperience().getVersion());
+            writeOptional(writer, "experience-session-id", expEvent.getSessionId());
+            writeOptional(writer, "campaign-id", expEvent.getCampaignId());
+
+            if (expEvent.getScreen() != null) {
+                writeOptional(writer, "screen-id", expEvent.getScreen().getId());
+            }
+            if (expEvent.getFromScreen() != null) {
+                writeOptional(writer, "from-screen-id", expEvent.getFromScreen().getId());
+            }
+            if (expEvent.getFromBlock() != null) {
+                writeOptional(writer, "from-block-id", expEvent.getFromBlock().getId());
+            }
+        } else if (event instanceof BlockPressEvent) {
+            BlockPressEvent expEvent = (BlockPressEvent) event;
+
+            writer.name("object").value("experience");
+            writer.name("action").value("block-clicked");
+            writeOptional(writer, "version-id", expEvent.getExperience().getVersion());
+            writeOptional(writer, "experience-session-id", expEvent.getSessionId());
+            writeOptional(writer, "campaign-id", expEvent.getCampaignId());
+
+            if (expEvent.getBlock() != null) {
+                writeOptional(writer, "block-id", expEvent.getBlock().getId());
+            }
+            if (expEvent.getExperience() != null) {
+                writeOptional(writer, "experience-id", expEvent.getExperience().getId());
+            }
+            if (expEvent.getBlock() != null) {
+                writer.name("block-action");
+                writeAction(expEvent.getBlock().getAction(), writer);
+            }
+            if (expEvent.getScreen() != null) {
+                writeOptional(writer, "screen-id", expEvent.getScreen().getId());
+            }
+        } else if (event instanceof MessageOpenEvent) {
+            MessageOpenEvent messageOpenEvent = (MessageOpenEvent) event;
+
+            writer.name("object").value("message");
+            writer.name("action").value("open");
+            if (messageOpenEvent.getMessage() != null) {
+                writeOptional(writer, "message-id", messageOpenEvent.getMessage().getId());
+            }
+
+            if (messageOpenEvent.getSource() == MessageOpenEvent.Source.Notification) {
+                writer.name("source").value("notification");
+            } else {
+                writer.name("source").value("inbox");
+            }
+        }
+
+        writer.endObject();
+    }
+
+    /*
+        Writes the "user" and "device" members into the current object from the cached snapshot.
+        Only the members the server does not have yet are written unless a full sync is due or asked for
+     */
+    static ContextState.Update writeContext(Context context, boolean full, String customer,
+                                            CompactJsonWriter writer) throws IOException {
+        return writeContext(ContextSnapshot.get(context), ContextState.getInstance(context), full, customer, writer);
+    }
+
+    /*
+        customer is the encoded identifier of the customer the events happened for, or null for the
+        current one. Events of an earlier customer only say whose they are, since their attributes
+        are gone, and nothing is returned for the server to acknowledge
+     */
+    static ContextState.Update writeContext(ContextSnapshot snapshot, ContextState state, boolean full, String customer,
+                                            CompactJsonWriter writer) throws IOException {
+        if (customer != null && !customer.equals(snapshot.getCustomerFields().get(ContextState.CUSTOMER_KEY))) {
+            writer.name("context").value("delta");
+            writer.name("user").beginObject().name(ContextState.CUSTOMER_KEY).rawValue(customer).endObject();
+            writer.name("device").beginObject();
+            String device = snapshot.getDeviceFields().get(ContextState.DEVICE_KEY);
+            if (device != null) {
+                writer.name(ContextState.DEVICE_KEY).rawValue(device);
+            }
+            writer.endObject();
+            return null;
+        }
+
+        ContextState.Update update = full ? state.prepareFull(snapshot) : state.prepare(snapshot, System.currentTimeMillis());
+
+        if (update.isFull()) {
+            writer.name("user").rawValue(snapshot.getCustomerJson());
+            writer.name("device").rawValue(snapshot.getDeviceJson());
+        } else {
+            writer.name("context").value("delta");
+            writer.name("user");
+            writeFields(update.getCustomerFields(), writer);
+            writer.name("device");
+            writeFields(update.getDeviceFields(), writer);
+        }
+
+        return update;
+    }
+
+    /*
+        Writes an object whose members are already encoded
+     */
+    static void writeFields(Map<String, String> fields, CompactJsonWriter writer) throws IOException {
+        writer.beginObject();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            writer.name(field.getKey()).rawValue(field.getValue());
+        }
+        writer.endObject();
+    }
+
+    /*
+        The user and device attributes encoded one member at a time so they can be compared with
+        what the server last acknowledged
+     */
+    static LinkedHashMap<String, String> encodeCustomer(Customer customer) throws IOException {
+        FieldEncoder fields = new FieldEncoder();
+        fields.value("identifier", customer.getIdentifier());
+        fields.value("first-name", customer.getFirstName());
+        fields.value("last-name", customer.getLastName());
+        fields.value("email", customer.getEmail());
+        fields.value("phone-number", customer.getPhoneNumber());
+        fields.value("gender", customer.getGender());
+        fields.value("age", customer.getAge());
+
+        CompactJsonWriter writer = fields.begin();
+        writer.beginArray();
+        String[] tags = customer.getTags();
+        if (tags != null) {
+            for (String tag : tags) {
+                writer.value(tag);
+            }
+        }
+        writer.endArray();
+        fields.end("tags");
+
+        writer = fields.begin();
+        if (customer.getTraits() != null) {
+            writeValue(customer.getTraits(), writer);
+        } else {
+            writer.nullValue();
+        }
+        fields.end("traits");
+
+        return fields.getFields();
+    }
+
+    static LinkedHashMap<String, String> encodeDevice(Device device, Context context) throws IOException {
+        FieldEncoder fields = new FieldEncoder();
+        fields.value("os-name", "Android");
+        fields.value("platform", "Android");
+        fields.value("sdk-version", Rover.VERSION);
+        fields.value("development", false);
+        fields.optional("udid", device.getIdentifier(context));
+        fields.optional("locale-lang", device.getLocaleLanguage());
+        fields.optional("locale-region", device.getLocaleRegion());
+        fields.optional("os-version", device.getOSVersion());
+        fields.optional("manufacturer", device.getManufacturer());
+        fields.optional("model", device.getModel());
+        fields.optional("time-zone", device.getTimeZone());
+        fields.value("bluetooth-enabled", device.getBluetoothEnabled(context));
+        fields.value("notifications-enabled", device.areNotificationsEnabled(context));
+        fields.optional("token", device.getGcmToken());
+        fields.optional("aid", device.getAdvertisingIdentifier());
+        fields.value("ad-tracking", device.getAdTrackingEnabled());
+        fields.value("location-monitoring-enabled", device.getLocationMonitoringEnabled());
+        fields.value("background-enabled", device.getBackgroundEnabled());
+        fields.optional("carrier", device.getCarrier(context));
+        fields.optional("app-identifier", device.getAppIdentifier(context));
+        return fields.getFields();
+    }
+
+    private static class FieldEncoder {
+        private final LinkedHashMap<String, String> mFields = new LinkedHashMap<>();
+        private final StringWriter mBuffer = new StringWriter(64);
+
+        CompactJsonWriter begin() {
+            mBuffer.getBuffer().setLength(0);
+            return new CompactJsonWriter(mBuffer);
+        }
+
+        void end(String name) {
+            mFields.put(name, mBuffer.toString());
+        }
+
+        void value(String name, String value) throws IOException {
+            begin().value(value);
+            end(name);
+        }
+
+        void value(String name, boolean value) throws IOException {
+            begin().value(value);
+            end(name);
+        }
+
+        void value(String name, Number value) throws IOException {
+            begin().value(value);
+            end(name);
+        }
+
+        /*
+            JSONObject.put drops a key when its value is null, so these members are omitted the same way
+         */
+        void optional(String name, String value) throws IOException {
+            if (value != null) {
+                value(name, value);
+            }
+        }
+
+        LinkedHashMap<String, String> getFields() {
+            return mFields;
+        }
+    }
+
+    /*
+        JSONObject.put drops a key when its value is null, so these members are omitted the same way
+     */
+    private static void writeOptional(CompactJsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    private static void writeAction(Action action, CompactJsonWriter writer) throws IOException {
+        writer.beginObject();
+
+        switch (action.getType()) {
+            case Action.DEEPLINK_ACTION: {
+                writer.name("type").value("open-url");
+                writeOptional(writer, "url", action.getUrl());
+                break;
+            }
+            case Action.GOTO_SCREEN_ACTION: {
+                writer.name("type").value("go-to-screen");
+                writeOptional(writer, "screen-id", action.getUrl());
+                break;
+            }
+        }
+
+        writer.endObject();
+    }
+
+    /*
+        Mirrors JSONObject.wrap for custom trait values
+     */
+    private static void writeValue(Object value, CompactJsonWriter writer) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            writer.nullValue();
+        } else if (value instanceof String) {
+            writer.value((String) value);
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else if (value instanceof Character) {
+            writer.value(value.toString());
+        } else if (value instanceof Map) {
+            writer.beginObject();
+            for (Object entry : ((Map<?, ?>) value).entrySet()) {
+                Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) entry;
+                if (mapEntry.getKey() != null && mapEntry.getValue() != null) {
+                    writer.name(mapEntry.getKey().toString());
+                    writeValue(mapEntry.getValue(), writer);
+                }
+            }
+            writer.endObject();
+        } else if (value instanceof Collection) {
+            writer.beginArray();
+            for (Object item : (Collection<?>) value) {
+                writeValue(item, writer);
+            }
+            writer.endArray();
+        } else if (value.getClass().isArray()) {
+            writer.beginArray();
+            int length = Array.getLength(value);
+            for (int i = 0; i < length; i++) {
+                writeValue(Array.get(value, i), writer);
+            }
+            writer.endArray();
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            writer.beginObject();
+            Iterator<String> keys = object.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                writer.name(key);
+                writeValue(object.opt(key), writer);
+            }
+            writer.endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writer.beginArray();
+            for (int i = 0; i < array.length(); i++) {
+                writeValue(array.opt(i), writer);
+            }
+            writer.endArray();
+        } else {
+            writer.value(value.toString());
+        }
+    }
+}
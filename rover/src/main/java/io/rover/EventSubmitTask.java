@@ -3,19 +3,17 @@ package io.rover;
 import android.content.Context;
 import android.util.Log;
 
-import com.google.android.gms.ads.identifier.AdvertisingIdClient;
-
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import io.rover.model.Device;
 import io.rover.model.Event;
 import io.rover.model.GeofenceRegion;
 import io.rover.network.HttpResponse;
-import io.rover.network.JsonApiPayloadProvider;
 import io.rover.network.JsonApiResponseHandler;
-import io.rover.network.JsonApiPayloadProvider.JsonApiObjectSerializer;
 import io.rover.network.JsonApiResponseHandler.JsonApiObjectMapper;
 import io.rover.network.NetworkTask;
 
@@ -29,89 +27,223 @@ public class EventSubmitTask implements Runnable, JsonApiResponseHandler.JsonApi
         void onEventRegistered(Event event);
     }
 
-    private Event mEvent;
+    public interface OnBatchAcknowledgedListener {
+        void onBatchAcknowledged(int count);
+    }
+
+    public interface OnBatchRejectedListener {
+        void onBatchRejected(List<EventJournal.Record> records);
+    }
+
+    private EventJournal mJournal;
     private Context mContext;
     private Callback mCallback;
+    private int mMaxBatchSize;
+    private boolean mWaitForAdvertisingId = true;
+    private OnBatchAcknowledgedListener mBatchListener;
+    private OnBatchRejectedListener mRejectedListener;
+    private boolean mFailed;
     private static final String TAG = "Rover:EventSubmitTask";
 
     public void setCallback(Callback callback) {
         mCallback = callback;
     }
 
-    public EventSubmitTask(Context context, Event event) {
-        mEvent = event;
+    /*
+        When true nothing is sent until the advertising id has been looked up once. When false the
+        events are sent without it
+     */
+    public void setWaitForAdvertisingId(boolean wait) {
+        mWaitForAdvertisingId = wait;
+    }
+
+    public void setOnBatchAcknowledgedListener(OnBatchAcknowledgedListener listener) {
+        mBatchListener = listener;
+    }
+
+    /*
+        Told about batches the server will never accept, after they were removed from the journal
+     */
+    public void setOnBatchRejectedListener(OnBatchRejectedListener listener) {
+        mRejectedListener = listener;
+    }
+
+    /*
+        True if the last run stopped at a batch that should be sent again later
+     */
+    public boolean hasFailed() {
+        return mFailed;
+    }
+
+    public EventSubmitTask(Context context, EventJournal journal, int maxBatchSize) {
+        mJournal = journal;
         mContext = context;
+        mMaxBatchSize = Math.max(1, maxBatchSize);
     }
 
     @Override
     public void run() {
+        mFailed = false;
 
         if (mContext == null) {
             Log.w(TAG, "Cannot submit event context is null");
             return;
         }
 
-        Log.d(TAG, "Submitting: " + mEvent.getClass());
+        if (mJournal == null) {
+            Log.w(TAG, "Cannot submit events journal is null");
+            return;
+        }
+
+        /*
+            The advertising id is looked up in the background. The device attributes are written when
+            the batch is sent, so holding the batch until the first lookup finishes is enough for
+            the events to carry it
+         */
+        if (mWaitForAdvertisingId && !Device.getInstance().hasCheckedForAdTracking()) {
+            Log.d(TAG, "Advertising id not resolved yet, deferring submission");
+            return;
+        }
+
+        /*
+            Events stay in the journal until the server has accepted them. A network failure or a
+            server error stops the drain and the remaining events are replayed on the next attempt
+         */
+        while (true) {
+            List<EventJournal.Record> records = mJournal.read(mMaxBatchSize);
+
+            if (records.isEmpty()) {
+                break;
+            }
 
+            // The user in meta applies to the whole batch, so a batch ends where the customer changes
+            records = records.subList(0, EventSerializer.countSameCustomer(records));
+
+            int outcome = submit(records);
+
+            if (outcome == RETRY) {
+                mFailed = true;
+                break;
+            }
+
+            // Records dropped by the lane while they were being sent are not counted twice
+            int consumed = mJournal.acknowledge(records);
+
+            if (mBatchListener != null && consumed > 0) {
+                mBatchListener.onBatchAcknowledged(consumed);
+            }
+
+            if (mRejectedListener != null && outcome != ACCEPTED) {
+                mRejectedListener.onBatchRejected(records);
+            }
+        }
+    }
+
+    private static final int ACCEPTED = 0;
+    private static final int RETRY = 1;
+    private static final int REJECTED = 2;
+    private static final int REJECTED_DELTA = 3;
+
+    /*
+        Submits the records as a single batch. Returns RETRY if the records should stay in the journal
+     */
+    private int submit(List<EventJournal.Record> records) {
+
+        Log.d(TAG, "Submitting " + records.size() + " event(s)");
+
+        String idempotencyKey = idempotencyKey(records);
+        int outcome = send(records, idempotencyKey, false);
+
+        /*
+            The server may not understand the delta. The context is written when the batch is sent
+            rather than stored with the events, so the same events are sent once more with the full
+            attributes before they are dropped. The key differs since the server may remember its
+            answer to the first one
+         */
+        if (outcome == REJECTED_DELTA) {
+            Log.w(TAG, "Events with changed attributes only were rejected, resending with full attributes");
+            outcome = send(records, UUID.nameUUIDFromBytes((idempotencyKey + ":full").getBytes()).toString(), true);
+        }
+
+        return outcome;
+    }
+
+    private int send(List<EventJournal.Record> records, String idempotencyKey, boolean fullContext) {
         NetworkTask networkTask = Router.getEventsNetworkTask();
 
         if (networkTask == null) {
-            return;
+            return RETRY;
         }
 
-        JsonApiObjectSerializer serializer = new ObjectSerializer(mEvent, mContext);
-        NetworkTask.PayloadProvider payloadProvider = new JsonApiPayloadProvider(serializer);
+        EventBatchPayloadProvider payloadProvider = new EventBatchPayloadProvider(records, mContext);
+        payloadProvider.setFullContext(fullContext);
 
         networkTask.setPayloadProvider(payloadProvider);
+        networkTask.setIdempotencyKey(idempotencyKey);
 
         JsonApiObjectMapper mapper = new ObjectMapper();
         JsonApiResponseHandler responseHandler = new JsonApiResponseHandler(mapper);
         responseHandler.setCompletionHandler(this);
 
-        Device device = Device.getInstance();
+        HttpResponse response = networkTask.run();
 
-        if (!device.hasCheckedForAdTracking()) {
-            Log.d("EventSubmitTask", "Getting advertising id");
-            AdvertisingIdTask advertisingIdTask = new AdvertisingIdTask(mContext);
-            AdvertisingIdClient.Info info = advertisingIdTask.execute();
+        if (response == null) {
+            return RETRY;
+        }
 
-            device.setCheckedForAdTracking(true);
+        try {
+            if (response.isSuccessful()) {
+                onContextAccepted(payloadProvider.getContextUpdate(), response);
+                responseHandler.onHandleResponse(response);
+                return ACCEPTED;
+            }
 
-            if (info != null) {
-                device.setAdTrackingEnabled(true);
-                device.setAdvertisingId(info.getId());
-            } else {
-                device.setAdTrackingEnabled(false);
+            if (response.getStatus() >= 500 || response.getStatus() == 408 || response.getStatus() == 429) {
+                Log.w(TAG, "Event submission failed with status " + response.getStatus() + " will retry");
+                return RETRY;
             }
 
-        }
+            Log.e(TAG, "Events rejected with status " + response.getStatus());
 
-        HttpResponse response = networkTask.run();
+            // Later batches carry the full attributes until the server acknowledges them again
+            ContextState.getInstance(mContext).requestResync();
 
-        if (response != null) {
-            try {
-                responseHandler.onHandleResponse(response);
-            } catch (IOException e) {
-                e.printStackTrace();
-            } finally {
-                response.close();
-            }
+            ContextState.Update update = payloadProvider.getContextUpdate();
+            return update != null && !update.isFull() ? REJECTED_DELTA : REJECTED;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return ACCEPTED;
+        } finally {
+            response.close();
         }
+    }
 
-        // TODO:
-//      AdvertisingIdTask advertisingIdTask = new AdvertisingIdTask(mContext);
-//       advertisingIdTask.setCallback(new AdvertisingIdTask.Callback() {
-//                @Override
-//                public void onFinished(String advertisingId, boolean isLAT) {
-//                    Device.getInstance().setAdvertisingId(advertisingId);
-//                    Device.getInstance().setAdTrackingEnabled(!isLAT);
-//
-//                    networkTask.run();
-//                }
-//            });
-//            advertisingIdTask.onPostExecute(advertisingIdTask.doInBackground());
+    private void onContextAccepted(ContextState.Update update, HttpResponse response) {
+        if (update == null) {
+            return;
+        }
+
+        ContextState state = ContextState.getInstance(mContext);
 
+        if (response.getHeader(ContextState.RESYNC_HEADER) != null) {
+            Log.d(TAG, "Server requested the full user and device attributes");
+            state.requestResync();
+        } else {
+            state.acknowledge(update, System.currentTimeMillis());
+        }
+    }
 
+    /*
+        Derived from the events themselves so a batch replayed from the journal after a lost
+        response carries the same key and the server can recognise it
+     */
+    static String idempotencyKey(List<EventJournal.Record> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (EventJournal.Record record : records) {
+            byte[] payload = record.getPayload();
+            bytes.write(payload, 0, payload.length);
+        }
+        return UUID.nameUUIDFromBytes(bytes.toByteArray()).toString();
     }
 
     @Override
@@ -122,6 +254,12 @@ public class EventSubmitTask implements Runnable, JsonApiResponseHandler.JsonApi
 
         if (response instanceof Event) {
             mCallback.onEventRegistered((Event)response);
+        } else if (response instanceof List) {
+            for (Object object : (List) response) {
+                if (object instanceof Event) {
+                    mCallback.onEventRegistered((Event) object);
+                }
+            }
         }
 
         ArrayList<GeofenceRegion> geofenceRegions = new ArrayList<>();
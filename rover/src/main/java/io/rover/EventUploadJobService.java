@@ -0,0 +1,41 @@
+package io.rover;
+
+import android.annotation.TargetApi;
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Started by JobScheduler when deferred events may be uploaded. The job is finished once the
+ * journal has been drained or the attempt has failed.
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class EventUploadJobService extends JobService {
+
+    @Override
+    public boolean onStartJob(final JobParameters params) {
+        if (!Rover.isInitialized()) {
+            Log.w("EventUploadJobService", "Rover is not set up, events will be sent on the next launch");
+            return false;
+        }
+
+        Rover.mSharedInstance.uploadDeferredEvents(new Runnable() {
+            @Override
+            public void run() {
+                // Failed uploads are retried with the platform's backoff
+                jobFinished(params, Rover.mSharedInstance.hasPendingEvents());
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // Anything not yet acknowledged is still in the journal, try again later
+        return true;
+    }
+}
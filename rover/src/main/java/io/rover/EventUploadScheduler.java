@@ -0,0 +1,165 @@
+package io.rover;
+
+import android.annotation.TargetApi;
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Wakes Rover up to upload deferred events once the upload constraints may have become true. On
+ * Lollipop and above this uses JobScheduler so uploads also happen after the process has died.
+ * Older devices only listen for connectivity and power changes while the process is alive; events
+ * left in the journal there are sent the next time Rover is set up.
+ */
+class EventUploadScheduler {
+
+    private static final String TAG = "Rover:UploadScheduler";
+
+    static final int UNMETERED_JOB_ID = 0x524f5601;
+    static final int CHARGING_JOB_ID = 0x524f5602;
+    static final int DEADLINE_JOB_ID = 0x524f5603;
+
+    private Context mContext;
+    private Runnable mOnConditionsChanged;
+    private boolean mScheduled;
+    private BroadcastReceiver mReceiver;
+
+    EventUploadScheduler(Context context, Runnable onConditionsChanged) {
+        mContext = context.getApplicationContext();
+        mOnConditionsChanged = onConditionsChanged;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            listenForActiveNetwork();
+        }
+    }
+
+    synchronized void schedule(long maxDeferral) {
+        if (mScheduled) {
+            return;
+        }
+
+        mScheduled = true;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            scheduleJobs(maxDeferral);
+        } else {
+            registerReceiver();
+        }
+    }
+
+    synchronized void cancel() {
+        if (!mScheduled) {
+            return;
+        }
+
+        mScheduled = false;
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            cancelJobs();
+        } else {
+            unregisterReceiver();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void scheduleJobs(long maxDeferral) {
+        JobScheduler jobScheduler = (JobScheduler) mContext.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (jobScheduler == null) {
+            return;
+        }
+
+        ComponentName service = new ComponentName(mContext, EventUploadJobService.class);
+
+        try {
+            jobScheduler.schedule(new JobInfo.Builder(UNMETERED_JOB_ID, service)
+                    .setRequiredNetworkType(JobInfo.NETWORK_TYPE_UNMETERED)
+                    .build());
+
+            jobScheduler.schedule(new JobInfo.Builder(CHARGING_JOB_ID, service)
+                    .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                    .setRequiresCharging(true)
+                    .build());
+
+            jobScheduler.schedule(new JobInfo.Builder(DEADLINE_JOB_ID, service)
+                    .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                    .setMinimumLatency(maxDeferral)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            // Thrown when the host app's manifest is missing the job service
+            Log.e(TAG, "Unable to schedule event upload: " + e.getMessage());
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void cancelJobs() {
+        JobScheduler jobScheduler = (JobScheduler) mContext.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (jobScheduler == null) {
+            return;
+        }
+
+        jobScheduler.cancel(UNMETERED_JOB_ID);
+        jobScheduler.cancel(CHARGING_JOB_ID);
+        jobScheduler.cancel(DEADLINE_JOB_ID);
+    }
+
+    /*
+        Any request made by another app turns the radio on. Piggyback deferred events on it
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    private void listenForActiveNetwork() {
+        ConnectivityManager connectivityManager = (ConnectivityManager) mContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return;
+        }
+
+        connectivityManager.addDefaultNetworkActiveListener(new ConnectivityManager.OnNetworkActiveListener() {
+            @Override
+            public void onNetworkActive() {
+                if (isScheduled()) {
+                    mOnConditionsChanged.run();
+                }
+            }
+        });
+    }
+
+    private void registerReceiver() {
+        if (mReceiver != null) {
+            return;
+        }
+
+        mReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                mOnConditionsChanged.run();
+            }
+        };
+
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(ConnectivityManager.CONNECTIVITY_ACTION);
+        filter.addAction(Intent.ACTION_POWER_CONNECTED);
+
+        mContext.registerReceiver(mReceiver, filter);
+    }
+
+    private void unregisterReceiver() {
+        if (mReceiver == null) {
+            return;
+        }
+
+        mContext.unregisterReceiver(mReceiver);
+        mReceiver = null;
+    }
+
+    private synchronized boolean isScheduled() {
+        return mScheduled;
+    }
+}
@@ -38,6 +38,7 @@ import io.rover.model.ScreenViewEvent;
 import io.rover.network.HttpResponse;
 import io.rover.network.JsonResponseHandler;
 import io.rover.network.NetworkTask;
+import io.rover.network.SingleFlight;
 import io.rover.ui.AssetManager;
 import io.rover.ui.ExperienceScreenAnimation;
 import io.rover.ui.ScreenFragment;
@@ -80,7 +81,7 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
             String experienceId = data.getPath();
             if (experienceId != null) {
                 mFetchTask = new FetchExperienceTask(this);
-                mFetchTask.execute(experienceId);
+                mFetchTask.start(experienceId);
             }
 
             try {
@@ -111,19 +112,21 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
         if (isFinishing() && mExperience != null) {
             Rover.submitEvent(new ExperienceDismissEvent(mExperience, mSessionId, mCampaignId, new Date()));
 
-            for (RoverObserver observer : Rover.mSharedInstance.mObservers) {
-                if (observer instanceof RoverObserver.ExperienceObserver) {
-                    ((RoverObserver.ExperienceObserver) observer).onExperienceDismiss(
-                            mExperience,
-                            mSessionId
-                    );
+            final Experience experience = mExperience;
+            final String sessionId = mSessionId;
+
+            Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExperienceObserver.class, null,
+                    new ObserverRegistry.Dispatch<RoverObserver.ExperienceObserver>() {
+                @Override
+                public void dispatch(RoverObserver.ExperienceObserver observer) {
+                    observer.onExperienceDismiss(experience, sessionId);
                 }
-            }
+            });
         }
     }
 
     @MainThread
-    public void setExperience(Experience experience) {
+    public void setExperience(final Experience experience) {
 
         if (isDestroyed()) {
             Log.d(TAG, "Activity is destroyed skipping setExperience");
@@ -134,22 +137,23 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
 
         Rover.submitEvent(new ExperienceLaunchEvent(mExperience, mSessionId, mCampaignId, new Date()));
 
-        for (RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.ExperienceObserver) {
-                ((RoverObserver.ExperienceObserver) observer).onExperienceLaunch(
-                        mExperience,
-                        mSessionId
-                );
+        final String sessionId = mSessionId;
+
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExperienceObserver observer) {
+                observer.onExperienceLaunch(experience, sessionId);
             }
+        });
 
-            if (observer instanceof RoverObserver.ExtendedExperienceObserver ) {
-                ((RoverObserver.ExtendedExperienceObserver) observer).onExperienceLaunch(
-                        this,
-                        mExperience,
-                        mSessionId
-                );
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExtendedExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExtendedExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExtendedExperienceObserver observer) {
+                observer.onExperienceLaunch(ExperienceActivity.this, experience, sessionId);
             }
-        }
+        });
 
         Screen homeScreen = mExperience.getHomeScreen();
 
@@ -183,10 +187,9 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
             return;
         }
 
-        for (RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.ExtendedExperienceObserver) {
-                screenFragment = ((RoverObserver.ExtendedExperienceObserver) observer).willPresentScreen(this, screenFragment, screen);
-            }
+        // Each observer may replace the fragment so they are called in turn on this thread
+        for (RoverObserver.ExtendedExperienceObserver observer : Rover.mSharedInstance.mObservers.get(RoverObserver.ExtendedExperienceObserver.class)) {
+            screenFragment = observer.willPresentScreen(this, screenFragment, screen);
         }
 
         if (screenFragment == null) {
@@ -225,7 +228,7 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
     }
 
     @Override
-    public void onBlockClick(Fragment screenFragment, Screen screen, Block block) {
+    public void onBlockClick(final Fragment screenFragment, final Screen screen, final Block block) {
         Action action = block.getAction();
 
         if (action == null) {
@@ -234,26 +237,24 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
 
         Rover.submitEvent(new BlockPressEvent(block, screen, mExperience, mSessionId, mCampaignId, new Date()));
 
-        for (RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.ExperienceObserver) {
-                ((RoverObserver.ExperienceObserver) observer).onBlockClick(
-                        block,
-                        screen,
-                        mExperience,
-                        mSessionId
-                );
+        final Experience experience = mExperience;
+        final String sessionId = mSessionId;
+
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExperienceObserver observer) {
+                observer.onBlockClick(block, screen, experience, sessionId);
             }
+        });
 
-            if (observer instanceof RoverObserver.ExtendedExperienceObserver) {
-                ((RoverObserver.ExtendedExperienceObserver) observer).onBlockClick(
-                        this,
-                        screenFragment,
-                        screen,
-                        block,
-                        mSessionId
-                );
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExtendedExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExtendedExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExtendedExperienceObserver observer) {
+                observer.onBlockClick(ExperienceActivity.this, screenFragment, screen, block, sessionId);
             }
-        }
+        });
 
         switch (action.getType()) {
             case Action.GOTO_SCREEN_ACTION: {
@@ -300,39 +301,38 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
         return intent;
     }
 
-    private void trackScreenView(Fragment screenFragment, Screen screen, Screen fromScreen, Block fromBlock) {
+    private void trackScreenView(final Fragment screenFragment, final Screen screen, final Screen fromScreen, final Block fromBlock) {
         Rover.submitEvent(new ScreenViewEvent(screen, mExperience, fromScreen, fromBlock, mSessionId, mCampaignId, new Date()));
 
-        for (RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.ExperienceObserver) {
-                ((RoverObserver.ExperienceObserver) observer).onScreenView(
-                        screen,
-                        mExperience,
-                        fromScreen,
-                        fromBlock,
-                        mSessionId
-                );
+        final Experience experience = mExperience;
+        final String sessionId = mSessionId;
+
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExperienceObserver observer) {
+                observer.onScreenView(screen, experience, fromScreen, fromBlock, sessionId);
             }
+        });
 
-            if (observer instanceof RoverObserver.ExtendedExperienceObserver) {
-                ((RoverObserver.ExtendedExperienceObserver) observer).onScreenView(
-                        this,
-                        screenFragment,
-                        mExperience,
-                        screen,
-                        fromScreen,
-                        fromBlock,
-                        mSessionId
-                );
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.ExtendedExperienceObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.ExtendedExperienceObserver>() {
+            @Override
+            public void dispatch(RoverObserver.ExtendedExperienceObserver observer) {
+                observer.onScreenView(ExperienceActivity.this, screenFragment, experience, screen, fromScreen, fromBlock, sessionId);
             }
-        }
+        });
     }
 
 
     private static class FetchExperienceTask extends AsyncTask<String, Void, Experience> implements JsonResponseHandler.JsonCompletionHandler {
 
+        // Activities opening the same experience share one request and one parsed experience
+        private static final SingleFlight<FetchExperienceTask> sFlights = new SingleFlight<>();
+
         private ObjectMapper mObjectMapper;
         private Experience experience = null;
+        private String mFlightKey;
 
         private WeakReference<ExperienceActivity> mActivity;
 
@@ -340,6 +340,14 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
             mActivity = new WeakReference<>(activity);
         }
 
+        void start(String experienceId) {
+            mFlightKey = "GET /experiences/" + experienceId;
+
+            if (sFlights.join(mFlightKey, this)) {
+                executeOnExecutor(Rover.getRequestExecutor(null), experienceId);
+            }
+        }
+
         @Override
         protected Experience doInBackground(String... params) {
             String experienceId = params[0];
@@ -355,9 +363,22 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
             NetworkTask networkTask = Router.getExperienceNetworkTask(experienceId);
             HttpResponse response = networkTask.run();
 
+            if (response != null && response.isNotModified()) {
+                Rover.getMetrics().increment(RoverMetrics.HTTP_NOT_MODIFIED);
+
+                if (response.getCachedModel() instanceof Experience) {
+                    Rover.getMetrics().increment(RoverMetrics.HTTP_MODELS_REUSED);
+                    response.close();
+                    return (Experience) response.getCachedModel();
+                }
+            }
+
             if (response != null) {
                 try {
                     responseHandler.onHandleResponse(response);
+                    if (response.isSuccessful()) {
+                        networkTask.setParsedModel(experience);
+                    }
                 } catch (IOException e) {
                     e.printStackTrace();
                 } finally {
@@ -384,7 +405,21 @@ public class ExperienceActivity extends AppCompatActivity implements ScreenFragm
         public void onReceivedJSONArray(JSONArray jsonArray) {}
 
         @Override
-        protected void onPostExecute(Experience experience) {
+        protected void onPostExecute(final Experience experience) {
+            sFlights.complete(mFlightKey, new SingleFlight.Delivery<FetchExperienceTask>() {
+                @Override
+                public void deliver(FetchExperienceTask task) {
+                    task.onExperienceFetched(experience);
+                }
+            });
+        }
+
+        @Override
+        protected void onCancelled(Experience experience) {
+            onPostExecute(null);
+        }
+
+        private void onExperienceFetched(Experience experience) {
             ExperienceActivity activity = mActivity.get();
             if (experience == null || activity == null) { return; }
 
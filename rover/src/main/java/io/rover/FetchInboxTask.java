@@ -1,6 +1,8 @@
 package io.rover;
 
 import android.os.AsyncTask;
+
+import java.util.ArrayList;
 import java.util.List;
 
 import io.rover.model.Message;
@@ -8,15 +10,32 @@ import io.rover.network.HttpResponse;
 import io.rover.network.JsonApiResponseHandler;
 import io.rover.network.JsonApiResponseHandler.JsonApiObjectMapper;
 import io.rover.network.NetworkTask;
+import io.rover.network.SingleFlight;
 
 /**
  * Created by Roverlabs Inc. on 2016-04-07.
  */
 public class FetchInboxTask extends AsyncTask<Void, Void, Boolean> implements JsonApiResponseHandler.JsonApiCompletionHandler {
 
+    private static final String FLIGHT_KEY = "GET /inbox";
+    private static final SingleFlight<Callback> sFlights = new SingleFlight<>();
+
     private Callback mCallback;
     private List<Message> mInbox;
     private String mErrorMessage = "";
+    private boolean mCoalesced;
+
+    /*
+        Fetches the inbox, or attaches the callback to the fetch already running. Every caller
+        receives its own copy of the list
+     */
+    static void fetch(Callback callback) {
+        if (sFlights.join(FLIGHT_KEY, callback)) {
+            FetchInboxTask task = new FetchInboxTask();
+            task.mCoalesced = true;
+            task.executeOnExecutor(Rover.getRequestExecutor("inbox"));
+        }
+    }
 
     public void setCallback(Callback callback) {
         mCallback = callback;
@@ -44,7 +63,25 @@ public class FetchInboxTask extends AsyncTask<Void, Void, Boolean> implements Js
 
         if (response != null && response.isSuccessful()) {
             try {
+                if (response.isNotModified()) {
+                    Rover.getMetrics().increment(RoverMetrics.HTTP_NOT_MODIFIED);
+
+                    // Callers may change their list, so each one gets its own
+                    if (response.getCachedModel() instanceof List) {
+                        Rover.getMetrics().increment(RoverMetrics.HTTP_MODELS_REUSED);
+                        mInbox = Rover.applyPendingMessageMutations(
+                                new ArrayList<>((List<Message>) response.getCachedModel()));
+                        return true;
+                    }
+                }
+
                 responseHandler.onHandleResponse(response);
+                networkTask.setParsedModel(mInbox);
+
+                // Changes still in the outbox are not in the server's inbox yet
+                if (mInbox != null) {
+                    mInbox = Rover.applyPendingMessageMutations(new ArrayList<>(mInbox));
+                }
                 return true;
             } catch (Exception e) {
                 e.printStackTrace();
@@ -74,13 +111,29 @@ public class FetchInboxTask extends AsyncTask<Void, Void, Boolean> implements Js
     }
 
     @Override
-    protected void onPostExecute(Boolean successful) {
-        if (mCallback != null) {
-            if (successful) {
-                mCallback.onSuccess(mInbox);
-            } else {
-                mCallback.onFailure(mErrorMessage);
+    protected void onPostExecute(final Boolean successful) {
+        SingleFlight.Delivery<Callback> delivery = new SingleFlight.Delivery<Callback>() {
+            @Override
+            public void deliver(Callback callback) {
+                if (successful != null && successful) {
+                    callback.onSuccess(mInbox == null ? null : new ArrayList<>(mInbox));
+                } else {
+                    callback.onFailure(mErrorMessage);
+                }
             }
+        };
+
+        if (mCallback != null) {
+            delivery.deliver(mCallback);
+        }
+
+        if (mCoalesced) {
+            sFlights.complete(FLIGHT_KEY, delivery);
         }
     }
+
+    @Override
+    protected void onCancelled(Boolean successful) {
+        onPostExecute(false);
+    }
 }
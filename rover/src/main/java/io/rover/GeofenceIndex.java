@@ -0,0 +1,393 @@
+package io.rover;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import io.rover.model.GeofenceRegion;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Every geofence region the server knows about, bucketed into a grid of CELL_SIZE degree cells.
+ * Play Services only monitors 100 geofences per app, so only the regions nearest to the device are
+ * registered and the selection is redone once the device leaves the area they cover. The regions
+ * are persisted to a file as there can be tens of thousands of them, and read lazily on first use.
+ */
+class GeofenceIndex {
+
+    private static final String TAG = "Rover:GeofenceIndex";
+    private static final int FILE_VERSION = 1;
+
+    static final double CELL_SIZE = 0.05;
+    private static final int LATITUDE_CELLS = (int) Math.ceil(180 / CELL_SIZE);
+    private static final int LONGITUDE_CELLS = (int) Math.ceil(360 / CELL_SIZE);
+    private static final double CELL_HEIGHT = Math.toRadians(CELL_SIZE) * LocationFilter.EARTH_RADIUS;
+
+    // Past this many rings around the device the cells are too sparse to be worth visiting one by one
+    private static final int MAX_RINGS = 48;
+
+    // The selection is redone after moving this fraction of the way to the farthest selected region
+    private static final double RESELECT_FRACTION = 0.5;
+
+    private static class Candidate {
+        final int index;
+        final double distance;
+
+        Candidate(int index, double distance) {
+            this.index = index;
+            this.distance = distance;
+        }
+    }
+
+    private static final Comparator<Candidate> FARTHEST_FIRST = new Comparator<Candidate>() {
+        @Override
+        public int compare(Candidate a, Candidate b) {
+            return Double.compare(b.distance, a.distance);
+        }
+    };
+
+    private final File mFile;
+    private boolean mLoaded;
+
+    private GeofenceRegion[] mRegions = new GeofenceRegion[0];
+    private HashMap<Long, int[]> mCells = new HashMap<>();
+    private int mMaxRadius;
+
+    private boolean mHasAnchor;
+    private double mAnchorLatitude;
+    private double mAnchorLongitude;
+    private double mReselectDistance;
+
+    GeofenceIndex(File file) {
+        mFile = file;
+    }
+
+    /*
+        Replaces the regions and persists them unless they did not change. The next location update
+        redoes the selection
+     */
+    synchronized void setRegions(List<GeofenceRegion> regions) {
+        ensureLoaded();
+
+        if (sameRegions(regions)) {
+            return;
+        }
+
+        mRegions = regions.toArray(new GeofenceRegion[regions.size()]);
+        mLoaded = true;
+        mHasAnchor = false;
+        build();
+        save();
+    }
+
+    synchronized int size() {
+        ensureLoaded();
+        return mRegions.length;
+    }
+
+    /*
+        The first regions in the order the server sent them, for when the location is unknown
+     */
+    synchronized List<GeofenceRegion> first(int count) {
+        ensureLoaded();
+        return new ArrayList<>(Arrays.asList(mRegions).subList(0, Math.min(count, mRegions.length)));
+    }
+
+    /*
+        Selects the regions nearest to the location and remembers the location until the device
+        moves far enough for the selection to change
+     */
+    synchronized List<GeofenceRegion> select(double latitude, double longitude, int count) {
+        List<GeofenceRegion> nearest = nearest(latitude, longitude, count);
+
+        mHasAnchor = true;
+        mAnchorLatitude = latitude;
+        mAnchorLongitude = longitude;
+
+        if (nearest.size() >= mRegions.length) {
+            // Everything is registered, moving never changes the selection
+            mReselectDistance = Double.POSITIVE_INFINITY;
+        } else {
+            GeofenceRegion farthest = nearest.get(nearest.size() - 1);
+            mReselectDistance = Math.max(0, RESELECT_FRACTION * distance(latitude, longitude, farthest));
+        }
+
+        return nearest;
+    }
+
+    synchronized boolean needsSelection(double latitude, double longitude) {
+        ensureLoaded();
+
+        if (mRegions.length == 0) {
+            return false;
+        }
+
+        if (!mHasAnchor) {
+            return true;
+        }
+
+        return LocationFilter.distance(mAnchorLatitude, mAnchorLongitude, latitude, longitude) > mReselectDistance;
+    }
+
+    /*
+        The regions whose edge is nearest to the location, nearest first. Rings of cells are visited
+        outwards until no unvisited cell can hold anything nearer than what was found
+     */
+    synchronized List<GeofenceRegion> nearest(double latitude, double longitude, int count) {
+        ensureLoaded();
+
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+
+        PriorityQueue<Candidate> best = new PriorityQueue<>(count, FARTHEST_FIRST);
+
+        int centerLatitudeCell = latitudeCell(latitude);
+        int centerLongitudeCell = longitudeCell(longitude);
+        boolean complete = false;
+
+        for (int ring = 0; ring <= MAX_RINGS; ring++) {
+            for (int latitudeCell = centerLatitudeCell - ring; latitudeCell <= centerLatitudeCell + ring; latitudeCell++) {
+                if (latitudeCell < 0 || latitudeCell >= LATITUDE_CELLS) {
+                    continue;
+                }
+
+                boolean edgeRow = latitudeCell == centerLatitudeCell - ring || latitudeCell == centerLatitudeCell + ring;
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+
+                for (int offset = -ring; offset <= ring; offset += step) {
+                    int longitudeCell = wrap(centerLongitudeCell + offset);
+                    int[] indexes = mCells.get(cellKey(latitudeCell, longitudeCell));
+
+                    if (indexes != null) {
+                        for (int index : indexes) {
+                            offer(best, count, index, distance(latitude, longitude, mRegions[index]));
+                        }
+                    }
+                }
+            }
+
+            if (best.size() == mRegions.length) {
+                complete = true;
+                break;
+            }
+
+            // Cells outside this ring are at least ring cells away from the cell holding the location
+            if (best.size() == count && best.peek().distance <= ring * minimumCellSize(latitude, ring) - mMaxRadius) {
+                complete = true;
+                break;
+            }
+        }
+
+        if (!complete) {
+            best.clear();
+            for (int index = 0; index < mRegions.length; index++) {
+                offer(best, count, index, distance(latitude, longitude, mRegions[index]));
+            }
+        }
+
+        Candidate[] sorted = best.toArray(new Candidate[best.size()]);
+        Arrays.sort(sorted, Collections.reverseOrder(FARTHEST_FIRST));
+
+        ArrayList<GeofenceRegion> nearest = new ArrayList<>(sorted.length);
+        for (Candidate candidate : sorted) {
+            nearest.add(mRegions[candidate.index]);
+        }
+        return nearest;
+    }
+
+    private boolean sameRegions(List<GeofenceRegion> regions) {
+        if (regions.size() != mRegions.length) {
+            return false;
+        }
+
+        for (int i = 0; i < mRegions.length; i++) {
+            GeofenceRegion a = mRegions[i];
+            GeofenceRegion b = regions.get(i);
+            if (!a.getId().equals(b.getId()) || a.getlatitude() != b.getlatitude()
+                    || a.getLongitude() != b.getLongitude() || a.getRadius() != b.getRadius()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, int count, int index, double distance) {
+        if (best.size() < count) {
+            best.add(new Candidate(index, distance));
+        } else if (distance < best.peek().distance) {
+            best.poll();
+            best.add(new Candidate(index, distance));
+        }
+    }
+
+    /*
+        Distance from the location to the edge of the region, 0 inside it
+     */
+    private static double distance(double latitude, double longitude, GeofenceRegion region) {
+        double distance = LocationFilter.distance(latitude, longitude, region.getlatitude(), region.getLongitude());
+        return Math.max(0, distance - region.getRadius());
+    }
+
+    /*
+        Cells get narrower towards the poles, so the width at the poleward edge of the ring bounds
+        the distance across it
+     */
+    private static double minimumCellSize(double latitude, int ring) {
+        double poleward = Math.min(90, Math.abs(latitude) + (ring + 1) * CELL_SIZE);
+        return CELL_HEIGHT * Math.min(1, Math.cos(Math.toRadians(poleward)));
+    }
+
+    private void build() {
+        HashMap<Long, ArrayList<Integer>> cells = new HashMap<>();
+        int maxRadius = 0;
+
+        for (int index = 0; index < mRegions.length; index++) {
+            GeofenceRegion region = mRegions[index];
+            Long key = cellKey(latitudeCell(region.getlatitude()), longitudeCell(region.getLongitude()));
+
+            ArrayList<Integer> indexes = cells.get(key);
+            if (indexes == null) {
+                indexes = new ArrayList<>(4);
+                cells.put(key, indexes);
+            }
+            indexes.add(index);
+
+            maxRadius = Math.max(maxRadius, region.getRadius());
+        }
+
+        HashMap<Long, int[]> packed = new HashMap<>(cells.size() * 2);
+        for (Map.Entry<Long, ArrayList<Integer>> cell : cells.entrySet()) {
+            ArrayList<Integer> indexes = cell.getValue();
+            int[] array = new int[indexes.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = indexes.get(i);
+            }
+            packed.put(cell.getKey(), array);
+        }
+
+        mCells = packed;
+        mMaxRadius = maxRadius;
+    }
+
+    private static int latitudeCell(double latitude) {
+        return Math.max(0, Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_SIZE)));
+    }
+
+    private static int longitudeCell(double longitude) {
+        return wrap((int) Math.floor((longitude + 180) / CELL_SIZE));
+    }
+
+    private static int wrap(int longitudeCell) {
+        int wrapped = longitudeCell % LONGITUDE_CELLS;
+        return wrapped < 0 ? wrapped + LONGITUDE_CELLS : wrapped;
+    }
+
+    private static long cellKey(int latitudeCell, int longitudeCell) {
+        return ((long) latitudeCell << 32) | longitudeCell;
+    }
+
+    /*
+        Persistence
+     */
+
+    private void ensureLoaded() {
+        if (mLoaded) {
+            return;
+        }
+
+        mLoaded = true;
+
+        if (mFile == null || !mFile.exists()) {
+            return;
+        }
+
+        DataInputStream input = null;
+
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+
+            if (input.readInt() != FILE_VERSION) {
+                return;
+            }
+
+            int count = input.readInt();
+            GeofenceRegion[] regions = new GeofenceRegion[count];
+            for (int i = 0; i < count; i++) {
+                regions[i] = new GeofenceRegion(input.readUTF(), input.readDouble(), input.readDouble(), input.readInt());
+            }
+
+            mRegions = regions;
+            build();
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to read geofence regions: " + e);
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    private void save() {
+        if (mFile == null) {
+            return;
+        }
+
+        File directory = mFile.getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "Unable to create " + directory);
+            return;
+        }
+
+        // Written next to the file and renamed over it so a crash never leaves half a file behind
+        File temporary = new File(mFile.getPath() + ".tmp");
+        DataOutputStream output = null;
+
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+            output.writeInt(FILE_VERSION);
+            output.writeInt(mRegions.length);
+            for (GeofenceRegion region : mRegions) {
+                output.writeUTF(region.getId());
+                output.writeDouble(region.getlatitude());
+                output.writeDouble(region.getLongitude());
+                output.writeInt(region.getRadius());
+            }
+            output.close();
+            output = null;
+
+            if (!temporary.renameTo(mFile)) {
+                Log.e(TAG, "Unable to replace " + mFile);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to write geofence regions: " + e);
+        } finally {
+            closeQuietly(output);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
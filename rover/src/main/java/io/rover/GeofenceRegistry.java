@@ -0,0 +1,173 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import io.rover.model.GeofenceRegion;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * The geofences currently registered with Play Services. New region lists are diffed against it so
+ * only the regions that changed are removed or added. Play Services forgets every geofence on
+ * reboot, so the set is discarded when the boot time changed since it was saved.
+ */
+class GeofenceRegistry {
+
+    private static final String SHARED_GEOFENCES = "ROVER_SHARED_GEOFENCES";
+    private static final String BOOT_TIME = "boot-time";
+    private static final String REGION_PREFIX = "region/";
+
+    // Boot times computed from the wall clock drift a little between calls
+    private static final long BOOT_TIME_TOLERANCE = 60 * 1000;
+
+    static class Diff {
+        private final List<String> mRemoved;
+        private final List<GeofenceRegion> mAdded;
+
+        Diff(List<String> removed, List<GeofenceRegion> added) {
+            mRemoved = removed;
+            mAdded = added;
+        }
+
+        List<String> getRemoved() {
+            return mRemoved;
+        }
+
+        /*
+            New regions and regions whose center or radius changed. Adding a geofence with an id
+            that is already registered replaces it
+         */
+        List<GeofenceRegion> getAdded() {
+            return mAdded;
+        }
+
+        boolean isEmpty() {
+            return mRemoved.isEmpty() && mAdded.isEmpty();
+        }
+    }
+
+    private final HashMap<String, GeofenceRegion> mRegistered = new HashMap<>();
+    private long mBootTime;
+
+    synchronized Diff diff(Collection<GeofenceRegion> regions) {
+        HashSet<String> ids = new HashSet<>();
+        ArrayList<GeofenceRegion> added = new ArrayList<>();
+
+        for (GeofenceRegion region : regions) {
+            if (!ids.add(region.getId())) {
+                continue;
+            }
+
+            GeofenceRegion registered = mRegistered.get(region.getId());
+            if (registered == null || !sameArea(registered, region)) {
+                added.add(region);
+            }
+        }
+
+        ArrayList<String> removed = new ArrayList<>();
+        for (String id : mRegistered.keySet()) {
+            if (!ids.contains(id)) {
+                removed.add(id);
+            }
+        }
+
+        return new Diff(removed, added);
+    }
+
+    synchronized void applyRemoved(List<String> ids) {
+        for (String id : ids) {
+            mRegistered.remove(id);
+        }
+    }
+
+    synchronized void applyAdded(List<GeofenceRegion> regions) {
+        for (GeofenceRegion region : regions) {
+            mRegistered.put(region.getId(), region);
+        }
+    }
+
+    /*
+        Returns the id of the registered region at the place's center and radius, or null
+     */
+    synchronized String findId(double latitude, double longitude, double radius) {
+        for (GeofenceRegion region : mRegistered.values()) {
+            if (Math.abs(region.getlatitude() - latitude) < 1e-6
+                    && Math.abs(region.getLongitude() - longitude) < 1e-6
+                    && Math.abs(region.getRadius() - radius) < 1) {
+                return region.getId();
+            }
+        }
+
+        return null;
+    }
+
+    /*
+        Every geofence was removed, by us or by Play Services
+     */
+    synchronized void clear() {
+        mRegistered.clear();
+    }
+
+    synchronized int size() {
+        return mRegistered.size();
+    }
+
+    private static boolean sameArea(GeofenceRegion a, GeofenceRegion b) {
+        return a.getlatitude() == b.getlatitude() && a.getLongitude() == b.getLongitude()
+                && a.getRadius() == b.getRadius();
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context, long bootTime) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_GEOFENCES, 0);
+
+        mRegistered.clear();
+        mBootTime = bootTime;
+
+        if (Math.abs(sharedData.getLong(BOOT_TIME, 0) - bootTime) > BOOT_TIME_TOLERANCE) {
+            return;
+        }
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            if (!entry.getKey().startsWith(REGION_PREFIX) || !(entry.getValue() instanceof String)) {
+                continue;
+            }
+
+            String[] area = ((String) entry.getValue()).split(",");
+            if (area.length != 3) {
+                continue;
+            }
+
+            try {
+                String id = entry.getKey().substring(REGION_PREFIX.length());
+                mRegistered.put(id, new GeofenceRegion(id, Double.parseDouble(area[0]),
+                        Double.parseDouble(area[1]), Integer.parseInt(area[2])));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    synchronized void save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_GEOFENCES, 0).edit();
+        editor.clear();
+        editor.putLong(BOOT_TIME, mBootTime);
+
+        for (GeofenceRegion region : mRegistered.values()) {
+            editor.putString(REGION_PREFIX + region.getId(),
+                    region.getlatitude() + "," + region.getLongitude() + "," + region.getRadius());
+        }
+
+        editor.apply();
+    }
+}
@@ -0,0 +1,138 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.google.android.gms.location.Geofence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * The last enter or exit reported for each geofence region, keyed by request id. Play Services
+ * repeats transitions after geofences are registered again, after a reboot or when it redelivers
+ * an intent. A transition that matches the last one reported for its region is dropped, as is a
+ * transition that comes sooner than the minimum interval after the last one. The table is
+ * persisted since transitions arrive in short lived services.
+ */
+class GeofenceStateTable {
+
+    private static final String SHARED_GEOFENCE_STATE = "ROVER_SHARED_GEOFENCE_STATE";
+
+    // Oldest entries are evicted past this size so regions that are gone do not pile up
+    static final int MAX_REGIONS = 1000;
+
+    private static class State {
+        final int transition;
+        final long time;
+
+        State(int transition, long time) {
+            this.transition = transition;
+            this.time = time;
+        }
+    }
+
+    private final long mMinInterval;
+    private final HashMap<String, State> mStates = new HashMap<>();
+
+    private int mSuppressed;
+
+    GeofenceStateTable(long minInterval) {
+        mMinInterval = Math.max(0, minInterval);
+    }
+
+    /*
+        Returns true if the transition should be reported, and records it as the region's state
+     */
+    synchronized boolean accept(String id, int transition, long now) {
+        if (transition != Geofence.GEOFENCE_TRANSITION_ENTER && transition != Geofence.GEOFENCE_TRANSITION_EXIT) {
+            return true;
+        }
+
+        State state = mStates.get(id);
+
+        if (state != null) {
+            // A clock set backwards does not hold transitions back
+            boolean tooSoon = now >= state.time && now - state.time < mMinInterval;
+
+            if (state.transition == transition || tooSoon) {
+                mSuppressed++;
+                return false;
+            }
+        }
+
+        mStates.put(id, new State(transition, now));
+
+        if (mStates.size() > MAX_REGIONS) {
+            evictOldest();
+        }
+
+        return true;
+    }
+
+    /*
+        Returns how many transitions were dropped since the last call
+     */
+    synchronized int takeSuppressedCount() {
+        int suppressed = mSuppressed;
+        mSuppressed = 0;
+        return suppressed;
+    }
+
+    synchronized int size() {
+        return mStates.size();
+    }
+
+    private void evictOldest() {
+        String oldest = null;
+        long oldestTime = Long.MAX_VALUE;
+
+        for (Map.Entry<String, State> entry : mStates.entrySet()) {
+            if (entry.getValue().time < oldestTime) {
+                oldest = entry.getKey();
+                oldestTime = entry.getValue().time;
+            }
+        }
+
+        mStates.remove(oldest);
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_GEOFENCE_STATE, 0);
+
+        mStates.clear();
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            if (!(entry.getValue() instanceof String)) {
+                continue;
+            }
+
+            String[] state = ((String) entry.getValue()).split(",");
+            if (state.length != 2) {
+                continue;
+            }
+
+            try {
+                mStates.put(entry.getKey(), new State(Integer.parseInt(state[0]), Long.parseLong(state[1])));
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    synchronized void save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_GEOFENCE_STATE, 0).edit();
+        editor.clear();
+
+        for (Map.Entry<String, State> entry : mStates.entrySet()) {
+            editor.putString(entry.getKey(), entry.getValue().transition + "," + entry.getValue().time);
+        }
+
+        editor.apply();
+    }
+}
@@ -34,17 +34,22 @@ public class GoogleApiConnection implements GoogleApiClient.ConnectionCallbacks,
     public GoogleApiConnection(Context context) {
 
         if (context != null) {
-            mGoogleApiClient = new GoogleApiClient.Builder(context)
-                    .addConnectionCallbacks(this)
-                    .addOnConnectionFailedListener(this)
-                    .addApi(LocationServices.API)
-                    .addApi(Nearby.MESSAGES_API, new MessagesOptions.Builder()
-                            .setPermissions(NearbyPermissions.BLE)
-                            .build())
-                    .build();
+            mGoogleApiClient = buildClient(context, this, this);
         }
     }
 
+    static GoogleApiClient buildClient(Context context, GoogleApiClient.ConnectionCallbacks callbacks,
+                                       GoogleApiClient.OnConnectionFailedListener listener) {
+        return new GoogleApiClient.Builder(context)
+                .addConnectionCallbacks(callbacks)
+                .addOnConnectionFailedListener(listener)
+                .addApi(LocationServices.API)
+                .addApi(Nearby.MESSAGES_API, new MessagesOptions.Builder()
+                        .setPermissions(NearbyPermissions.BLE)
+                        .build())
+                .build();
+    }
+
     public void connect() {
         if (mGoogleApiClient != null) {
             mGoogleApiClient.connect();
@@ -0,0 +1,167 @@
+package io.rover;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import com.google.android.gms.common.ConnectionResult;
+import com.google.android.gms.common.api.GoogleApiClient;
+
+import java.util.ArrayDeque;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * One Play Services client shared by every location, geofence and Nearby operation. Operations run
+ * one at a time in the order they were submitted, and each holds a reference on the connection
+ * until it calls done. The client stays connected for IDLE_TIMEOUT after the last reference is
+ * released, so bursts of operations pay for a single connect. All state is confined to the main
+ * thread, where the client delivers its callbacks.
+ */
+class GoogleApiConnectionManager implements GoogleApiClient.ConnectionCallbacks, GoogleApiClient.OnConnectionFailedListener {
+
+    interface Operation {
+        /*
+            Called on the main thread with a connected client. done must be called once every
+            result the operation waits for has arrived
+         */
+        void run(GoogleApiClient client, Runnable done);
+    }
+
+    private static final String TAG = "Rover:GoogleApiManager";
+
+    static final long IDLE_TIMEOUT = 30 * 1000;
+
+    // An operation that never calls done must not hold the queue forever
+    private static final long OPERATION_TIMEOUT = 30 * 1000;
+
+    private final Context mContext;
+    private final RoverMetrics mMetrics;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<Operation> mPending = new ArrayDeque<>();
+
+    private GoogleApiClient mClient;
+    private Runnable mActiveDone;
+    private boolean mConnectedForNext;
+
+    private final Runnable mIdleDisconnect = new Runnable() {
+        @Override
+        public void run() {
+            if (mActiveDone == null && mPending.isEmpty() && mClient != null) {
+                Log.d(TAG, "Disconnecting idle client");
+                mClient.disconnect();
+            }
+        }
+    };
+
+    GoogleApiConnectionManager(Context context, RoverMetrics metrics) {
+        mContext = context;
+        mMetrics = metrics;
+    }
+
+    /*
+        Queues the operation. Safe to call from any thread
+     */
+    void execute(final Operation operation) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mMetrics.increment(RoverMetrics.GOOGLE_API_OPERATIONS);
+                mPending.add(operation);
+                mHandler.removeCallbacks(mIdleDisconnect);
+                runNext();
+            }
+        });
+    }
+
+    private void runNext() {
+        if (mActiveDone != null || mPending.isEmpty()) {
+            return;
+        }
+
+        if (mClient == null) {
+            mClient = GoogleApiConnection.buildClient(mContext, this, this);
+        }
+
+        if (!mClient.isConnected()) {
+            if (!mClient.isConnecting()) {
+                mMetrics.increment(RoverMetrics.GOOGLE_API_CONNECTS);
+                mConnectedForNext = true;
+                mClient.connect();
+            }
+            return;
+        }
+
+        final Operation operation = mPending.poll();
+
+        if (mConnectedForNext) {
+            mConnectedForNext = false;
+        } else {
+            mMetrics.increment(RoverMetrics.GOOGLE_API_CONNECTS_AVOIDED);
+        }
+
+        final Runnable done = new Runnable() {
+            private boolean mCalled;
+
+            @Override
+            public void run() {
+                if (Looper.myLooper() != Looper.getMainLooper()) {
+                    mHandler.post(this);
+                    return;
+                }
+
+                if (mCalled) {
+                    return;
+                }
+
+                mCalled = true;
+                mHandler.removeCallbacks(this);
+
+                if (mActiveDone == this) {
+                    mActiveDone = null;
+                    onOperationFinished();
+                }
+            }
+        };
+
+        mActiveDone = done;
+        mHandler.postDelayed(done, OPERATION_TIMEOUT);
+
+        try {
+            operation.run(mClient, done);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Operation failed: " + e);
+            done.run();
+        }
+    }
+
+    private void onOperationFinished() {
+        if (mPending.isEmpty()) {
+            mHandler.postDelayed(mIdleDisconnect, IDLE_TIMEOUT);
+        } else {
+            runNext();
+        }
+    }
+
+    @Override
+    public void onConnected(Bundle bundle) {
+        runNext();
+    }
+
+    @Override
+    public void onConnectionSuspended(int cause) {
+        // The client reconnects by itself and the queue resumes in onConnected
+        Log.d(TAG, "Connection suspended: " + cause);
+    }
+
+    @Override
+    public void onConnectionFailed(@NonNull ConnectionResult connectionResult) {
+        Log.e(TAG, "Connection failed: " + connectionResult.getErrorMessage() + ", dropping "
+                + mPending.size() + " operation(s)");
+        mPending.clear();
+        mConnectedForNext = false;
+    }
+}
@@ -0,0 +1,225 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Drops location updates that carry no new information before they become events. Points less
+ * accurate than the accuracy threshold are discarded, and a run of points delivered together is
+ * simplified with Douglas-Peucker using the minimum displacement as tolerance. The rest must move
+ * at least the minimum displacement and be at least the minimum interval apart from the last point
+ * that was sent. That last point is persisted since location updates arrive in short lived services.
+ */
+class LocationFilter {
+
+    private static final String SHARED_LOCATION_FILTER = "ROVER_SHARED_LOCATION_FILTER";
+    static final double EARTH_RADIUS = 6371008.8;
+
+    static class Point {
+        final double latitude;
+        final double longitude;
+        final float accuracy;
+        final long time;
+
+        Point(double latitude, double longitude, float accuracy, long time) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.accuracy = accuracy;
+            this.time = time;
+        }
+    }
+
+    private final float mMinDisplacement;
+    private final long mMinInterval;
+    private final float mMaxAccuracy;
+
+    private Point mLastAccepted;
+
+    LocationFilter(float minDisplacement, long minInterval, float maxAccuracy) {
+        mMinDisplacement = minDisplacement;
+        mMinInterval = minInterval;
+        mMaxAccuracy = maxAccuracy;
+    }
+
+    Point getLastAccepted() {
+        return mLastAccepted;
+    }
+
+    void setLastAccepted(Point point) {
+        mLastAccepted = point;
+    }
+
+    /*
+        Returns the indexes of the points worth sending, in order. Accepted points become the new
+        reference for later calls
+     */
+    synchronized List<Integer> filter(List<Point> points) {
+        ArrayList<Integer> candidates = new ArrayList<>(points.size());
+
+        for (int i = 0; i < points.size(); i++) {
+            Point point = points.get(i);
+            if (mMaxAccuracy <= 0 || point.accuracy <= mMaxAccuracy) {
+                candidates.add(i);
+            }
+        }
+
+        candidates = simplify(points, candidates);
+
+        ArrayList<Integer> accepted = new ArrayList<>(candidates.size());
+
+        for (Integer index : candidates) {
+            Point point = points.get(index);
+
+            if (mLastAccepted != null) {
+                if (point.time - mLastAccepted.time < mMinInterval) {
+                    continue;
+                }
+
+                if (distance(mLastAccepted, point) < mMinDisplacement) {
+                    continue;
+                }
+            }
+
+            accepted.add(index);
+            mLastAccepted = point;
+        }
+
+        return accepted;
+    }
+
+    /*
+        Douglas-Peucker over the candidate points. The last sent point anchors the start of the run
+        so the first segment is measured from where the server last saw the device
+     */
+    private ArrayList<Integer> simplify(List<Point> points, ArrayList<Integer> candidates) {
+        if (mMinDisplacement <= 0 || candidates.size() < 2) {
+            return candidates;
+        }
+
+        ArrayList<Point> run = new ArrayList<>(candidates.size() + 1);
+        if (mLastAccepted != null) {
+            run.add(mLastAccepted);
+        }
+        for (Integer index : candidates) {
+            run.add(points.get(index));
+        }
+
+        boolean[] keep = new boolean[run.size()];
+        keep[0] = true;
+        keep[run.size() - 1] = true;
+        simplify(run, 0, run.size() - 1, keep);
+
+        int offset = mLastAccepted != null ? 1 : 0;
+        ArrayList<Integer> simplified = new ArrayList<>();
+
+        for (int i = offset; i < run.size(); i++) {
+            if (keep[i]) {
+                simplified.add(candidates.get(i - offset));
+            }
+        }
+
+        return simplified;
+    }
+
+    private void simplify(List<Point> run, int first, int last, boolean[] keep) {
+        if (last - first < 2) {
+            return;
+        }
+
+        double maxDistance = 0;
+        int farthest = first;
+
+        for (int i = first + 1; i < last; i++) {
+            double distance = distanceToSegment(run.get(i), run.get(first), run.get(last));
+            if (distance > maxDistance) {
+                maxDistance = distance;
+                farthest = i;
+            }
+        }
+
+        if (maxDistance > mMinDisplacement) {
+            keep[farthest] = true;
+            simplify(run, first, farthest, keep);
+            simplify(run, farthest, last, keep);
+        }
+    }
+
+    /*
+        Geometry
+     */
+
+    static double distance(Point a, Point b) {
+        return distance(a.latitude, a.longitude, b.latitude, b.longitude);
+    }
+
+    static double distance(double latitudeA, double longitudeA, double latitudeB, double longitudeB) {
+        double lat1 = Math.toRadians(latitudeA);
+        double lat2 = Math.toRadians(latitudeB);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(longitudeB - longitudeA);
+
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /*
+        Projects onto a local plane around the segment start, which is accurate at these distances
+     */
+    static double distanceToSegment(Point point, Point start, Point end) {
+        double cosLat = Math.cos(Math.toRadians(start.latitude));
+
+        double ex = Math.toRadians(end.longitude - start.longitude) * cosLat * EARTH_RADIUS;
+        double ey = Math.toRadians(end.latitude - start.latitude) * EARTH_RADIUS;
+        double px = Math.toRadians(point.longitude - start.longitude) * cosLat * EARTH_RADIUS;
+        double py = Math.toRadians(point.latitude - start.latitude) * EARTH_RADIUS;
+
+        double lengthSquared = ex * ex + ey * ey;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * ex + py * ey) / lengthSquared));
+
+        double dx = px - t * ex;
+        double dy = py - t * ey;
+
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_LOCATION_FILTER, 0);
+
+        if (!sharedData.contains("time")) {
+            mLastAccepted = null;
+            return;
+        }
+
+        mLastAccepted = new Point(
+                Double.longBitsToDouble(sharedData.getLong("latitude", 0)),
+                Double.longBitsToDouble(sharedData.getLong("longitude", 0)),
+                Float.intBitsToFloat(sharedData.getInt("accuracy", 0)),
+                sharedData.getLong("time", 0));
+    }
+
+    synchronized void save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_LOCATION_FILTER, 0).edit();
+
+        if (mLastAccepted == null) {
+            editor.clear();
+        } else {
+            editor.putLong("latitude", Double.doubleToLongBits(mLastAccepted.latitude));
+            editor.putLong("longitude", Double.doubleToLongBits(mLastAccepted.longitude));
+            editor.putInt("accuracy", Float.floatToIntBits(mLastAccepted.accuracy));
+            editor.putLong("time", mLastAccepted.time);
+        }
+
+        editor.apply();
+    }
+}
@@ -0,0 +1,238 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+
+import io.rover.model.Message;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Inbox changes waiting to be sent to /inbox/messages/{id}. Each message has at most one pending
+ * change, the last one made: marking a message read and then deleting it only sends the delete,
+ * and reading then unreading only sends the unread. Changes are applied to every inbox fetched
+ * while they are pending so the app sees its own changes before the server confirms them. The
+ * outbox is persisted so changes made offline survive the process. A change that failed is not
+ * ready again until its backoff is over, so new changes do not resend the ones already waiting.
+ */
+class MessageOutbox {
+
+    private static final String SHARED_MESSAGE_OUTBOX = "ROVER_SHARED_MESSAGE_OUTBOX";
+
+    static final int MARK_READ = 1;
+    static final int MARK_UNREAD = 2;
+    static final int DELETE = 3;
+
+    /*
+        Outcomes of sending a change. A rejected change, for example for a message the server no
+        longer has, is dropped rather than retried
+     */
+    static final int SENT = 0;
+    static final int RETRY = 1;
+    static final int REJECTED = 2;
+
+    static final long RETRY_DELAY = 30 * 1000;
+    static final long MAX_RETRY_DELAY = 30 * 60 * 1000;
+
+    static class Mutation {
+        final String messageId;
+        final int type;
+        final long version;
+
+        Mutation(String messageId, int type, long version) {
+            this.messageId = messageId;
+            this.type = type;
+            this.version = version;
+        }
+    }
+
+    private static class Pending {
+        int type;
+        long version;
+        boolean inFlight;
+        int failures;
+        long notBefore;
+
+        Pending(int type, long version) {
+            this.type = type;
+            this.version = version;
+        }
+    }
+
+    private final LinkedHashMap<String, Pending> mPending = new LinkedHashMap<>();
+    private long mVersion;
+    private int mCollapsed;
+
+    /*
+        Queues the change, replacing the message's pending one. A change to a message waiting to be
+        deleted is dropped. A change replacing one that is being sent waits for it to finish
+     */
+    synchronized void enqueue(String messageId, int type) {
+        Pending pending = mPending.get(messageId);
+
+        if (pending == null) {
+            mPending.put(messageId, new Pending(type, ++mVersion));
+            return;
+        }
+
+        if (pending.type == DELETE) {
+            mCollapsed++;
+            return;
+        }
+
+        if (!pending.inFlight) {
+            mCollapsed++;
+        }
+
+        pending.type = type;
+        pending.version = ++mVersion;
+    }
+
+    /*
+        Returns the changes ready to send and marks them as being sent
+     */
+    synchronized List<Mutation> takeReady(long now) {
+        List<Mutation> ready = new ArrayList<>();
+
+        for (Map.Entry<String, Pending> entry : mPending.entrySet()) {
+            Pending pending = entry.getValue();
+
+            if (!pending.inFlight && pending.notBefore <= now) {
+                pending.inFlight = true;
+                ready.add(new Mutation(entry.getKey(), pending.type, pending.version));
+            }
+        }
+
+        return ready;
+    }
+
+    /*
+        When the next change waiting for its backoff is ready, or -1 if none is waiting. Changes
+        being sent are left out, their outcome decides when they are ready again
+     */
+    synchronized long nextDue() {
+        long next = -1;
+
+        for (Pending pending : mPending.values()) {
+            if (!pending.inFlight && (next == -1 || pending.notBefore < next)) {
+                next = pending.notBefore;
+            }
+        }
+
+        return next;
+    }
+
+    /*
+        Removes the change once sent or rejected, unless a newer one replaced it in the meantime. A
+        change that failed, or the newer one that replaced it, waits twice as long as the last time
+     */
+    synchronized void onSent(Mutation mutation, int outcome, long now) {
+        Pending pending = mPending.get(mutation.messageId);
+
+        if (pending == null) {
+            return;
+        }
+
+        pending.inFlight = false;
+
+        if (outcome == RETRY) {
+            pending.notBefore = now + Math.min(MAX_RETRY_DELAY, RETRY_DELAY << Math.min(pending.failures, 10));
+            pending.failures++;
+            return;
+        }
+
+        pending.failures = 0;
+        pending.notBefore = 0;
+
+        if (pending.version == mutation.version) {
+            mPending.remove(mutation.messageId);
+        }
+    }
+
+    /*
+        Applies the pending changes to a fetched inbox, leaving out messages waiting to be deleted.
+        The messages may be shared with a cached response, so a changed one is replaced by a copy
+     */
+    synchronized List<Message> apply(List<Message> inbox) {
+        if (inbox == null || mPending.isEmpty()) {
+            return inbox;
+        }
+
+        ListIterator<Message> iterator = inbox.listIterator();
+
+        while (iterator.hasNext()) {
+            Message message = iterator.next();
+            Pending pending = mPending.get(message.getId());
+
+            if (pending == null) {
+                continue;
+            }
+
+            if (pending.type == DELETE) {
+                iterator.remove();
+            } else if (message.isRead() != (pending.type == MARK_READ)) {
+                Message changed = new Message(message);
+                changed.setRead(pending.type == MARK_READ);
+                iterator.set(changed);
+            }
+        }
+
+        return inbox;
+    }
+
+    synchronized int getPendingType(String messageId) {
+        Pending pending = mPending.get(messageId);
+        return pending == null ? 0 : pending.type;
+    }
+
+    synchronized int size() {
+        return mPending.size();
+    }
+
+    synchronized int takeCollapsedCount() {
+        int collapsed = mCollapsed;
+        mCollapsed = 0;
+        return collapsed;
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_MESSAGE_OUTBOX, 0);
+
+        mPending.clear();
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            if (entry.getValue() instanceof Integer) {
+                int type = (Integer) entry.getValue();
+
+                if (type == MARK_READ || type == MARK_UNREAD || type == DELETE) {
+                    mPending.put(entry.getKey(), new Pending(type, ++mVersion));
+                }
+            }
+        }
+    }
+
+    /*
+        Written synchronously so a caller told the change is queued can rely on it surviving the
+        process. Call it off the main thread
+     */
+    synchronized boolean save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_MESSAGE_OUTBOX, 0).edit();
+        editor.clear();
+
+        for (Map.Entry<String, Pending> entry : mPending.entrySet()) {
+            editor.putInt(entry.getKey(), entry.getValue().type);
+        }
+
+        return editor.commit();
+    }
+}
@@ -78,14 +78,16 @@ public class ObjectMapper implements JsonApiResponseHandler.JsonApiObjectMapper
                         break;
                     case "geofence-region":
                         Place place = getPlace(attributes.getJSONObject("place"));
+                        // The region id the event was submitted with, when the server echoes it
+                        String regionId = attributes.isNull("identifier") ? null : attributes.optString("identifier", null);
                         GeofenceTransitionEvent event = null;
                         switch (action) {
                             case "enter":
-                                event = new GeofenceTransitionEvent(null, Geofence.GEOFENCE_TRANSITION_ENTER, null);
+                                event = new GeofenceTransitionEvent(regionId, Geofence.GEOFENCE_TRANSITION_ENTER, null);
                                 event.setPlace(place);
                                 break;
                             case "exit":
-                                event = new GeofenceTransitionEvent(null, Geofence.GEOFENCE_TRANSITION_EXIT, null);
+                                event = new GeofenceTransitionEvent(regionId, Geofence.GEOFENCE_TRANSITION_EXIT, null);
                                 event.setPlace(place);
                                 break;
                         }
@@ -102,6 +104,11 @@ public class ObjectMapper implements JsonApiResponseHandler.JsonApiObjectMapper
 
                 GeofenceRegion geofenceRegion = new GeofenceRegion(id, latitude, longitude, radius);
 
+                JSONObject placeAttributes = attributes.optJSONObject("place");
+                if (placeAttributes != null) {
+                    geofenceRegion.setPlace(getPlace(placeAttributes));
+                }
+
                 return geofenceRegion;
             }
             case "messages": {
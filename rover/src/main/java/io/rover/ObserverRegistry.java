@@ -0,0 +1,145 @@
+package io.rover;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Observers indexed by the RoverObserver interfaces they implement. Registration copies the index
+ * so dispatching never locks and never sees a list being modified, and each dispatch only visits
+ * the observers of the requested interface.
+ */
+class ObserverRegistry {
+
+    interface Dispatch<T> {
+        void dispatch(T observer);
+    }
+
+    private static class Registration {
+        final RoverObserver observer;
+        final Executor executor;
+
+        Registration(RoverObserver observer, Executor executor) {
+            this.observer = observer;
+            this.executor = executor;
+        }
+    }
+
+    private final ArrayList<Registration> mRegistrations = new ArrayList<>();
+    private volatile Map<Class<?>, List<Registration>> mIndex = Collections.emptyMap();
+
+    /*
+        Observers registered with an executor are always called on it. Otherwise they are called
+        wherever the dispatch says
+     */
+    synchronized void add(RoverObserver observer, Executor executor) {
+        if (observer == null) {
+            return;
+        }
+
+        for (Registration registration : mRegistrations) {
+            if (registration.observer == observer) {
+                return;
+            }
+        }
+
+        mRegistrations.add(new Registration(observer, executor));
+        rebuildIndex();
+    }
+
+    synchronized void remove(RoverObserver observer) {
+        for (int i = 0; i < mRegistrations.size(); i++) {
+            if (mRegistrations.get(i).observer == observer) {
+                mRegistrations.remove(i);
+                rebuildIndex();
+                return;
+            }
+        }
+    }
+
+    /*
+        Calls every observer of the type, on its own executor if it registered one and otherwise on
+        defaultExecutor, or right away when that is null
+     */
+    <T extends RoverObserver> void dispatch(Class<T> type, Executor defaultExecutor, final Dispatch<T> dispatch) {
+        List<Registration> registrations = mIndex.get(type);
+
+        if (registrations == null) {
+            return;
+        }
+
+        for (Registration registration : registrations) {
+            final T observer = type.cast(registration.observer);
+            Executor executor = registration.executor != null ? registration.executor : defaultExecutor;
+
+            if (executor == null) {
+                dispatch.dispatch(observer);
+            } else {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch.dispatch(observer);
+                    }
+                });
+            }
+        }
+    }
+
+    /*
+        For callbacks whose return value is needed right away. Registered executors are ignored
+     */
+    <T extends RoverObserver> List<T> get(Class<T> type) {
+        List<Registration> registrations = mIndex.get(type);
+
+        if (registrations == null) {
+            return Collections.emptyList();
+        }
+
+        ArrayList<T> observers = new ArrayList<>(registrations.size());
+        for (Registration registration : registrations) {
+            observers.add(type.cast(registration.observer));
+        }
+        return observers;
+    }
+
+    private void rebuildIndex() {
+        HashMap<Class<?>, List<Registration>> index = new HashMap<>();
+
+        for (Registration registration : mRegistrations) {
+            ArrayList<Class<?>> types = new ArrayList<>();
+            collectObserverTypes(registration.observer.getClass(), types);
+
+            for (Class<?> type : types) {
+                List<Registration> registrations = index.get(type);
+                if (registrations == null) {
+                    registrations = new ArrayList<>();
+                    index.put(type, registrations);
+                }
+                registrations.add(registration);
+            }
+        }
+
+        for (Map.Entry<Class<?>, List<Registration>> entry : index.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+
+        mIndex = index;
+    }
+
+    private static void collectObserverTypes(Class<?> klass, List<Class<?>> types) {
+        while (klass != null) {
+            for (Class<?> type : klass.getInterfaces()) {
+                if (RoverObserver.class.isAssignableFrom(type) && !types.contains(type)) {
+                    types.add(type);
+                    collectObserverTypes(type, types);
+                }
+            }
+            klass = klass.getSuperclass();
+        }
+    }
+}
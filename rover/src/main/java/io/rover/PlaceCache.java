@@ -0,0 +1,211 @@
+package io.rover;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.rover.model.Place;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Place metadata for geofence regions, keyed by region id, so geofence observers can be told about
+ * a transition as soon as Play Services delivers it instead of after the event round trip. Places
+ * come from the regions the server sends and from the places it returns for submitted events. The
+ * transitions already dispatched locally are remembered until the server responds for them, so the
+ * response only refreshes the metadata. A mark is forgotten once its event is dropped, when its
+ * place is evicted and after DISPATCH_TIMEOUT, so a response that never comes cannot hide a later
+ * transition. Both are persisted since transitions arrive in short lived services.
+ */
+class PlaceCache {
+
+    private static final String TAG = "Rover:PlaceCache";
+    private static final String SHARED_PLACES = "ROVER_SHARED_PLACES";
+    private static final String PLACE_PREFIX = "place:";
+    private static final String DISPATCHED_PREFIX = "dispatched:";
+
+    // Least recently used places are evicted past this size
+    static final int MAX_PLACES = 500;
+
+    // Several times the longest an event lane waits between attempts
+    static final long DISPATCH_TIMEOUT = 2 * 60 * 60 * 1000;
+
+    private final LinkedHashMap<String, Place> mPlaces = new LinkedHashMap<>(16, 0.75f, true);
+    // When each pending dispatch was made, by region id and then by transition
+    private final HashMap<String, HashMap<Integer, Long>> mDispatched = new HashMap<>();
+
+    synchronized Place get(String id) {
+        return mPlaces.get(id);
+    }
+
+    synchronized void put(String id, Place place) {
+        mPlaces.put(id, place);
+
+        while (mPlaces.size() > MAX_PLACES) {
+            String eldest = mPlaces.keySet().iterator().next();
+            mPlaces.remove(eldest);
+            mDispatched.remove(eldest);
+        }
+    }
+
+    synchronized int size() {
+        return mPlaces.size();
+    }
+
+    /*
+        Records that observers were already told about the transition
+     */
+    synchronized void markDispatched(String id, int transition, long now) {
+        HashMap<Integer, Long> dispatched = mDispatched.get(id);
+
+        if (dispatched == null) {
+            dispatched = new HashMap<>();
+            mDispatched.put(id, dispatched);
+        }
+
+        dispatched.put(transition, now);
+    }
+
+    /*
+        Returns true if observers were already told about the transition the server responded for
+     */
+    synchronized boolean takeDispatched(String id, int transition, long now) {
+        Long dispatchedAt = clearDispatched(id, transition);
+        return dispatchedAt != null && now >= dispatchedAt && now - dispatchedAt < DISPATCH_TIMEOUT;
+    }
+
+    /*
+        Forgets the transition, for example because its event will never reach the server. Returns
+        when it was dispatched or null
+     */
+    synchronized Long clearDispatched(String id, int transition) {
+        HashMap<Integer, Long> dispatched = mDispatched.get(id);
+
+        if (dispatched == null) {
+            return null;
+        }
+
+        Long dispatchedAt = dispatched.remove(transition);
+
+        if (dispatched.isEmpty()) {
+            mDispatched.remove(id);
+        }
+
+        return dispatchedAt;
+    }
+
+    /*
+        Forgets the transitions no response came for in time
+     */
+    synchronized void expireDispatched(long now) {
+        Iterator<HashMap<Integer, Long>> regions = mDispatched.values().iterator();
+
+        while (regions.hasNext()) {
+            HashMap<Integer, Long> dispatched = regions.next();
+            Iterator<Long> times = dispatched.values().iterator();
+
+            while (times.hasNext()) {
+                long dispatchedAt = times.next();
+                if (now < dispatchedAt || now - dispatchedAt >= DISPATCH_TIMEOUT) {
+                    times.remove();
+                }
+            }
+
+            if (dispatched.isEmpty()) {
+                regions.remove();
+            }
+        }
+    }
+
+    /*
+        Persistence
+     */
+
+    synchronized void load(Context context) {
+        SharedPreferences sharedData = context.getSharedPreferences(SHARED_PLACES, 0);
+
+        mPlaces.clear();
+        mDispatched.clear();
+
+        for (Map.Entry<String, ?> entry : sharedData.getAll().entrySet()) {
+            String key = entry.getKey();
+
+            if (key.startsWith(PLACE_PREFIX) && entry.getValue() instanceof String) {
+                try {
+                    mPlaces.put(key.substring(PLACE_PREFIX.length()), decode((String) entry.getValue()));
+                } catch (JSONException e) {
+                    Log.w(TAG, "Dropping unreadable place: " + key);
+                }
+            } else if (key.startsWith(DISPATCHED_PREFIX) && entry.getValue() instanceof Long) {
+                // dispatched:<transition>:<region id>
+                String mark = key.substring(DISPATCHED_PREFIX.length());
+                int separator = mark.indexOf(':');
+
+                try {
+                    int transition = Integer.parseInt(mark.substring(0, separator));
+                    markDispatched(mark.substring(separator + 1), transition, (Long) entry.getValue());
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "Dropping unreadable dispatch: " + key);
+                }
+            }
+        }
+    }
+
+    synchronized void save(Context context) {
+        SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_PLACES, 0).edit();
+        editor.clear();
+
+        for (Map.Entry<String, Place> entry : mPlaces.entrySet()) {
+            try {
+                editor.putString(PLACE_PREFIX + entry.getKey(), encode(entry.getValue()));
+            } catch (JSONException e) {
+                Log.w(TAG, "Could not save place: " + entry.getKey());
+            }
+        }
+
+        for (Map.Entry<String, HashMap<Integer, Long>> region : mDispatched.entrySet()) {
+            for (Map.Entry<Integer, Long> entry : region.getValue().entrySet()) {
+                editor.putLong(DISPATCHED_PREFIX + entry.getKey() + ":" + region.getKey(), entry.getValue());
+            }
+        }
+
+        editor.apply();
+    }
+
+    private static String encode(Place place) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("latitude", place.getLatitude());
+        json.put("longitude", place.getLongitude());
+        json.put("radius", place.getRadius());
+        json.put("name", place.getName());
+        json.put("tags", new JSONArray(place.getTags() != null ? place.getTags() : new ArrayList<String>()));
+        return json.toString();
+    }
+
+    private static Place decode(String value) throws JSONException {
+        JSONObject json = new JSONObject(value);
+        JSONArray tagsArray = json.getJSONArray("tags");
+        ArrayList<String> tags = new ArrayList<>(tagsArray.length());
+
+        for (int i = 0; i < tagsArray.length(); i++) {
+            tags.add(tagsArray.getString(i));
+        }
+
+        return new Place(
+                json.getDouble("latitude"),
+                json.getDouble("longitude"),
+                json.getDouble("radius"),
+                json.optString("name", null),
+                tags);
+    }
+}
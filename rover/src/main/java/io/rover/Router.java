@@ -6,7 +6,10 @@ import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 
+import io.rover.network.CircuitBreaker;
 import io.rover.network.NetworkTask;
+import io.rover.network.RetryPolicy;
+import io.rover.network.ValidatorStore;
 
 /**
  * Created by Rover Labs Inc on 2016-04-19.
@@ -17,6 +20,8 @@ class Router implements NetworkTask.NetworkTaskConnectionManager {
     private static String baseURL = "https://api.rover.io/v1";
     private static String apiKey;
     private static String deviceId;
+    private static ValidatorStore validatorStore;
+    private static boolean compressRequests;
 
     private Router() {}
 
@@ -28,78 +33,112 @@ class Router implements NetworkTask.NetworkTaskConnectionManager {
         deviceId = id;
     }
 
+    /*
+        Request bodies are only compressed once the app confirmed its endpoint accepts them
+     */
+    static void setCompressRequests(boolean compress) {
+        compressRequests = compress;
+    }
+
+    /*
+        The inbox and experiences are requested conditionally with the validators kept here
+     */
+    static void setValidatorStore(ValidatorStore store) {
+        validatorStore = store;
+    }
+
+    /*
+        Each route has its own circuit breaker so an outage of one endpoint does not stop the others.
+        Response compression is requested for routes returning large documents. Request bodies may
+        only be compressed for /events since batches repeat the same keys for every event. Event
+        batches are not retried in place, a sleeping request would hold up the lane's thread and the
+        batch is replayed from the journal by the lane's own backoff anyway
+     */
+
+    private static final Route INBOX = new Route(new RetryPolicy(3, 1000, 8000), false, true);
+    private static final Route MESSAGES = new Route(new RetryPolicy(3, 1000, 8000), false, false);
+    private static final Route EVENTS = new Route(new RetryPolicy(1, 0, 0), true, true);
+    private static final Route LANDING_PAGE = new Route(new RetryPolicy(2, 1000, 4000), false, true);
+    private static final Route EXPERIENCES = new Route(new RetryPolicy(3, 1000, 8000), false, true);
+
     static NetworkTask getInboxNetworkTask() {
-        String url = baseURL + "/inbox";
-        try {
-            NetworkTask networkTask = new NetworkTask("GET", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
-        } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
-            return null;
-        }
+        return conditional(INBOX.createNetworkTask("GET", baseURL + "/inbox"), "GET /inbox");
     }
 
     static NetworkTask deleteMessageNetworkTask(String messageId) {
-        String url = baseURL + "/inbox/messages/" + messageId;
-        try {
-            NetworkTask networkTask = new NetworkTask("DELETE", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
-        } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
-            return null;
-        }
+        return MESSAGES.createNetworkTask("DELETE", baseURL + "/inbox/messages/" + messageId);
     }
 
     static NetworkTask getPatchMessageNetworkTask(String messageId) {
-        String url = baseURL + "/inbox/messages/" + messageId;
-        try {
-            NetworkTask networkTask = new NetworkTask("PATCH", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
-        } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
-            return null;
-        }
+        return MESSAGES.createNetworkTask("PATCH", baseURL + "/inbox/messages/" + messageId);
     }
 
     static NetworkTask getEventsNetworkTask() {
-        String url = baseURL + "/events";
-        try {
-            NetworkTask networkTask = new NetworkTask("POST", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
-        } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
-            return null;
-        }
+        return EVENTS.createNetworkTask("POST", baseURL + "/events");
     }
 
     static NetworkTask getLandingPageNetworkTask(String messageId) {
-        String url = baseURL + "/inbox/" + messageId + "/landing-page";
-        try {
-            NetworkTask networkTask = new NetworkTask("GET", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
-        } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
-            return null;
-        }
+        return LANDING_PAGE.createNetworkTask("GET", baseURL + "/inbox/" + messageId + "/landing-page");
     }
 
     static NetworkTask getExperienceNetworkTask(String experienceId) {
-        String url = baseURL + "/experiences/" + experienceId;
+        return conditional(EXPERIENCES.createNetworkTask("GET", baseURL + "/experiences/" + experienceId),
+                "GET /experiences/" + experienceId);
+    }
+
+    /*
+        Forgets the stored inbox so the next fetch downloads and parses it again
+     */
+    static void invalidateInbox() {
+        if (validatorStore != null) {
+            validatorStore.remove("GET /inbox");
+        }
+    }
+
+    static URL getBaseURL() {
         try {
-            NetworkTask networkTask = new NetworkTask("GET", new URL(url));
-            networkTask.setConnectionManager(sharedInstance);
-            return networkTask;
+            return new URL(baseURL);
         } catch (MalformedURLException e) {
-            Log.e("Router", "Bad URL: " + url);
+            Log.e("Router", "Bad URL: " + baseURL);
             return null;
         }
     }
 
+    private static NetworkTask conditional(NetworkTask networkTask, String key) {
+        if (networkTask != null && validatorStore != null) {
+            networkTask.setValidatorStore(validatorStore, key);
+        }
+        return networkTask;
+    }
+
+    private static class Route {
+        private final RetryPolicy mRetryPolicy;
+        private final CircuitBreaker mCircuitBreaker = new CircuitBreaker(5, 30000, 30 * 60 * 1000);
+        private final boolean mGzipRequest;
+        private final boolean mGzipResponse;
+
+        Route(RetryPolicy retryPolicy, boolean gzipRequest, boolean gzipResponse) {
+            mRetryPolicy = retryPolicy;
+            mGzipRequest = gzipRequest;
+            mGzipResponse = gzipResponse;
+        }
+
+        NetworkTask createNetworkTask(String method, String url) {
+            try {
+                NetworkTask networkTask = new NetworkTask(method, new URL(url));
+                networkTask.setConnectionManager(sharedInstance);
+                networkTask.setRetryPolicy(mRetryPolicy);
+                networkTask.setCircuitBreaker(mCircuitBreaker);
+                networkTask.setGzipRequest(mGzipRequest && compressRequests);
+                networkTask.setGzipResponse(mGzipResponse);
+                return networkTask;
+            } catch (MalformedURLException e) {
+                Log.e("Router", "Bad URL: " + url);
+                return null;
+            }
+        }
+    }
+
     @Override
     public void onPrepareConnection(HttpURLConnection connection) {
         connection.setRequestProperty("X-Rover-Api-Key", apiKey);
@@ -1,19 +1,28 @@
 package io.rover;
 
 import android.Manifest;
+import android.app.AlarmManager;
 import android.app.Application;
 import android.app.IntentService;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
+import android.bluetooth.BluetoothAdapter;
+import android.content.BroadcastReceiver;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.pm.PackageManager;
+import android.content.res.Configuration;
 import android.graphics.Bitmap;
+import android.location.Location;
 import android.net.Uri;
 import android.net.http.HttpResponseCache;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.app.NotificationCompat;
@@ -30,6 +39,7 @@ import com.google.android.gms.iid.InstanceID;
 import com.google.android.gms.iid.InstanceIDListenerService;
 */
 import com.google.android.gms.location.Geofence;
+import com.google.android.gms.location.GeofenceStatusCodes;
 import com.google.android.gms.location.GeofencingEvent;
 import com.google.android.gms.location.GeofencingRequest;
 import com.google.android.gms.location.LocationRequest;
@@ -51,24 +61,41 @@ import org.json.JSONObject;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.rover.model.BeaconConfiguration;
 import io.rover.model.BeaconTransitionEvent;
+import io.rover.model.BlockPressEvent;
 import io.rover.model.Customer;
 import io.rover.model.Device;
 import io.rover.model.DeviceUpdateEvent;
 import io.rover.model.Event;
+import io.rover.model.ExperienceDismissEvent;
+import io.rover.model.ExperienceLaunchEvent;
 import io.rover.model.GeofenceRegion;
 import io.rover.model.GeofenceTransitionEvent;
+import io.rover.model.GimbalPlaceTransitionEvent;
 import io.rover.model.LocationUpdateEvent;
 import io.rover.model.MessageOpenEvent;
 import io.rover.model.Place;
+import io.rover.network.DefaultHttpTransport;
+import io.rover.network.HttpResponse;
+import io.rover.network.HttpTransport;
+import io.rover.network.JsonApiPayloadProvider;
+import io.rover.network.NetworkTask;
+import io.rover.network.RequestDispatcher;
+import io.rover.network.ValidatorStore;
 import io.rover.util.Util;
 
 /**
@@ -84,6 +111,12 @@ public class Rover implements EventSubmitTask.Callback {
     private static final String TAG = "Rover";
     private static final String NOT_INITIALIZED_WARNING = "Rover was accessed but not initialized: %s";
     private static Handler mMainHandler = new Handler(Looper.getMainLooper());
+    private static Executor mMainThreadExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            mMainHandler.post(command);
+        }
+    };
 
     private Context mApplicationContext;
     private RoverConfig mConfig;
@@ -91,8 +124,28 @@ public class Rover implements EventSubmitTask.Callback {
     private PendingIntent mGeofencePendingIntent;
     private PendingIntent mNearbyMessagesPendingIntent;
     private PendingIntent mAppLaunchPendingIntent;
-    private ExecutorService mEventExecutorService = Executors.newSingleThreadExecutor();
-    protected ArrayList<RoverObserver> mObservers = new ArrayList<>();
+    private ScheduledExecutorService mEventExecutorService = Executors.newSingleThreadScheduledExecutor();
+    private EventLane[] mEventLanes;
+    private ScheduledFuture<?> mScheduledEventFlush;
+    private UploadPolicy mUploadPolicy;
+    private UploadPolicy.Conditions mUploadConditions;
+    private EventUploadScheduler mUploadScheduler;
+    private long mEventsDeferredSince;
+    private LocationFilter mLocationFilter;
+    private GeofenceRegistry mGeofenceRegistry = new GeofenceRegistry();
+    private GeofenceIndex mGeofenceIndex;
+    private BeaconDebouncer mBeaconDebouncer;
+    private GeofenceStateTable mGeofenceStates;
+    private PlaceCache mPlaceCache = new PlaceCache();
+    private GoogleApiConnectionManager mGoogleApiConnections;
+    private RequestDispatcher mRequestDispatcher;
+    private MessageOutbox mMessageOutbox = new MessageOutbox();
+    private ScheduledExecutorService mOutboxExecutorService = Executors.newSingleThreadScheduledExecutor();
+    private ScheduledFuture<?> mScheduledOutboxFlush;
+    private long mScheduledOutboxFlushAt;
+    private AdvertisingIdResolver mAdvertisingIdResolver;
+    private RoverMetrics mMetrics = new RoverMetrics();
+    protected ObserverRegistry mObservers = new ObserverRegistry();
     protected OnRequestDeviceTokenListener mOnRequestDeviceTokenListener;
     private NotificationProvider mNotificationProvider;
 
@@ -104,6 +157,10 @@ public class Rover implements EventSubmitTask.Callback {
         Interfaces
      */
 
+    /*
+        Patches and deletes succeed once the change is saved to the outbox, which sends it to the
+        server in the background
+     */
     public interface OnDeleteMessageListener {
         void onSuccess();
         void onFailure();
@@ -141,6 +198,14 @@ public class Rover implements EventSubmitTask.Callback {
         }
         Router.setApiKey(config.mAppToken);
         Router.setDeviceId(Device.getInstance().getIdentifier(mSharedInstance.mApplicationContext));
+        Router.setCompressRequests(config.mCompressRequests);
+        Router.setValidatorStore(new ValidatorStore(
+                new File(mSharedInstance.mApplicationContext.getFilesDir(), "rover/validators")));
+
+        if (mSharedInstance.mRequestDispatcher == null
+                || mSharedInstance.mRequestDispatcher.getMaxConcurrentRequests() != config.mMaxConcurrentRequests) {
+            mSharedInstance.mRequestDispatcher = new RequestDispatcher(config.mMaxConcurrentRequests);
+        }
 
         // Gimbal check
         try {
@@ -164,6 +229,183 @@ public class Rover implements EventSubmitTask.Callback {
             Log.i(TAG, "HTTP response cache installation failed:" + e);
         }
 
+        // Location filter
+
+        mSharedInstance.mLocationFilter = new LocationFilter(config.mLocationMinDisplacement,
+                config.mLocationMinInterval, config.mLocationMaxAccuracy);
+        mSharedInstance.mLocationFilter.load(mSharedInstance.mApplicationContext);
+
+        // Registered geofences
+
+        mSharedInstance.mGeofenceRegistry.load(mSharedInstance.mApplicationContext,
+                System.currentTimeMillis() - SystemClock.elapsedRealtime());
+
+        mSharedInstance.mGeofenceStates = new GeofenceStateTable(config.mGeofenceMinTransitionInterval);
+        mSharedInstance.mGeofenceStates.load(mSharedInstance.mApplicationContext);
+
+        mSharedInstance.mPlaceCache.load(mSharedInstance.mApplicationContext);
+
+        // Inbox changes made before the last process ended
+        mSharedInstance.mMessageOutbox.load(mSharedInstance.mApplicationContext);
+
+        // Beacon state
+
+        mSharedInstance.mBeaconDebouncer = new BeaconDebouncer(config.mBeaconExitDelay, config.mBeaconMinDwell);
+        mSharedInstance.mBeaconDebouncer.load(mSharedInstance.mApplicationContext);
+
+        if (mSharedInstance.mGoogleApiConnections == null) {
+            mSharedInstance.mGoogleApiConnections = new GoogleApiConnectionManager(
+                    mSharedInstance.mApplicationContext, mSharedInstance.mMetrics);
+        }
+
+        if (mSharedInstance.mGeofenceIndex == null) {
+            mSharedInstance.mGeofenceIndex = new GeofenceIndex(
+                    new File(mSharedInstance.mApplicationContext.getFilesDir(), "rover/geofence-regions"));
+        }
+
+        // Event journal
+
+        mSharedInstance.mUploadPolicy = new UploadPolicy(config.mMaxEventDeferral, config.mMaxDeferredEvents);
+
+        if (mSharedInstance.mEventLanes == null) {
+            // Transitions do not wait for the advertising id so observers hear about them sooner
+            mSharedInstance.mEventLanes = new EventLane[] {
+                    openEventLane(RoverConfig.LANE_TRANSITIONS, "transitions", "rover/events-transitions", false),
+                    openEventLane(RoverConfig.LANE_ACTIONS, "actions", "rover/events-actions", true),
+                    openEventLane(RoverConfig.LANE_TELEMETRY, "telemetry", "rover/events", true)
+            };
+
+            // System state that is part of the device attributes
+            IntentFilter deviceChangeFilter = new IntentFilter();
+            deviceChangeFilter.addAction(BluetoothAdapter.ACTION_STATE_CHANGED);
+            deviceChangeFilter.addAction(Intent.ACTION_LOCALE_CHANGED);
+            deviceChangeFilter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+
+            mSharedInstance.mApplicationContext.registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    Device.getInstance().notifyChanged();
+                }
+            }, deviceChangeFilter);
+
+            // Lanes waiting for the advertising id are held until the first lookup finishes
+            mSharedInstance.mAdvertisingIdResolver = new AdvertisingIdResolver(mSharedInstance.mApplicationContext,
+                    config.mAdvertisingIdRefreshInterval, new AdvertisingIdResolver.Listener() {
+                @Override
+                public void onAdvertisingIdResolved() {
+                    mSharedInstance.evaluateDeferredEvents();
+                }
+            });
+
+            DeviceUploadConditions uploadConditions = new DeviceUploadConditions(mSharedInstance.mApplicationContext);
+            mSharedInstance.mUploadConditions = uploadConditions;
+
+            mSharedInstance.prewarmConnection(config.mPreconnect, uploadConditions);
+            mSharedInstance.mUploadScheduler = new EventUploadScheduler(mSharedInstance.mApplicationContext, new Runnable() {
+                @Override
+                public void run() {
+                    mSharedInstance.evaluateDeferredEvents();
+                    mSharedInstance.flushMessageOutbox();
+                }
+            });
+
+            // Send whatever is batched as soon as the app leaves the foreground if the constraints allow it
+            application.registerComponentCallbacks(new ComponentCallbacks2() {
+                @Override
+                public void onTrimMemory(int level) {
+                    if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+                        mSharedInstance.evaluateDeferredEvents();
+                    }
+                }
+
+                @Override
+                public void onConfigurationChanged(Configuration configuration) {}
+
+                @Override
+                public void onLowMemory() {}
+            });
+
+            mSharedInstance.mAdvertisingIdResolver.start();
+        }
+
+        // Replay any events left over from a previous process, transitions and actions right away and telemetry once the constraints allow it
+        for (int i = RoverConfig.LANE_TRANSITIONS; i <= RoverConfig.LANE_ACTIONS; i++) {
+            EventLane lane = mSharedInstance.mEventLanes[i];
+            if (lane != null) {
+                lane.flush(mSharedInstance.mApplicationContext, config.mEventBatchSize, mSharedInstance, mSharedInstance.mEventLaneListener);
+            }
+        }
+
+        mSharedInstance.deferEvents();
+        mSharedInstance.evaluateDeferredEvents();
+        mSharedInstance.flushMessageOutbox();
+    }
+
+    private static EventLane openEventLane(int lane, String name, String path, boolean waitForAdvertisingId) {
+        RoverConfig config = mSharedInstance.mConfig;
+
+        try {
+            EventJournal journal = new EventJournal(new File(mSharedInstance.mApplicationContext.getFilesDir(), path));
+            EventLane eventLane = new EventLane(name, journal, config.mLaneCapacities[lane], config.mLaneDropPolicies[lane],
+                    waitForAdvertisingId, mSharedInstance.mMetrics);
+
+            if (lane == RoverConfig.LANE_TRANSITIONS) {
+                eventLane.setOnEventsDroppedListener(mSharedInstance.mDroppedTransitionsListener);
+            }
+            return eventLane;
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to open event journal for " + name + ": " + e);
+            return null;
+        }
+    }
+
+    /*
+        Counts whether the first request to each host found a warm connection, and if enabled
+        pre-connects to the API unless that would cost the user metered data or battery
+     */
+    private void prewarmConnection(boolean enabled, DeviceUploadConditions conditions) {
+        HttpTransport transport = NetworkTask.getDefaultTransport();
+
+        if (transport instanceof DefaultHttpTransport) {
+            ((DefaultHttpTransport) transport).setListener(new DefaultHttpTransport.Listener() {
+                @Override
+                public void onPreconnect(URL origin, boolean connected) {
+                    if (!connected) {
+                        mMetrics.increment(RoverMetrics.HTTP_PRECONNECTS_FAILED);
+                    }
+                }
+
+                @Override
+                public void onFirstRequest(URL url, boolean warm) {
+                    mMetrics.increment(warm ? RoverMetrics.HTTP_FIRST_REQUESTS_WARM : RoverMetrics.HTTP_FIRST_REQUESTS_COLD);
+                }
+            });
+        }
+
+        URL baseURL = Router.getBaseURL();
+        if (!enabled || baseURL == null) {
+            return;
+        }
+
+        if (!conditions.isUnmeteredNetwork() || conditions.isLowPower()) {
+            mMetrics.increment(RoverMetrics.HTTP_PRECONNECTS_SKIPPED);
+            return;
+        }
+
+        mMetrics.increment(RoverMetrics.HTTP_PRECONNECTS);
+        transport.preconnect(baseURL);
+    }
+
+    /*
+        Where inbox, message and experience tasks run. Tasks with the same ordering key run in order
+     */
+    static Executor getRequestExecutor(String orderingKey) {
+        RequestDispatcher dispatcher = mSharedInstance.mRequestDispatcher;
+        return dispatcher != null ? dispatcher.forKey(orderingKey) : AsyncTask.SERIAL_EXECUTOR;
+    }
+
+    public static RoverMetrics getMetrics() {
+        return mSharedInstance.mMetrics;
     }
 
     public static boolean isInitialized() {
@@ -188,6 +430,9 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
+        // Events of the previous customer are sent before the change reaches the attributes
+        mSharedInstance.flushEvents();
+
         Customer customer = getCustomer();
 
         if (customer != null) {
@@ -241,6 +486,9 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
+        // Events of the previous customer are sent before the change reaches the attributes
+        mSharedInstance.flushEvents();
+
         Customer customer = getCustomer();
         if (customer != null) {
             customer.clear(mSharedInstance.mApplicationContext);
@@ -283,14 +531,9 @@ public class Rover implements EventSubmitTask.Callback {
                 .setSmallestDisplacement(0)
                 .setPriority(LocationRequest.PRIORITY_BALANCED_POWER_ACCURACY);
 
-        GoogleApiConnection connection = new GoogleApiConnection(mSharedInstance.mApplicationContext);
-        connection.setCallbacks(new GoogleApiConnection.Callbacks() {
-            private int mDisconnectionTry = 2;
-
+        mSharedInstance.mGoogleApiConnections.execute(new GoogleApiConnectionManager.Operation() {
             @Override
-            public int onConnected(final GoogleApiClient client) {
-                final GoogleApiConnection.Callbacks clientCallbacks = this;
-
+            public void run(final GoogleApiClient client, final Runnable done) {
                 // Location Updates
                 if (ContextCompat.checkSelfPermission(mSharedInstance.mApplicationContext, Manifest.permission.ACCESS_FINE_LOCATION) == PackageManager.PERMISSION_GRANTED) {
                     Log.i("LocationServices", "Requesting location updates");
@@ -304,14 +547,15 @@ public class Rover implements EventSubmitTask.Callback {
                                         Log.e("LocationServices", "Could not register for updates. " + status.getStatusMessage());
                                     }
 
-                                    mDisconnectionTry--;
-                                    if (mDisconnectionTry == 0) {
-                                        client.disconnect();
-                                    }
+                                    subscribeNearby(client, done);
                                 }
                             });
+                } else {
+                    subscribeNearby(client, done);
                 }
+            }
 
+            private void subscribeNearby(GoogleApiClient client, final Runnable done) {
                 // Nearby Messages
                 Nearby.Messages.subscribe(client, mSharedInstance.getNearbyMessagesPendingIntent(), mSharedInstance.getNearbySubscriptionOptions())
                         .setResultCallback(new ResultCallback<Status>() {
@@ -324,17 +568,11 @@ public class Rover implements EventSubmitTask.Callback {
                                     //handleUnsuccessfulNearbyResult(status);
                                 }
 
-                                mDisconnectionTry--;
-                                if (mDisconnectionTry == 0) {
-                                    client.disconnect();
-                                }
+                                done.run();
                             }
                         });
-
-                return GoogleApiConnection.KEEP_ALIVE;
             }
         });
-        connection.connect();
     }
 
     public static RoverConfig getConfig() {
@@ -353,10 +591,9 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        GoogleApiConnection connection = new GoogleApiConnection(mSharedInstance.mApplicationContext);
-        connection.setCallbacks(new GoogleApiConnection.Callbacks() {
+        mSharedInstance.mGoogleApiConnections.execute(new GoogleApiConnectionManager.Operation() {
             @Override
-            public int onConnected(final GoogleApiClient client) {
+            public void run(final GoogleApiClient client, final Runnable done) {
 
                 LocationServices.GeofencingApi.removeGeofences(client, mSharedInstance.getGeofencePendingIntent())
                         .setResultCallback(new ResultCallback<Status>() {
@@ -364,6 +601,8 @@ public class Rover implements EventSubmitTask.Callback {
                             public void onResult(@NonNull Status status) {
                                 if (status.isSuccess()) {
                                     Log.i("GeofenceService", "Successfully stopped monitoring for geofences");
+                                    mSharedInstance.mGeofenceRegistry.clear();
+                                    mSharedInstance.mGeofenceRegistry.save(mSharedInstance.mApplicationContext);
                                 } else {
                                     Log.w("GeofenceService", "Failed to stop monitoring for geofences");
                                 }
@@ -374,6 +613,9 @@ public class Rover implements EventSubmitTask.Callback {
                                             public void onResult(@NonNull Status status) {
                                                 if (status.isSuccess()) {
                                                     Log.i("Nearby", "Unsubscribed successfuly.");
+                                                    mSharedInstance.mBeaconDebouncer.clear();
+                                                    mSharedInstance.mBeaconDebouncer.save(mSharedInstance.mApplicationContext);
+                                                    mSharedInstance.scheduleBeaconExpiry(-1);
                                                 } else {
                                                     Log.w("Nearby", "Could not unsubscribe");
                                                 }
@@ -388,26 +630,32 @@ public class Rover implements EventSubmitTask.Callback {
                                                                     Log.e("LocationServices", "Could not unregister for updates. " + status.getStatusMessage());
                                                                 }
 
-                                                                client.disconnect();
+                                                                done.run();
                                                             }
                                                         });
                                             }
                                         });
                             }
                         });
-                return GoogleApiConnection.KEEP_ALIVE;
             }
         });
-        connection.connect();
     }
 
     public static void addObserver(RoverObserver observer) {
+        addObserver(observer, null);
+    }
+
+    /*
+        The observer is always called on the executor. Observers added without one are called on
+        the thread the notification happens on
+     */
+    public static void addObserver(RoverObserver observer, Executor executor) {
         if (!isInitialized()) {
             warnNotInitialized("addObserver");
             return;
         }
 
-        mSharedInstance.mObservers.add(observer);
+        mSharedInstance.mObservers.add(observer, executor);
     }
 
     public static void deleteObserver(RoverObserver observer) {
@@ -441,8 +689,7 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        FetchInboxTask task = new FetchInboxTask();
-        task.setCallback(new FetchInboxTask.Callback() {
+        FetchInboxTask.fetch(new FetchInboxTask.Callback() {
             @Override
             public void onSuccess(List<io.rover.model.Message> messages) {
                 if (listener != null) {
@@ -457,7 +704,6 @@ public class Rover implements EventSubmitTask.Callback {
                 }
             }
         });
-        task.execute();
     }
 
     public static void patchMessage(final io.rover.model.Message message, final OnPatchMessageListener listener) {
@@ -474,23 +720,23 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        PatchMessageTask task = new PatchMessageTask(mSharedInstance.mApplicationContext);
-        task.setCallback(new PatchMessageTask.Callback() {
+        int type = message.isRead() ? MessageOutbox.MARK_READ : MessageOutbox.MARK_UNREAD;
+
+        mSharedInstance.queueMessageMutation(message.getId(), type, new Runnable() {
             @Override
-            public void onSuccess() {
+            public void run() {
                 if (listener != null) {
                     listener.onSuccess();
                 }
             }
-
+        }, new Runnable() {
             @Override
-            public void onFailure() {
+            public void run() {
                 if (listener != null) {
                     listener.onFailure();
                 }
             }
         });
-        task.execute(message);
     }
 
     public static void deleteMessage(io.rover.model.Message message, OnDeleteMessageListener listener) {
@@ -511,31 +757,182 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        DeleteMessageTask task = new DeleteMessageTask();
-        task.setCallback(new DeleteMessageTask.Callback() {
-            @Override
-            public void onComplete() {
-
-                Context context = mSharedInstance.mApplicationContext;
-
-                if (context != null) {
-                    NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-                    manager.cancel(messageId, Rover.NOTIFICATION_ID);
-                }
+        // The message is gone for the user as soon as the delete is queued
+        Context context = mSharedInstance.mApplicationContext;
+        NotificationManager manager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (manager != null) {
+            manager.cancel(messageId, Rover.NOTIFICATION_ID);
+        }
 
+        mSharedInstance.queueMessageMutation(messageId, MessageOutbox.DELETE, new Runnable() {
+            @Override
+            public void run() {
                 if (listener != null) {
                     listener.onSuccess();
                 }
             }
-
+        }, new Runnable() {
             @Override
-            public void onFailure() {
+            public void run() {
                 if (listener != null) {
                     listener.onFailure();
                 }
             }
         });
-        task.execute(messageId);
+    }
+
+    /*
+        Inbox outbox. A change is applied to the local inbox state right away, and the listener is
+        told once it is written to disk. Changes are sent in the background and each failed
+        change is retried with its own backoff
+     */
+
+    private void queueMessageMutation(String messageId, int type, final Runnable onQueued, final Runnable onFailure) {
+        mMessageOutbox.enqueue(messageId, type);
+        mMetrics.increment(RoverMetrics.INBOX_MUTATIONS_QUEUED);
+        mMetrics.add(RoverMetrics.INBOX_MUTATIONS_COLLAPSED, mMessageOutbox.takeCollapsedCount());
+        mMetrics.set(RoverMetrics.INBOX_OUTBOX_DEPTH, mMessageOutbox.size());
+
+        mOutboxExecutorService.execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean saved = mMessageOutbox.save(mApplicationContext);
+                if (!saved) {
+                    Log.e(TAG, "Unable to persist inbox changes");
+                }
+
+                mMainHandler.post(saved ? onQueued : onFailure);
+                flushMessageOutbox();
+            }
+        });
+    }
+
+    /*
+        Applies the changes still waiting to be sent to a fetched inbox
+     */
+    static List<io.rover.model.Message> applyPendingMessageMutations(List<io.rover.model.Message> inbox) {
+        if (!isInitialized()) {
+            return inbox;
+        }
+
+        return mSharedInstance.mMessageOutbox.apply(inbox);
+    }
+
+    synchronized void flushMessageOutbox() {
+        long now = System.currentTimeMillis();
+
+        for (final MessageOutbox.Mutation mutation : mMessageOutbox.takeReady(now)) {
+            // Changes to one message are sent in the order they were made
+            getRequestExecutor("message:" + mutation.messageId).execute(new Runnable() {
+                @Override
+                public void run() {
+                    onMessageMutationSent(mutation, sendMessageMutation(mutation));
+                }
+            });
+        }
+
+        /*
+            Changes waiting for their backoff are sent by a scheduled flush. One already scheduled
+            is kept, another is only added when a change comes due before it
+         */
+        long next = mMessageOutbox.nextDue();
+        boolean scheduled = mScheduledOutboxFlush != null && !mScheduledOutboxFlush.isDone();
+
+        if (next != -1 && (!scheduled || next < mScheduledOutboxFlushAt)) {
+            mScheduledOutboxFlushAt = next;
+            mScheduledOutboxFlush = mOutboxExecutorService.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    flushMessageOutbox();
+                }
+            }, Math.max(0, next - now), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onMessageMutationSent(MessageOutbox.Mutation mutation, int outcome) {
+        mMessageOutbox.onSent(mutation, outcome, System.currentTimeMillis());
+
+        if (outcome == MessageOutbox.SENT) {
+            mMetrics.increment(RoverMetrics.INBOX_MUTATIONS_SENT);
+        } else if (outcome == MessageOutbox.REJECTED) {
+            mMetrics.increment(RoverMetrics.INBOX_MUTATIONS_REJECTED);
+
+            // The inbox kept with its validators has the rejected change applied
+            Router.invalidateInbox();
+        }
+
+        mMetrics.set(RoverMetrics.INBOX_OUTBOX_DEPTH, mMessageOutbox.size());
+        mMessageOutbox.save(mApplicationContext);
+
+        // Sends a change made while this one was being sent, or schedules the retry
+        if (mMessageOutbox.getPendingType(mutation.messageId) != 0) {
+            flushMessageOutbox();
+        }
+    }
+
+    /*
+        Runs on a request thread. A message the server no longer has, or a change it cannot parse,
+        will never be accepted. Anything else is retried
+     */
+    private int sendMessageMutation(final MessageOutbox.Mutation mutation) {
+        NetworkTask networkTask;
+
+        if (mutation.type == MessageOutbox.DELETE) {
+            networkTask = Router.deleteMessageNetworkTask(mutation.messageId);
+        } else {
+            networkTask = Router.getPatchMessageNetworkTask(mutation.messageId);
+
+            if (networkTask != null) {
+                networkTask.setPayloadProvider(new JsonApiPayloadProvider(new JsonApiPayloadProvider.JsonApiObjectSerializer() {
+                    @Override
+                    public String getIdentifier() {
+                        return mutation.messageId;
+                    }
+
+                    @Override
+                    public String getType() {
+                        return "messages";
+                    }
+
+                    @Override
+                    public JSONObject getAttributes() {
+                        JSONObject attributes = new JSONObject();
+                        try {
+                            attributes.put("read", mutation.type == MessageOutbox.MARK_READ);
+                        } catch (JSONException e) {
+                            Log.e(TAG, "Error creating attributes JSON");
+                        }
+                        return attributes;
+                    }
+                }));
+            }
+        }
+
+        if (networkTask == null) {
+            return MessageOutbox.RETRY;
+        }
+
+        HttpResponse response = networkTask.run();
+
+        if (response == null) {
+            return MessageOutbox.RETRY;
+        }
+
+        response.close();
+
+        int status = response.getStatus();
+
+        if (response.isSuccessful()) {
+            return MessageOutbox.SENT;
+        }
+
+        if (status == HttpURLConnection.HTTP_BAD_REQUEST || status == HttpURLConnection.HTTP_NOT_FOUND
+                || status == HttpURLConnection.HTTP_GONE || status == 422) {
+            Log.w(TAG, "Inbox change to " + mutation.messageId + " rejected with status " + status);
+            return MessageOutbox.REJECTED;
+        }
+
+        return MessageOutbox.RETRY;
     }
 
     public static void submitEvent(Event event) {
@@ -600,6 +997,36 @@ public class Rover implements EventSubmitTask.Callback {
         return mNearbyMessagesPendingIntent;
     }
 
+    /*
+        Wakes the Nearby service when the next pending beacon exit is due. A deadline of -1 cancels it
+     */
+    private void scheduleBeaconExpiry(long deadline) {
+        Intent intent = new Intent(mApplicationContext, NearbyMessageService.class);
+        intent.setAction(NearbyMessageService.ACTION_EXPIRE_TRANSITIONS);
+        PendingIntent pendingIntent = PendingIntent.getService(mApplicationContext, 0, intent, PendingIntent.FLAG_UPDATE_CURRENT);
+
+        AlarmManager alarmManager = (AlarmManager) mApplicationContext.getSystemService(Context.ALARM_SERVICE);
+
+        if (deadline == -1) {
+            alarmManager.cancel(pendingIntent);
+        } else {
+            alarmManager.set(AlarmManager.RTC, deadline, pendingIntent);
+        }
+    }
+
+    /*
+        Sends the beacon transitions that got through the debouncer and persists its state
+     */
+    private void sendBeaconTransitions(List<BeaconDebouncer.Transition> transitions) {
+        for (BeaconDebouncer.Transition transition : transitions) {
+            sendEvent(new BeaconTransitionEvent(transition.transition, transition.id, new Date(transition.time)));
+        }
+
+        mMetrics.add(RoverMetrics.BEACON_TRANSITIONS_SUPPRESSED, mBeaconDebouncer.takeSuppressedCount());
+        mBeaconDebouncer.save(mApplicationContext);
+        scheduleBeaconExpiry(mBeaconDebouncer.nextDeadline());
+    }
+
     @Nullable
     private PendingIntent getAppLaunchPendingIntent() {
         if (!isInitialized()) {
@@ -634,10 +1061,278 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        EventSubmitTask eventTask = new EventSubmitTask(mApplicationContext, event);
-        eventTask.setCallback(this);
-        // TODO: this may have to be synchronous
-        mEventExecutorService.execute(eventTask);
+        EventLane lane = mEventLanes == null ? null : mEventLanes[laneForEvent(event)];
+
+        if (lane == null) {
+            Log.e(TAG, "Dropping event, journal is unavailable");
+            return;
+        }
+
+        try {
+            String customer = EventSerializer.encodeCustomerIdentifier(Customer.getInstance(mApplicationContext).getIdentifier());
+
+            if (!lane.append(EventSerializer.toRecord(event, customer))) {
+                return;
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to journal event: " + e);
+            return;
+        }
+
+        if (lane == mEventLanes[RoverConfig.LANE_TRANSITIONS]) {
+            lane.flush(mApplicationContext, mConfig.mEventBatchSize, this, mEventLaneListener);
+            return;
+        }
+
+        // Actions are not held for the upload constraints, a batch goes out within the flush interval
+        if (lane == mEventLanes[RoverConfig.LANE_ACTIONS]) {
+            if (lane.getPendingCount() >= mConfig.mEventBatchSize) {
+                lane.flush(mApplicationContext, mConfig.mEventBatchSize, this, mEventLaneListener);
+            } else {
+                lane.scheduleFlush(mConfig.mEventFlushInterval, mApplicationContext, mConfig.mEventBatchSize, this, mEventLaneListener);
+            }
+            return;
+        }
+
+        deferEvents();
+
+        if (getDeferredEventCount() >= mConfig.mEventBatchSize && canUploadDeferredEvents()) {
+            flushEvents();
+        } else {
+            // Also checks the constraints again later in case another request wakes the radio
+            scheduleEventFlush(mConfig.mEventFlushInterval);
+        }
+    }
+
+    /*
+        Transitions are sent right away since observers are notified from the server's response.
+        Actions the user took come next, sent within the flush interval whatever the upload
+        constraints. Everything else is telemetry, deferred until the constraints allow it
+     */
+    private static int laneForEvent(Event event) {
+        if (event instanceof GeofenceTransitionEvent
+                || event instanceof BeaconTransitionEvent
+                || event instanceof GimbalPlaceTransitionEvent) {
+            return RoverConfig.LANE_TRANSITIONS;
+        }
+
+        if (event instanceof MessageOpenEvent
+                || event instanceof BlockPressEvent
+                || event instanceof ExperienceLaunchEvent
+                || event instanceof ExperienceDismissEvent
+                || event instanceof DeviceUpdateEvent) {
+            return RoverConfig.LANE_ACTIONS;
+        }
+
+        return RoverConfig.LANE_TELEMETRY;
+    }
+
+    private int getDeferredEventCount() {
+        EventLane telemetry = mEventLanes == null ? null : mEventLanes[RoverConfig.LANE_TELEMETRY];
+        return telemetry == null ? 0 : telemetry.getPendingCount();
+    }
+
+    /*
+        Records that events are waiting and arms the platform scheduler to upload them later
+     */
+    private synchronized void deferEvents() {
+        if (getDeferredEventCount() == 0) {
+            return;
+        }
+
+        if (mEventsDeferredSince == 0) {
+            mEventsDeferredSince = System.currentTimeMillis();
+        }
+
+        if (mUploadScheduler != null && mUploadPolicy.getMaxDeferral() > 0) {
+            mUploadScheduler.schedule(mUploadPolicy.getMaxDeferral());
+        }
+    }
+
+    private synchronized boolean canUploadDeferredEvents() {
+        if (mUploadPolicy == null || mUploadConditions == null) {
+            return true;
+        }
+
+        return mUploadPolicy.shouldUpload(mUploadConditions, getDeferredEventCount(),
+                mEventsDeferredSince, System.currentTimeMillis());
+    }
+
+    synchronized void evaluateDeferredEvents() {
+        if (getDeferredEventCount() == 0) {
+            return;
+        }
+
+        if (canUploadDeferredEvents()) {
+            flushEvents();
+        } else {
+            scheduleEventFlush(mConfig.mEventFlushInterval);
+        }
+    }
+
+    /*
+        Called by EventUploadJobService. The job scheduler already checked the constraints so the
+        journals are drained unconditionally
+     */
+    void uploadDeferredEvents(final Runnable completion) {
+        flushEvents();
+
+        if (mEventLanes == null) {
+            completion.run();
+            return;
+        }
+
+        // Each lane is serial so its marker runs after its submission. The last marker completes the job
+        final AtomicInteger remaining = new AtomicInteger(mEventLanes.length);
+        Runnable marker = new Runnable() {
+            @Override
+            public void run() {
+                if (remaining.decrementAndGet() == 0) {
+                    completion.run();
+                }
+            }
+        };
+
+        for (EventLane lane : mEventLanes) {
+            if (lane != null) {
+                lane.execute(marker);
+            } else {
+                marker.run();
+            }
+        }
+    }
+
+    synchronized boolean hasPendingEvents() {
+        if (mEventLanes == null) {
+            return false;
+        }
+
+        for (EventLane lane : mEventLanes) {
+            if (lane != null && lane.getPendingCount() > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+        Runs on a lane's thread after every submission attempt. Jobs stay armed while any deferred
+        event is left
+     */
+    private EventLane.Listener mEventLaneListener = new EventLane.Listener() {
+        @Override
+        public void onSubmissionFinished(EventLane lane) {
+            synchronized (Rover.this) {
+                if (getDeferredEventCount() == 0) {
+                    mEventsDeferredSince = 0;
+
+                    if (mUploadScheduler != null) {
+                        mUploadScheduler.cancel();
+                    }
+                }
+            }
+        }
+    };
+
+    /*
+        No response will come for transitions that never reach the server, so the dispatches made
+        for them from the place cache are forgotten
+     */
+    private EventLane.OnEventsDroppedListener mDroppedTransitionsListener = new EventLane.OnEventsDroppedListener() {
+        @Override
+        public void onEventsDropped(EventLane lane, List<EventJournal.Record> records) {
+            for (EventJournal.Record record : records) {
+                try {
+                    JSONObject attributes = new JSONObject(EventSerializer.getRecordAttributes(record.getPayload()));
+
+                    if ("geofence-region".equals(attributes.optString("object")) && !attributes.isNull("identifier")) {
+                        int transition = "exit".equals(attributes.optString("action"))
+                                ? Geofence.GEOFENCE_TRANSITION_EXIT : Geofence.GEOFENCE_TRANSITION_ENTER;
+                        mPlaceCache.clearDispatched(attributes.getString("identifier"), transition);
+                    }
+                } catch (JSONException e) {
+                    Log.w(TAG, "Unable to read dropped event");
+                }
+            }
+
+            mPlaceCache.save(mApplicationContext);
+        }
+    };
+
+    private void sendLocationUpdates(List<Location> locations) {
+        if (locations == null || locations.isEmpty()) {
+            return;
+        }
+
+        mMetrics.add(RoverMetrics.LOCATION_POINTS_RECEIVED, locations.size());
+
+        // Swap in the regions near the device once it left the area the registered ones cover
+        Location latest = locations.get(locations.size() - 1);
+        if (mGeofenceIndex != null && !mGimbalMode && mGeofenceIndex.needsSelection(latest.getLatitude(), latest.getLongitude())) {
+            registerGeofences(mGeofenceIndex.select(latest.getLatitude(), latest.getLongitude(), mConfig.mMaxRegisteredGeofences));
+        }
+
+        List<Location> accepted = locations;
+
+        if (mLocationFilter != null) {
+            ArrayList<LocationFilter.Point> points = new ArrayList<>(locations.size());
+            for (Location location : locations) {
+                points.add(new LocationFilter.Point(location.getLatitude(), location.getLongitude(),
+                        location.hasAccuracy() ? location.getAccuracy() : Float.MAX_VALUE, location.getTime()));
+            }
+
+            accepted = new ArrayList<>();
+            for (Integer index : mLocationFilter.filter(points)) {
+                accepted.add(locations.get(index));
+            }
+
+            if (!accepted.isEmpty()) {
+                mLocationFilter.save(mApplicationContext);
+            }
+        }
+
+        mMetrics.add(RoverMetrics.LOCATION_POINTS_DROPPED, locations.size() - accepted.size());
+
+        for (Location location : accepted) {
+            Date date = location.getTime() > 0 ? new Date(location.getTime()) : new Date();
+            sendEvent(new LocationUpdateEvent(location, date));
+        }
+    }
+
+    private synchronized void scheduleEventFlush(long delay) {
+        if (mScheduledEventFlush != null && !mScheduledEventFlush.isDone()) {
+            return;
+        }
+
+        mScheduledEventFlush = mEventExecutorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                onScheduledEventFlush();
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void onScheduledEventFlush() {
+        mScheduledEventFlush = null;
+        evaluateDeferredEvents();
+    }
+
+    private synchronized void flushEvents() {
+        if (mEventLanes == null) {
+            return;
+        }
+
+        if (mScheduledEventFlush != null) {
+            mScheduledEventFlush.cancel(false);
+            mScheduledEventFlush = null;
+        }
+
+        for (EventLane lane : mEventLanes) {
+            if (lane != null) {
+                lane.flush(mApplicationContext, mConfig.mEventBatchSize, this, mEventLaneListener);
+            }
+        }
     }
 
     @Override
@@ -646,37 +1341,68 @@ public class Rover implements EventSubmitTask.Callback {
             GeofenceTransitionEvent gtEvent = (GeofenceTransitionEvent)event;
             Place place = gtEvent.getPlace();
 
-            for (RoverObserver observer : mObservers) {
-                if (observer instanceof RoverObserver.GeofenceTransitionObserver) {
-                    switch (gtEvent.getGeofenceTransition()) {
-                        case Geofence.GEOFENCE_TRANSITION_ENTER:
-                            ((RoverObserver.GeofenceTransitionObserver) observer).onEnterGeofence(place);
-                            break;
-                        case Geofence.GEOFENCE_TRANSITION_EXIT:
-                            ((RoverObserver.GeofenceTransitionObserver) observer).onExitGeofence(place);
-                            break;
-                    }
+            // The server's place refreshes the cache. Observers only hear about transitions that
+            // were not already dispatched from the cache. The region is found by its place only if
+            // the server did not echo the id the event was submitted with
+            String regionId = gtEvent.getGeofenceId();
+            if (regionId == null && place != null) {
+                regionId = mGeofenceRegistry.findId(place.getLatitude(), place.getLongitude(), place.getRadius());
+            }
+
+            if (regionId != null) {
+                if (place != null) {
+                    mPlaceCache.put(regionId, place);
+                }
+                boolean dispatched = mPlaceCache.takeDispatched(regionId, gtEvent.getGeofenceTransition(), System.currentTimeMillis());
+                mPlaceCache.save(mApplicationContext);
+
+                if (dispatched) {
+                    return;
                 }
             }
+
+            dispatchGeofenceTransition(place, gtEvent.getGeofenceTransition());
         } else if (event instanceof BeaconTransitionEvent) {
             BeaconTransitionEvent btEvent = (BeaconTransitionEvent)event;
-            BeaconConfiguration bc = btEvent.getBeaconConfiguration();
-
-            for (RoverObserver observer : mObservers) {
-                if (observer instanceof RoverObserver.BeaconTransitionObserver) {
-                    switch (btEvent.getTransition()) {
-                        case BeaconTransitionEvent.TRANSITION_ENTER:
-                            ((RoverObserver.BeaconTransitionObserver) observer).onEnterBeaconRegion(bc);
-                            break;
-                        case BeaconTransitionEvent.TRANSITION_EXIT:
-                            ((RoverObserver.BeaconTransitionObserver) observer).onExitBeaconRegion(bc);
-                            break;
+            final BeaconConfiguration bc = btEvent.getBeaconConfiguration();
+
+            final boolean enter = btEvent.getTransition() == BeaconTransitionEvent.TRANSITION_ENTER;
+            final boolean exit = btEvent.getTransition() == BeaconTransitionEvent.TRANSITION_EXIT;
+
+            mObservers.dispatch(RoverObserver.BeaconTransitionObserver.class, null,
+                    new ObserverRegistry.Dispatch<RoverObserver.BeaconTransitionObserver>() {
+                @Override
+                public void dispatch(RoverObserver.BeaconTransitionObserver observer) {
+                    if (enter) {
+                        observer.onEnterBeaconRegion(bc);
+                    } else if (exit) {
+                        observer.onExitBeaconRegion(bc);
                     }
                 }
-            }
+            });
         }
     }
 
+    private void dispatchGeofenceTransition(final Place place, int transition) {
+        final boolean enter = transition == Geofence.GEOFENCE_TRANSITION_ENTER;
+        final boolean exit = transition == Geofence.GEOFENCE_TRANSITION_EXIT;
+
+        mObservers.dispatch(RoverObserver.GeofenceTransitionObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.GeofenceTransitionObserver>() {
+            @Override
+            public void dispatch(RoverObserver.GeofenceTransitionObserver observer) {
+                if (enter) {
+                    observer.onEnterGeofence(place);
+                } else if (exit) {
+                    observer.onExitGeofence(place);
+                }
+            }
+        });
+    }
+
+    /*
+        The server sends every region. Only the nearest ones are registered
+     */
     @Override
     public void onReceivedGeofences(final List<GeofenceRegion> geofenceRegions) {
         if (!isInitialized()) {
@@ -684,48 +1410,78 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        GoogleApiConnection connection = new GoogleApiConnection(mApplicationContext);
-        connection.setCallbacks(new GoogleApiConnection.Callbacks() {
+        mGeofenceIndex.setRegions(geofenceRegions);
+
+        LocationFilter.Point location = mLocationFilter != null ? mLocationFilter.getLastAccepted() : null;
+
+        List<GeofenceRegion> selected;
+        if (location != null) {
+            selected = mGeofenceIndex.select(location.latitude, location.longitude, mConfig.mMaxRegisteredGeofences);
+        } else {
+            selected = mGeofenceIndex.first(mConfig.mMaxRegisteredGeofences);
+        }
+
+        // Keep the places of the regions about to be registered so their transitions are dispatched locally
+        boolean placesChanged = false;
+        for (GeofenceRegion region : selected) {
+            if (region.getPlace() != null) {
+                mPlaceCache.put(region.getId(), region.getPlace());
+                placesChanged = true;
+            }
+        }
+
+        if (placesChanged) {
+            mPlaceCache.save(mApplicationContext);
+        }
+
+        registerGeofences(selected);
+    }
+
+    private void registerGeofences(final List<GeofenceRegion> geofenceRegions) {
+        final GeofenceRegistry.Diff diff = mGeofenceRegistry.diff(geofenceRegions);
+
+        if (diff.isEmpty()) {
+            Log.d(TAG, "Registered geofences are up to date");
+            return;
+        }
+
+        Log.i(TAG, "Updating geofences: removing " + diff.getRemoved().size() + ", adding " + diff.getAdded().size());
+
+        mGoogleApiConnections.execute(new GoogleApiConnectionManager.Operation() {
             @Override
-            public int onConnected(final GoogleApiClient client) {
-                LocationServices.GeofencingApi.removeGeofences(client, getGeofencePendingIntent())
+            public void run(final GoogleApiClient client, final Runnable done) {
+                if (diff.getRemoved().isEmpty()) {
+                    addGeofences(client, done);
+                    return;
+                }
+
+                LocationServices.GeofencingApi.removeGeofences(client, diff.getRemoved())
                         .setResultCallback(new ResultCallback<Status>() {
                             @Override
-                            public void onResult(Status status) {
+                            public void onResult(@NonNull Status status) {
                                 if (status.isSuccess()) {
-                                    addGeofences(client);
+                                    mGeofenceRegistry.applyRemoved(diff.getRemoved());
+                                    mGeofenceRegistry.save(mApplicationContext);
+                                    addGeofences(client, done);
                                 } else {
-                                    client.disconnect();
+                                    done.run();
                                 }
                             }
                         });
-
-                return GoogleApiConnection.KEEP_ALIVE;
             }
 
-            public void addGeofences(final GoogleApiClient client) {
-
-                // Convert Rover geofence-regions to google monitoring geofences
-
-                final ArrayList<Geofence> geofences = new ArrayList<>();
-
-                for (GeofenceRegion geofenceRegion : geofenceRegions) {
-                    geofences.add(new Geofence.Builder()
-                            .setRequestId(geofenceRegion.getId())
-                            .setCircularRegion(
-                                    geofenceRegion.getlatitude(),
-                                    geofenceRegion.getLongitude(),
-                                    (float)geofenceRegion.getRadius()
-                            )
-                            .setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER | Geofence.GEOFENCE_TRANSITION_EXIT )
-                            .setExpirationDuration(Geofence.NEVER_EXPIRE)
-                            .build()
-                    );
+            private void addGeofences(GoogleApiClient client, final Runnable done) {
+                if (diff.getAdded().isEmpty()) {
+                    onRegisteredGeofences();
+                    done.run();
+                    return;
                 }
 
+                // Only the new regions are added, so only they can trigger an initial enter
+
                 GeofencingRequest.Builder builder = new GeofencingRequest.Builder();
                 builder.setInitialTrigger(GeofencingRequest.INITIAL_TRIGGER_ENTER);
-                builder.addGeofences(geofences);
+                builder.addGeofences(toGeofences(diff.getAdded()));
 
                 GeofencingRequest request = builder.build();
 
@@ -735,23 +1491,53 @@ public class Rover implements EventSubmitTask.Callback {
                                 @Override
                                 public void onResult(@NonNull Status status) {
                                     if (status.isSuccess()) {
-                                        // TODO: Clean up
-
-                                        for (RoverObserver observer : mObservers) {
-                                            if (observer instanceof RoverObserver.GeofenceRegistrationObserver) {
-                                                ((RoverObserver.GeofenceRegistrationObserver) observer).onRegisteredGeofences(geofences);
-                                            }
-                                        }
+                                        mGeofenceRegistry.applyAdded(diff.getAdded());
+                                        mGeofenceRegistry.save(mApplicationContext);
+                                        onRegisteredGeofences();
                                     }
-                                    client.disconnect();
+                                    done.run();
                                 }
                             });
                 } else {
-                    client.disconnect();
+                    done.run();
                 }
             }
+
+            private void onRegisteredGeofences() {
+                final List<Geofence> geofences = toGeofences(geofenceRegions);
+
+                mObservers.dispatch(RoverObserver.GeofenceRegistrationObserver.class, null,
+                        new ObserverRegistry.Dispatch<RoverObserver.GeofenceRegistrationObserver>() {
+                    @Override
+                    public void dispatch(RoverObserver.GeofenceRegistrationObserver observer) {
+                        observer.onRegisteredGeofences(geofences);
+                    }
+                });
+            }
         });
-        connection.connect();
+    }
+
+    /*
+        Converts Rover geofence regions to Play Services geofences
+     */
+    private static List<Geofence> toGeofences(List<GeofenceRegion> geofenceRegions) {
+        ArrayList<Geofence> geofences = new ArrayList<>(geofenceRegions.size());
+
+        for (GeofenceRegion geofenceRegion : geofenceRegions) {
+            geofences.add(new Geofence.Builder()
+                    .setRequestId(geofenceRegion.getId())
+                    .setCircularRegion(
+                            geofenceRegion.getlatitude(),
+                            geofenceRegion.getLongitude(),
+                            (float)geofenceRegion.getRadius()
+                    )
+                    .setTransitionTypes(Geofence.GEOFENCE_TRANSITION_ENTER | Geofence.GEOFENCE_TRANSITION_EXIT )
+                    .setExpirationDuration(Geofence.NEVER_EXPIRE)
+                    .build()
+            );
+        }
+
+        return geofences;
     }
 
     static public void simulateGeofenceEnter(String id) {
@@ -773,16 +1559,13 @@ public class Rover implements EventSubmitTask.Callback {
 
         didOpenMessage(message);
 
-        for (final RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.NotificationInteractionObserver) {
-                mMainHandler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        ((RoverObserver.NotificationInteractionObserver) observer).onNotificationOpened(message);
-                    }
-                });
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.NotificationInteractionObserver.class, mMainThreadExecutor,
+                new ObserverRegistry.Dispatch<RoverObserver.NotificationInteractionObserver>() {
+            @Override
+            public void dispatch(RoverObserver.NotificationInteractionObserver observer) {
+                observer.onNotificationOpened(message);
             }
-        }
+        });
     }
 
     static void didDeleteNotificationWithMessage(final io.rover.model.Message message) {
@@ -791,16 +1574,13 @@ public class Rover implements EventSubmitTask.Callback {
             return;
         }
 
-        for (final RoverObserver observer : Rover.mSharedInstance.mObservers) {
-            if (observer instanceof RoverObserver.NotificationInteractionObserver) {
-                mMainHandler.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        ((RoverObserver.NotificationInteractionObserver) observer).onNotificationDeleted(message);
-                    }
-                });
+        Rover.mSharedInstance.mObservers.dispatch(RoverObserver.NotificationInteractionObserver.class, mMainThreadExecutor,
+                new ObserverRegistry.Dispatch<RoverObserver.NotificationInteractionObserver>() {
+            @Override
+            public void dispatch(RoverObserver.NotificationInteractionObserver observer) {
+                observer.onNotificationDeleted(message);
             }
-        }
+        });
     }
 
     public static void didOpenMessage(final io.rover.model.Message message) {
@@ -1079,8 +1859,7 @@ public class Rover implements EventSubmitTask.Callback {
         protected void onHandleIntent(Intent intent) {
             LocationResult result = LocationResult.extractResult(intent);
             if (result != null) {
-                Event event = new LocationUpdateEvent(result.getLastLocation(), new Date());
-                mSharedInstance.sendEvent(event);
+                mSharedInstance.sendLocationUpdates(result.getLocations());
             }
         }
     }
@@ -1091,10 +1870,21 @@ public class Rover implements EventSubmitTask.Callback {
 
         @Override
         protected void onHandleIntent(Intent intent) {
+            if (!isInitialized()) {
+                warnNotInitialized("GeofenceTransitionService.onHandleIntent");
+                return;
+            }
+
             GeofencingEvent geofencingEvent = GeofencingEvent.fromIntent(intent);
 
             if (geofencingEvent.hasError()) {
                 Log.e("GeofenceService", "GeofencingEventError: " + geofencingEvent.getErrorCode());
+
+                // Location services were turned off and every geofence was removed
+                if (geofencingEvent.getErrorCode() == GeofenceStatusCodes.GEOFENCE_NOT_AVAILABLE) {
+                    mSharedInstance.mGeofenceRegistry.clear();
+                    mSharedInstance.mGeofenceRegistry.save(getApplicationContext());
+                }
                 return;
             }
 
@@ -1106,44 +1896,88 @@ public class Rover implements EventSubmitTask.Callback {
             List<Geofence> triggeringGeofences = geofencingEvent.getTriggeringGeofences();
 
             Date date = new Date();
+            GeofenceStateTable states = mSharedInstance.mGeofenceStates;
+
+            PlaceCache places = mSharedInstance.mPlaceCache;
 
             for (Geofence geofence: triggeringGeofences) {
+                if (!states.accept(geofence.getRequestId(), geofenceTransition, date.getTime())) {
+                    Log.d("GeofenceService", "Dropping repeated transition for " + geofence.getRequestId());
+                    continue;
+                }
+
+                // Observers hear about known places right away, the server response only reconciles
+                Place place = places.get(geofence.getRequestId());
+                if (place != null) {
+                    places.markDispatched(geofence.getRequestId(), geofenceTransition, date.getTime());
+                    mSharedInstance.dispatchGeofenceTransition(place, geofenceTransition);
+                }
+
                 Event event = new GeofenceTransitionEvent(geofence.getRequestId(), geofenceTransition, date);
                 mSharedInstance.sendEvent(event);
             }
+
+            mSharedInstance.mMetrics.add(RoverMetrics.GEOFENCE_TRANSITIONS_SUPPRESSED, states.takeSuppressedCount());
+            states.save(getApplicationContext());
+            places.expireDispatched(date.getTime());
+            places.save(getApplicationContext());
         }
     }
 
     static public class NearbyMessageService extends IntentService {
 
+        static final String ACTION_EXPIRE_TRANSITIONS = "io.rover.action.EXPIRE_BEACON_TRANSITIONS";
+
         public NearbyMessageService() { super("NearbyMessageService"); }
 
         @Override
         protected void onHandleIntent(Intent intent) {
-            Nearby.Messages.handleIntent(intent, new MessageListener() {
-                @Override
-                public void onFound(Message message) {
-                    handleMessage(BeaconTransitionEvent.TRANSITION_ENTER, message);
-                }
+            // Pending exits are persisted and come due on the first delivery after setup
+            if (!isInitialized()) {
+                warnNotInitialized("NearbyMessageService.onHandleIntent");
+                return;
+            }
 
-                @Override
-                public void onLost(Message message) {
-                    handleMessage(BeaconTransitionEvent.TRANSITION_EXIT, message);
-                }
+            final BeaconDebouncer debouncer = mSharedInstance.mBeaconDebouncer;
+            final long now = System.currentTimeMillis();
+
+            // Exits that came due are reported before anything found again in this delivery
+            final List<BeaconDebouncer.Transition> transitions = debouncer.expire(now);
 
-                private void handleMessage(int transition, Message message) {
-                    String type = message.getType();
-                    if (!type.equals("rover-configuration-id")){
-                        return;
+            if (intent != null && !ACTION_EXPIRE_TRANSITIONS.equals(intent.getAction())) {
+                Nearby.Messages.handleIntent(intent, new MessageListener() {
+                    @Override
+                    public void onFound(Message message) {
+                        String id = getConfigurationId(message);
+                        if (id != null) {
+                            BeaconDebouncer.Transition transition = debouncer.onFound(id, now);
+                            if (transition != null) {
+                                transitions.add(transition);
+                            }
+                        }
                     }
 
-                    String messageString = new String(message.getContent());
+                    @Override
+                    public void onLost(Message message) {
+                        String id = getConfigurationId(message);
+                        if (id != null) {
+                            debouncer.onLost(id, now);
+                        }
+                    }
 
-                    Log.i("NearbyMessage", "Message namespaced type: " + message.getNamespace() + "/" + message.getType());
-                    Event event = new BeaconTransitionEvent(transition, messageString, new Date());
-                    mSharedInstance.sendEvent(event);
-                }
-            });
+                    private String getConfigurationId(Message message) {
+                        String type = message.getType();
+                        if (!type.equals("rover-configuration-id")){
+                            return null;
+                        }
+
+                        Log.i("NearbyMessage", "Message namespaced type: " + message.getNamespace() + "/" + message.getType());
+                        return new String(message.getContent());
+                    }
+                });
+            }
+
+            mSharedInstance.sendBeaconTransitions(transitions);
         }
     }
 
@@ -7,6 +7,15 @@ import android.app.Activity;
  */
 public class RoverConfig {
 
+    // Event lanes, highest priority first
+    public static final int LANE_TRANSITIONS = 0;
+    public static final int LANE_ACTIONS = 1;
+    public static final int LANE_TELEMETRY = 2;
+
+    // What a full lane does with a new event
+    public static final int DROP_OLDEST = 0;
+    public static final int DROP_NEWEST = 1;
+
     public static class Builder {
 
         private String mAppToken;
@@ -16,6 +25,24 @@ public class RoverConfig {
         // Rover will attempt to use 1/10th of available memory for caching images
         private int mImageCacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024) / 10;
 
+        private int mEventBatchSize = 20;
+        private long mEventFlushInterval = 30000;
+        private long mMaxEventDeferral = 60 * 60 * 1000;
+        private int mMaxDeferredEvents = 500;
+        private float mLocationMinDisplacement = 50;
+        private long mLocationMinInterval = 60000;
+        private float mLocationMaxAccuracy = 1000;
+        private int[] mLaneCapacities = { 1000, 1000, 500 };
+        private int[] mLaneDropPolicies = { DROP_OLDEST, DROP_OLDEST, DROP_OLDEST };
+        private long mAdvertisingIdRefreshInterval = 60 * 60 * 1000;
+        private int mMaxRegisteredGeofences = 100;
+        private long mBeaconExitDelay = 30000;
+        private long mBeaconMinDwell = 30000;
+        private long mGeofenceMinTransitionInterval = 60000;
+        private int mMaxConcurrentRequests = 4;
+        private boolean mPreconnect = false;
+        private boolean mCompressRequests = false;
+
         public Builder() {}
 
         public Builder setApplicationToken(String token) {
@@ -38,9 +65,129 @@ public class RoverConfig {
             return this;
         }
 
+        /*
+            Queued events are sent together once this many are waiting
+         */
+        public Builder setEventBatchSize(int size) {
+            mEventBatchSize = size;
+            return this;
+        }
+
+        /*
+            The longest an event waits for a batch to fill before it is sent
+         */
+        public Builder setEventFlushInterval(long milliseconds) {
+            mEventFlushInterval = milliseconds;
+            return this;
+        }
+
+        /*
+            Telemetry waits for an unmetered network, a charger or an active radio for at most this
+            long. Transition events are always sent immediately and user actions within the flush
+            interval. 0 sends every event right away
+         */
+        public Builder setMaxEventDeferral(long milliseconds) {
+            mMaxEventDeferral = milliseconds;
+            return this;
+        }
+
+        /*
+            Deferred events are sent regardless of the constraints once this many are waiting
+         */
+        public Builder setMaxDeferredEvents(int count) {
+            mMaxDeferredEvents = count;
+            return this;
+        }
+
+        /*
+            Location updates are only sent when the device moved at least minDisplacement meters and
+            minInterval milliseconds passed since the last one sent. Updates less accurate than
+            maxAccuracy meters are ignored. Pass 0 to disable any of the thresholds
+         */
+        public Builder setLocationFilter(float minDisplacement, long minInterval, float maxAccuracy) {
+            mLocationMinDisplacement = minDisplacement;
+            mLocationMinInterval = minInterval;
+            mLocationMaxAccuracy = maxAccuracy;
+            return this;
+        }
+
+        /*
+            Bounds the number of events waiting in a lane. Once full the lane drops either its oldest
+            event or the new one
+         */
+        public Builder setEventLaneLimit(int lane, int capacity, int dropPolicy) {
+            mLaneCapacities[lane] = capacity;
+            mLaneDropPolicies[lane] = dropPolicy;
+            return this;
+        }
+
+        /*
+            How often the advertising id is looked up again to pick up a reset id or a change to
+            limit ad tracking
+         */
+        public Builder setAdvertisingIdRefreshInterval(long milliseconds) {
+            mAdvertisingIdRefreshInterval = milliseconds;
+            return this;
+        }
+
+        /*
+            Only this many of the geofence regions nearest to the device are registered at a time.
+            Play Services allows at most 100 per app
+         */
+        public Builder setMaxRegisteredGeofences(int count) {
+            mMaxRegisteredGeofences = count;
+            return this;
+        }
+
+        /*
+            A lost beacon is only reported as an exit once it stayed lost for exitDelay and the device
+            was inside for at least minDwell. A beacon found again before then reports nothing
+         */
+        public Builder setBeaconDebounce(long exitDelay, long minDwell) {
+            mBeaconExitDelay = exitDelay;
+            mBeaconMinDwell = minDwell;
+            return this;
+        }
+
+        /*
+            Geofence transitions repeating the last one reported for a region are always dropped.
+            Transitions sooner than this after the last one for the same region are dropped as well
+         */
+        public Builder setGeofenceMinTransitionInterval(long milliseconds) {
+            mGeofenceMinTransitionInterval = milliseconds;
+            return this;
+        }
+
+        /*
+            Inbox, message and experience requests run in parallel up to this many at a time.
+            Requests for the same message always run in order
+         */
+        public Builder setMaxConcurrentRequests(int count) {
+            mMaxConcurrentRequests = count;
+            return this;
+        }
+
+        /*
+            Opens a connection to the Rover API in the background during setup so the first request
+            does not wait for DNS, TCP and TLS. Skipped on metered networks and when power is low
+         */
+        public Builder setPreconnectEnabled(boolean enabled) {
+            mPreconnect = enabled;
+            return this;
+        }
+
+        /*
+            Gzips event batches before uploading them. Only enable this when every server and proxy
+            between the app and the Rover API accepts Content-Encoding: gzip
+         */
+        public Builder setCompressRequests(boolean enabled) {
+            mCompressRequests = enabled;
+            return this;
+        }
+
         public RoverConfig build() {
 
-            return new RoverConfig(mAppToken, mNotificationProvider, mExperienceActivity, mImageCacheSize);
+            return new RoverConfig(this);
         }
     }
 
@@ -48,12 +195,46 @@ public class RoverConfig {
     NotificationProvider mNotificationProvider;
     Class mExperienceActivity;
     int mImageCacheSize;
+    int mEventBatchSize;
+    long mEventFlushInterval;
+    long mMaxEventDeferral;
+    int mMaxDeferredEvents;
+    float mLocationMinDisplacement;
+    long mLocationMinInterval;
+    float mLocationMaxAccuracy;
+    int[] mLaneCapacities;
+    int[] mLaneDropPolicies;
+    long mAdvertisingIdRefreshInterval;
+    int mMaxRegisteredGeofences;
+    long mBeaconExitDelay;
+    long mBeaconMinDwell;
+    long mGeofenceMinTransitionInterval;
+    int mMaxConcurrentRequests;
+    boolean mPreconnect;
+    boolean mCompressRequests;
 
-    private RoverConfig(String appToken, NotificationProvider notificationProvider, Class<? extends ExperienceActivity> klass, int imageCacheSize) {
-        mAppToken = appToken;
-        mNotificationProvider = notificationProvider;
-        mExperienceActivity = klass;
-        mImageCacheSize = imageCacheSize;
+    private RoverConfig(Builder builder) {
+        mAppToken = builder.mAppToken;
+        mNotificationProvider = builder.mNotificationProvider;
+        mExperienceActivity = builder.mExperienceActivity;
+        mImageCacheSize = builder.mImageCacheSize;
+        mEventBatchSize = builder.mEventBatchSize;
+        mEventFlushInterval = builder.mEventFlushInterval;
+        mMaxEventDeferral = builder.mMaxEventDeferral;
+        mMaxDeferredEvents = builder.mMaxDeferredEvents;
+        mLocationMinDisplacement = builder.mLocationMinDisplacement;
+        mLocationMinInterval = builder.mLocationMinInterval;
+        mLocationMaxAccuracy = builder.mLocationMaxAccuracy;
+        mLaneCapacities = builder.mLaneCapacities.clone();
+        mLaneDropPolicies = builder.mLaneDropPolicies.clone();
+        mAdvertisingIdRefreshInterval = builder.mAdvertisingIdRefreshInterval;
+        mMaxRegisteredGeofences = Math.max(1, Math.min(100, builder.mMaxRegisteredGeofences));
+        mBeaconExitDelay = builder.mBeaconExitDelay;
+        mBeaconMinDwell = builder.mBeaconMinDwell;
+        mGeofenceMinTransitionInterval = builder.mGeofenceMinTransitionInterval;
+        mMaxConcurrentRequests = Math.max(1, builder.mMaxConcurrentRequests);
+        mPreconnect = builder.mPreconnect;
+        mCompressRequests = builder.mCompressRequests;
     }
 
     public int getImageCacheSize() {
@@ -0,0 +1,114 @@
+package io.rover;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Named counters describing what the SDK did in this process. Read them with Rover.getMetrics()
+ */
+public class RoverMetrics {
+
+    public static final String LOCATION_POINTS_RECEIVED = "location.points.received";
+    public static final String LOCATION_POINTS_DROPPED = "location.points.dropped";
+
+    /*
+        Conditional requests answered with 304, and those whose model was reused without parsing
+     */
+    public static final String HTTP_NOT_MODIFIED = "http.not-modified";
+    public static final String HTTP_MODELS_REUSED = "http.models-reused";
+
+    /*
+        Pre-connects made at setup, skipped on a metered network or low power, and failed. The first
+        request to each host counts as warm when it could reuse the pre-connected socket, cold otherwise
+     */
+    public static final String HTTP_PRECONNECTS = "http.preconnects";
+    public static final String HTTP_PRECONNECTS_SKIPPED = "http.preconnects-skipped";
+    public static final String HTTP_PRECONNECTS_FAILED = "http.preconnects-failed";
+    public static final String HTTP_FIRST_REQUESTS_WARM = "http.first-requests-warm";
+    public static final String HTTP_FIRST_REQUESTS_COLD = "http.first-requests-cold";
+
+    /*
+        Inbox changes queued in the outbox, dropped because a later change to the same message
+        replaced them, sent, and rejected by the server. Outbox depth is the current number pending
+     */
+    public static final String INBOX_MUTATIONS_QUEUED = "inbox.mutations-queued";
+    public static final String INBOX_MUTATIONS_COLLAPSED = "inbox.mutations-collapsed";
+    public static final String INBOX_MUTATIONS_SENT = "inbox.mutations-sent";
+    public static final String INBOX_MUTATIONS_REJECTED = "inbox.mutations-rejected";
+    public static final String INBOX_OUTBOX_DEPTH = "inbox.outbox-depth";
+
+    // Nearby callbacks dropped as duplicates or as an exit and enter from a flapping beacon
+    public static final String BEACON_TRANSITIONS_SUPPRESSED = "beacons.transitions-suppressed";
+
+    // Geofence transitions dropped as repeats of a region's last transition or as too frequent
+    public static final String GEOFENCE_TRANSITIONS_SUPPRESSED = "geofences.transitions-suppressed";
+
+    /*
+        Operations run on the shared Play Services connection, the connects they needed and the
+        ones avoided by reusing a client that was still connected
+     */
+    public static final String GOOGLE_API_OPERATIONS = "google-api.operations";
+    public static final String GOOGLE_API_CONNECTS = "google-api.connects";
+    public static final String GOOGLE_API_CONNECTS_AVOIDED = "google-api.connects-avoided";
+
+    /*
+        Event lane metrics are named events.<lane>.<metric> where lane is transitions, actions or telemetry.
+        Depth and last wait are current values, the others are totals. Average wait is wait / submitted
+     */
+    public static final String EVENT_LANE_DEPTH = "depth";
+    public static final String EVENT_LANE_SUBMITTED = "submitted";
+    public static final String EVENT_LANE_DROPPED = "dropped";
+    public static final String EVENT_LANE_WAIT = "wait";
+    public static final String EVENT_LANE_LAST_WAIT = "last-wait";
+
+    private final ConcurrentHashMap<String, AtomicLong> mCounters = new ConcurrentHashMap<>();
+
+    RoverMetrics() {}
+
+    public long get(String name) {
+        AtomicLong counter = mCounters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public Map<String, Long> getAll() {
+        HashMap<String, Long> values = new HashMap<>();
+        for (Map.Entry<String, AtomicLong> entry : mCounters.entrySet()) {
+            values.put(entry.getKey(), entry.getValue().get());
+        }
+        return values;
+    }
+
+    public static String eventLaneMetric(String lane, String metric) {
+        return "events." + lane + "." + metric;
+    }
+
+    void increment(String name) {
+        add(name, 1);
+    }
+
+    void set(String name, long value) {
+        counter(name).set(value);
+    }
+
+    void add(String name, long delta) {
+        counter(name).addAndGet(delta);
+    }
+
+    private AtomicLong counter(String name) {
+        AtomicLong counter = mCounters.get(name);
+
+        if (counter == null) {
+            AtomicLong newCounter = new AtomicLong();
+            counter = mCounters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+
+        return counter;
+    }
+}
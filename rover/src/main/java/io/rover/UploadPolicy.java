@@ -0,0 +1,48 @@
+package io.rover;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Decides when deferred events may be uploaded. Events wait for an unmetered network, a charger or
+ * a radio that is already awake, but never longer than the maximum deferral or past a backlog cap.
+ */
+class UploadPolicy {
+
+    interface Conditions {
+        boolean isNetworkConnected();
+        boolean isUnmeteredNetwork();
+        boolean isCharging();
+        boolean isRadioActive();
+    }
+
+    private final long mMaxDeferral;
+    private final int mMaxDeferredEvents;
+
+    UploadPolicy(long maxDeferral, int maxDeferredEvents) {
+        mMaxDeferral = maxDeferral;
+        mMaxDeferredEvents = maxDeferredEvents;
+    }
+
+    /*
+        deferredSince is when the oldest waiting event was deferred, or 0 if nothing is waiting
+     */
+    boolean shouldUpload(Conditions conditions, int pendingCount, long deferredSince, long now) {
+        if (pendingCount == 0 || !conditions.isNetworkConnected()) {
+            return false;
+        }
+
+        if (mMaxDeferral <= 0 || pendingCount >= mMaxDeferredEvents) {
+            return true;
+        }
+
+        if (deferredSince > 0 && now - deferredSince >= mMaxDeferral) {
+            return true;
+        }
+
+        return conditions.isUnmeteredNetwork() || conditions.isCharging() || conditions.isRadioActive();
+    }
+
+    long getMaxDeferral() {
+        return mMaxDeferral;
+    }
+}
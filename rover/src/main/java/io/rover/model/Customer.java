@@ -11,6 +11,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by Rover Labs Inc on 2016-03-24.
@@ -27,6 +28,7 @@ public class Customer {
     private String mPhoneNumber;
     private String[] mTags;
     private Map<String, Object> mTraits;
+    private final AtomicInteger mVersion = new AtomicInteger();
 
     private static Customer mSharedCustomer;
     private static String SHARED_CUSTOMER = "ROVER_SHARED_CUSTOMER";
@@ -53,6 +55,12 @@ public class Customer {
         mTraits = null;
     }
 
+    /*
+        Incremented whenever the customer is saved or cleared so serialized copies can be reused until then
+     */
+    public int getVersion() { return mVersion.get(); }
+    public void notifyChanged() { mVersion.incrementAndGet(); }
+
     public String getIdentifier() { return mIdentifier; }
     public String getFirstName() { return mFirstName; }
     public String getLastName() { return mLastName; }
@@ -127,6 +135,8 @@ public class Customer {
             SharedPreferences.Editor editor = context.getSharedPreferences(SHARED_CUSTOMER, 0).edit();
             editor.clear();
             editor.apply();
+
+            notifyChanged();
         }
     }
 
@@ -163,6 +173,8 @@ public class Customer {
             }
 
             editor.apply();
+
+            notifyChanged();
         }
     }
 
@@ -14,6 +14,7 @@ import java.util.Locale;
 import java.util.MissingResourceException;
 import java.util.TimeZone;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.rover.Rover;
 
@@ -27,10 +28,11 @@ public class Device {
 
     private String mUDID;
     private String mGcmToken;
-    private String mAdvertisingId;
-    private boolean mAdTrackingEnabled;
-    private boolean mCheckedForAdTracking;
+    private volatile String mAdvertisingId;
+    private volatile boolean mAdTrackingEnabled;
+    private volatile boolean mCheckedForAdTracking;
     private boolean mGimbalMode;
+    private final AtomicInteger mVersion = new AtomicInteger();
 
     private Device() {
         mCheckedForAdTracking = false;
@@ -43,6 +45,18 @@ public class Device {
         return mInstance;
     }
 
+    /*
+        Incremented whenever a serialized attribute changes so serialized copies can be reused until then.
+        System state Rover is told about through broadcasts is reported with notifyChanged
+     */
+    public int getVersion() {
+        return mVersion.get();
+    }
+
+    public void notifyChanged() {
+        mVersion.incrementAndGet();
+    }
+
     public String getIdentifier(Context context) {
         if (mUDID != null) {
             return mUDID;
@@ -132,11 +146,16 @@ public class Device {
             }
         }
 
+        if (mGcmToken != null) {
+            notifyChanged();
+        }
+
         return mGcmToken;
     }
 
     public void setGcmToken(String token) {
        mGcmToken = token;
+       notifyChanged();
     }
 
     public void setCheckedForAdTracking(boolean checked) {
@@ -151,9 +170,21 @@ public class Device {
 
     public boolean hasCheckedForAdTracking() { return  mCheckedForAdTracking; }
 
-    public void setAdvertisingId(String id) { mAdvertisingId = id; }
+    public void setAdvertisingId(String id) {
+        if (id == null ? mAdvertisingId == null : id.equals(mAdvertisingId)) {
+            return;
+        }
+        mAdvertisingId = id;
+        notifyChanged();
+    }
 
-    public void setAdTrackingEnabled(boolean enabled) { mAdTrackingEnabled = enabled; }
+    public void setAdTrackingEnabled(boolean enabled) {
+        if (enabled == mAdTrackingEnabled) {
+            return;
+        }
+        mAdTrackingEnabled = enabled;
+        notifyChanged();
+    }
 
     public boolean getLocationMonitoringEnabled() {
         return true;
@@ -10,8 +10,7 @@ public class GeofenceRegion {
     private double mLatitude;
     private double mLongitude;
     private int mRadius;
-
-
+    private Place mPlace;
 
     public GeofenceRegion(String id, double latitude, double longitude, int radius) {
         mId = id;
@@ -51,4 +50,12 @@ public class GeofenceRegion {
     public void setRadius(int radius) {
         mRadius = radius;
     }
+
+    public Place getPlace() {
+        return mPlace;
+    }
+
+    public void setPlace(Place place) {
+        mPlace = place;
+    }
 }
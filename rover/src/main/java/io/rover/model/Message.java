@@ -80,6 +80,24 @@ public class Message implements Parcelable {
         mSavedToInbox = savedToInbox;
     }
 
+    /*
+        A copy that can be changed without changing the original, for example one shared with other
+        callers or kept with a cached response
+     */
+    public Message(Message message) {
+        mId = message.mId;
+        mTitle = message.mTitle;
+        mText = message.mText;
+        mTimestamp = message.mTimestamp;
+        mRead = message.mRead;
+        mAction = message.mAction;
+        mURI = message.mURI;
+        mLandingPage = message.mLandingPage;
+        mProperties = message.mProperties == null ? null : new HashMap<>(message.mProperties);
+        mExperienceId = message.mExperienceId;
+        mSavedToInbox = message.mSavedToInbox;
+    }
+
     public Message(Parcel in) {
         mId = in.readString();
         mTitle = in.readString();
@@ -0,0 +1,65 @@
+package io.rover.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Growable byte buffers that request bodies are encoded into, reused across requests so a large
+ * event batch does not allocate a new body every time. Buffers that grew past MAX_RETAINED_SIZE
+ * are left to the garbage collector rather than pinned by the pool.
+ */
+class BufferPool {
+
+    static final int MAX_POOLED = 4;
+    static final int MAX_RETAINED_SIZE = 1024 * 1024;
+    private static final int INITIAL_SIZE = 8 * 1024;
+
+    static class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(INITIAL_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        /*
+            Writes the contents without the copy toByteArray makes
+         */
+        @Override
+        public synchronized void writeTo(OutputStream out) throws IOException {
+            out.write(buf, 0, count);
+        }
+    }
+
+    private static final BufferPool sShared = new BufferPool();
+
+    private final ArrayDeque<Buffer> mBuffers = new ArrayDeque<>();
+
+    static BufferPool getShared() {
+        return sShared;
+    }
+
+    synchronized Buffer acquire() {
+        Buffer buffer = mBuffers.poll();
+        return buffer != null ? buffer : new Buffer();
+    }
+
+    synchronized void release(Buffer buffer) {
+        if (buffer.capacity() > MAX_RETAINED_SIZE || mBuffers.size() >= MAX_POOLED) {
+            return;
+        }
+
+        buffer.reset();
+        mBuffers.push(buffer);
+    }
+
+    synchronized int size() {
+        return mBuffers.size();
+    }
+}
@@ -0,0 +1,101 @@
+package io.rover.network;
+
+import java.util.Random;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Stops requests to a route after repeated failures. While open every request fails fast. Once the
+ * open period is over a single trial request is let through; success closes the breaker and failure
+ * opens it again for twice as long. Open periods are jittered so devices probe a recovering server
+ * at different times. A trial that never reports back, for example because its caller threw, stops
+ * holding the breaker after TRIAL_TIMEOUT.
+ */
+public class CircuitBreaker {
+
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+
+    // Longer than a request can take with the transport's connect and read timeouts
+    static final long TRIAL_TIMEOUT = 2 * 60 * 1000;
+
+    private final int mFailureThreshold;
+    private final long mOpenDuration;
+    private final long mMaxOpenDuration;
+    private final Random mRandom;
+
+    private int mState = CLOSED;
+    private int mFailures;
+    private long mCurrentOpenDuration;
+    private long mOpenUntil;
+    private long mTrialStartedAt;
+
+    public CircuitBreaker(int failureThreshold, long openDuration, long maxOpenDuration) {
+        this(failureThreshold, openDuration, maxOpenDuration, new Random());
+    }
+
+    CircuitBreaker(int failureThreshold, long openDuration, long maxOpenDuration, Random random) {
+        mFailureThreshold = Math.max(1, failureThreshold);
+        mOpenDuration = openDuration;
+        mMaxOpenDuration = maxOpenDuration;
+        mCurrentOpenDuration = openDuration;
+        mRandom = random;
+    }
+
+    public synchronized boolean allowRequest() {
+        switch (mState) {
+            case OPEN:
+                if (currentTime() < mOpenUntil) {
+                    return false;
+                }
+                mState = HALF_OPEN;
+                mTrialStartedAt = currentTime();
+                return true;
+            case HALF_OPEN:
+                // The trial request is still in flight, unless it was abandoned
+                if (currentTime() - mTrialStartedAt < TRIAL_TIMEOUT) {
+                    return false;
+                }
+                mTrialStartedAt = currentTime();
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        mState = CLOSED;
+        mFailures = 0;
+        mCurrentOpenDuration = mOpenDuration;
+    }
+
+    /*
+        retryAfter is the server's Retry-After in milliseconds or -1. A server that asks us to wait
+        opens the breaker right away
+     */
+    public synchronized void onFailure(long retryAfter) {
+        mFailures++;
+
+        if (mState == HALF_OPEN) {
+            mCurrentOpenDuration = Math.min(mCurrentOpenDuration * 2, mMaxOpenDuration);
+            open(retryAfter);
+        } else if (mFailures >= mFailureThreshold || retryAfter > 0) {
+            open(retryAfter);
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return mState != CLOSED;
+    }
+
+    long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    private void open(long retryAfter) {
+        long jitter = (long) (mRandom.nextDouble() * mCurrentOpenDuration / 2);
+        mState = OPEN;
+        mOpenUntil = currentTime() + Math.max(mCurrentOpenDuration + jitter, retryAfter);
+    }
+}
@@ -0,0 +1,238 @@
+package io.rover.network;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Minimal streaming JSON writer without indentation. Unlike android.util.JsonWriter it can splice
+ * an already encoded value into the output with rawValue, which lets serialized events be copied
+ * from the journal without parsing them again.
+ */
+public class CompactJsonWriter {
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final String[] REPLACEMENT_CHARS = new String[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+    }
+
+    private final Writer mOut;
+    private int[] mStack = new int[16];
+    private int mStackSize = 0;
+
+    public CompactJsonWriter(Writer out) {
+        mOut = out;
+        push(EMPTY_DOCUMENT);
+    }
+
+    public CompactJsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        mOut.write('{');
+        return this;
+    }
+
+    public CompactJsonWriter endObject() throws IOException {
+        int context = peek();
+        if (context != EMPTY_OBJECT && context != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        mStackSize--;
+        mOut.write('}');
+        return this;
+    }
+
+    public CompactJsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        mOut.write('[');
+        return this;
+    }
+
+    public CompactJsonWriter endArray() throws IOException {
+        int context = peek();
+        if (context != EMPTY_ARRAY && context != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("Nesting problem");
+        }
+        mStackSize--;
+        mOut.write(']');
+        return this;
+    }
+
+    public CompactJsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+
+        int context = peek();
+        if (context == NONEMPTY_OBJECT) {
+            mOut.write(',');
+        } else if (context != EMPTY_OBJECT) {
+            throw new IllegalStateException("Nesting problem");
+        }
+
+        replaceTop(DANGLING_NAME);
+        string(name);
+        mOut.write(':');
+        return this;
+    }
+
+    public CompactJsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    public CompactJsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        mOut.write(value ? "true" : "false");
+        return this;
+    }
+
+    public CompactJsonWriter value(long value) throws IOException {
+        beforeValue();
+        mOut.write(Long.toString(value));
+        return this;
+    }
+
+    public CompactJsonWriter value(double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+        beforeValue();
+        mOut.write(Double.toString(value));
+        return this;
+    }
+
+    public CompactJsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        String string = value.toString();
+        if (string.equals("NaN") || string.equals("Infinity") || string.equals("-Infinity")) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+
+        beforeValue();
+        mOut.write(string);
+        return this;
+    }
+
+    public CompactJsonWriter nullValue() throws IOException {
+        beforeValue();
+        mOut.write("null");
+        return this;
+    }
+
+    /*
+        Writes an already encoded JSON value as is. The caller is responsible for it being valid
+     */
+    public CompactJsonWriter rawValue(String json) throws IOException {
+        beforeValue();
+        mOut.write(json);
+        return this;
+    }
+
+    public void flush() throws IOException {
+        mOut.flush();
+    }
+
+    public void close() throws IOException {
+        mOut.close();
+    }
+
+    private void beforeValue() throws IOException {
+        switch (peek()) {
+            case EMPTY_DOCUMENT:
+                replaceTop(NONEMPTY_DOCUMENT);
+                break;
+            case EMPTY_ARRAY:
+                replaceTop(NONEMPTY_ARRAY);
+                break;
+            case NONEMPTY_ARRAY:
+                mOut.write(',');
+                break;
+            case DANGLING_NAME:
+                replaceTop(NONEMPTY_OBJECT);
+                break;
+            default:
+                throw new IllegalStateException("Nesting problem");
+        }
+    }
+
+    private void string(String value) throws IOException {
+        mOut.write('"');
+
+        int last = 0;
+        int length = value.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+
+            if (c < 128) {
+                replacement = REPLACEMENT_CHARS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+
+            if (last < i) {
+                mOut.write(value, last, i - last);
+            }
+            mOut.write(replacement);
+            last = i + 1;
+        }
+
+        if (last < length) {
+            mOut.write(value, last, length - last);
+        }
+
+        mOut.write('"');
+    }
+
+    private int peek() {
+        return mStack[mStackSize - 1];
+    }
+
+    private void push(int context) {
+        if (mStackSize == mStack.length) {
+            mStack = Arrays.copyOf(mStack, mStackSize * 2);
+        }
+        mStack[mStackSize++] = context;
+    }
+
+    private void replaceTop(int context) {
+        mStack[mStackSize - 1] = context;
+    }
+}
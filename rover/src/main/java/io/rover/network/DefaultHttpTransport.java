@@ -0,0 +1,179 @@
+package io.rover.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * HttpURLConnection with timeouts and keep-alive. The platform pools idle connections per origin
+ * and reuses one only after its response was read to the end, so connections are drained rather
+ * than dropped. The pool size is raised unless the app already chose one.
+ *
+ * The first request to each origin is reported to the listener as warm when it follows a
+ * pre-connect that finished recently enough for its connection to still be pooled.
+ */
+public class DefaultHttpTransport implements HttpTransport {
+
+    private static final String TAG = "HttpTransport";
+
+    public static final int DEFAULT_CONNECT_TIMEOUT = 15 * 1000;
+    public static final int DEFAULT_READ_TIMEOUT = 30 * 1000;
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 8;
+
+    // How long the platform keeps an idle connection in its pool
+    private static final long POOLED_CONNECTION_LIFETIME = 5 * 60 * 1000;
+
+    public interface Listener {
+        void onPreconnect(URL origin, boolean connected);
+
+        void onFirstRequest(URL url, boolean warm);
+    }
+
+    private final int mConnectTimeout;
+    private final int mReadTimeout;
+
+    // Pre-connects run one at a time off the caller's thread
+    private final ExecutorService mPreconnectExecutor = Executors.newSingleThreadExecutor();
+
+    // When each origin's pre-connect finished, and the origins a request has been made to
+    private final HashMap<String, Long> mPreconnectedAt = new HashMap<>();
+    private final HashSet<String> mRequestedOrigins = new HashSet<>();
+
+    private volatile Listener mListener;
+
+    public DefaultHttpTransport() {
+        this(DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT, DEFAULT_MAX_IDLE_CONNECTIONS);
+    }
+
+    public DefaultHttpTransport(int connectTimeout, int readTimeout, int maxIdleConnections) {
+        mConnectTimeout = connectTimeout;
+        mReadTimeout = readTimeout;
+
+        // These are process wide, so an app's own choice wins
+        if (System.getProperty("http.keepAlive") == null) {
+            System.setProperty("http.keepAlive", "true");
+        }
+
+        if (System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(maxIdleConnections));
+        }
+    }
+
+    public void setListener(Listener listener) {
+        mListener = listener;
+    }
+
+    @Override
+    public HttpURLConnection openConnection(URL url) throws IOException {
+        onRequest(url);
+        return open(url);
+    }
+
+    private HttpURLConnection open(URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(mConnectTimeout);
+        connection.setReadTimeout(mReadTimeout);
+        return connection;
+    }
+
+    /*
+        Sends a HEAD request to the origin and drains it, leaving the socket and TLS session in the pool
+     */
+    @Override
+    public void preconnect(final URL url) {
+        mPreconnectExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                HttpURLConnection connection = null;
+                boolean connected = false;
+                URL origin = null;
+                try {
+                    origin = new URL(url.getProtocol(), url.getHost(), url.getPort(), "/");
+                    connection = open(origin);
+                    connection.setRequestMethod("HEAD");
+                    connection.getResponseCode();
+                    drain(connection);
+                    connected = true;
+                } catch (IOException e) {
+                    Log.d(TAG, "Pre-connect to " + url.getHost() + " failed: " + e.getMessage());
+                    if (connection != null) {
+                        connection.disconnect();
+                    }
+                }
+
+                if (connected) {
+                    synchronized (mPreconnectedAt) {
+                        mPreconnectedAt.put(originKey(url), System.currentTimeMillis());
+                    }
+                }
+
+                Listener listener = mListener;
+                if (listener != null) {
+                    listener.onPreconnect(origin != null ? origin : url, connected);
+                }
+            }
+        });
+    }
+
+    /*
+        A pre-connect still running when the first request is made does not count, the request
+        opens its own connection
+     */
+    private void onRequest(URL url) {
+        String origin = originKey(url);
+        boolean warm;
+
+        synchronized (mPreconnectedAt) {
+            if (!mRequestedOrigins.add(origin)) {
+                return;
+            }
+
+            Long preconnectedAt = mPreconnectedAt.remove(origin);
+            warm = preconnectedAt != null
+                    && System.currentTimeMillis() - preconnectedAt < POOLED_CONNECTION_LIFETIME;
+        }
+
+        Listener listener = mListener;
+        if (listener != null) {
+            listener.onFirstRequest(url, warm);
+        }
+    }
+
+    private static String originKey(URL url) {
+        int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+        return url.getProtocol() + "://" + url.getHost().toLowerCase() + ":" + port;
+    }
+
+    /*
+        Reads whatever is left of the response so the connection goes back to the pool
+     */
+    static void drain(HttpURLConnection connection) {
+        InputStream is = null;
+        try {
+            is = connection.getResponseCode() >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (is != null) {
+                byte[] buffer = new byte[1024];
+                while (is.read(buffer) != -1) {
+                    // Discard
+                }
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
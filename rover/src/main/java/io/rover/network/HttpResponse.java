@@ -2,6 +2,9 @@ package io.rover.network;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Rover Labs Inc on 2016-11-25.
@@ -11,6 +14,9 @@ public class HttpResponse {
 
     private InputStreamReader mBody;
     private int mStatus = 0;
+    private Map<String, List<String>> mHeaders = Collections.emptyMap();
+    private boolean mNotModified;
+    private Object mCachedModel;
 
     public HttpResponse() {
 
@@ -24,8 +30,35 @@ public class HttpResponse {
         return mStatus;
     }
 
+    /*
+        Returns the first value of the header, matching the name case insensitively
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> entry : mHeaders.entrySet()) {
+            if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(name)) {
+                List<String> values = entry.getValue();
+                return values == null || values.isEmpty() ? null : values.get(0);
+            }
+        }
+        return null;
+    }
+
+    /*
+        A 304 answered from the validator store counts as successful since its body is the stored one
+     */
     public boolean isSuccessful() {
-        return mStatus >= 200 && mStatus < 300;
+        return (mStatus >= 200 && mStatus < 300) || mNotModified;
+    }
+
+    public boolean isNotModified() {
+        return mNotModified;
+    }
+
+    /*
+        The model parsed from the stored body by an earlier request, if it is still in memory
+     */
+    public Object getCachedModel() {
+        return mCachedModel;
     }
 
     public void setBody(InputStreamReader body) {
@@ -36,6 +69,18 @@ public class HttpResponse {
         this.mStatus = status;
     }
 
+    public void setNotModified(boolean notModified) {
+        mNotModified = notModified;
+    }
+
+    public void setCachedModel(Object cachedModel) {
+        mCachedModel = cachedModel;
+    }
+
+    public void setHeaders(Map<String, List<String>> headers) {
+        this.mHeaders = headers != null ? headers : Collections.<String, List<String>>emptyMap();
+    }
+
     public void close() {
         if (mBody != null) {
             try {
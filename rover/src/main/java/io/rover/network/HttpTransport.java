@@ -0,0 +1,26 @@
+package io.rover.network;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Opens the connections used by every request the SDK makes, so socket reuse, timeouts and the
+ * client itself are controlled in one place. Set a different transport with
+ * NetworkTask.setDefaultTransport, for example to serve responses from memory in tests.
+ */
+public interface HttpTransport {
+
+    /*
+        Returns an unconnected connection for the url. Callers configure it and connect
+     */
+    HttpURLConnection openConnection(URL url) throws IOException;
+
+    /*
+        Opens a connection to the url's origin ahead of the first request so it can be reused.
+        Does nothing if the transport does not pool connections
+     */
+    void preconnect(URL url);
+}
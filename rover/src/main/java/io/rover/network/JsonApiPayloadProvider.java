@@ -36,7 +36,6 @@ public class JsonApiPayloadProvider implements NetworkTask.PayloadProvider {
     @Override
     public void onProvidePayload(OutputStreamWriter writer) throws IOException {
         JsonWriter jsonWriter = new JsonWriter(writer);
-        jsonWriter.setIndent("  ");
 
         jsonWriter.beginObject();
         {
@@ -4,6 +4,8 @@ import android.support.annotation.Nullable;
 import android.util.Log;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -11,6 +13,9 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Created by Rover Labs Inc on 2016-03-23.
@@ -35,6 +40,9 @@ public class NetworkTask {
         void onPrepareConnection(HttpURLConnection connection);
     }
 
+    private static volatile long sLastRequestTime;
+    private static volatile HttpTransport sDefaultTransport;
+
     private URL mURL;
     private String mMethod;
 
@@ -47,6 +55,18 @@ public class NetworkTask {
     private PayloadProvider mPayloadProvider;
     private NetworkTaskConnectionManager mConnectionManager;
 
+    private boolean mGzipRequest;
+    private boolean mGzipResponse;
+
+    private RetryPolicy mRetryPolicy;
+    private CircuitBreaker mCircuitBreaker;
+    private String mIdempotencyKey;
+    private HttpTransport mTransport;
+
+    private ValidatorStore mValidatorStore;
+    private String mValidatorKey;
+    private ValidatorStore.Entry mValidatedEntry;
+
     public NetworkTask(String method, URL url) {
         mMethod = method;
         mURL = url;
@@ -61,6 +81,99 @@ public class NetworkTask {
         mConnectionManager = manager;
     }
 
+    /*
+        Compresses the request body with gzip. Only enable this for routes whose server accepts
+        Content-Encoding: gzip
+     */
+    public void setGzipRequest(boolean gzipRequest) {
+        mGzipRequest = gzipRequest;
+    }
+
+    /*
+        Asks for a gzip response and decompresses it when the server sends one
+     */
+    public void setGzipResponse(boolean gzipResponse) {
+        mGzipResponse = gzipResponse;
+    }
+
+    /*
+        Repeats requests that fail with a network error or a retryable status. Without a policy the
+        request is attempted once
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        mRetryPolicy = retryPolicy;
+    }
+
+    /*
+        Shared by every task for the same route. Requests fail fast while it is open
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        mCircuitBreaker = circuitBreaker;
+    }
+
+    /*
+        Sent as Idempotency-Key so the server can discard a repeated request it already processed.
+        A POST that may be retried gets a random key when none is set
+     */
+    public void setIdempotencyKey(String idempotencyKey) {
+        mIdempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return mIdempotencyKey;
+    }
+
+    /*
+        Used by every task that has no transport of its own, and by image downloads
+     */
+    public static void setDefaultTransport(HttpTransport transport) {
+        sDefaultTransport = transport;
+    }
+
+    public static HttpTransport getDefaultTransport() {
+        HttpTransport transport = sDefaultTransport;
+
+        if (transport == null) {
+            synchronized (NetworkTask.class) {
+                if (sDefaultTransport == null) {
+                    sDefaultTransport = new DefaultHttpTransport();
+                }
+                transport = sDefaultTransport;
+            }
+        }
+
+        return transport;
+    }
+
+    public void setTransport(HttpTransport transport) {
+        mTransport = transport;
+    }
+
+    /*
+        Requests the route conditionally with the validators stored under the key. A 304 is
+        answered with the stored body and the model parsed from it, if any
+     */
+    public void setValidatorStore(ValidatorStore store, String key) {
+        mValidatorStore = store;
+        mValidatorKey = key;
+    }
+
+    /*
+        Keeps the model parsed from this task's response so a later 304 can return it without parsing
+     */
+    public void setParsedModel(Object model) {
+        if (mValidatedEntry != null) {
+            mValidatedEntry.setModel(model);
+        }
+    }
+
+    /*
+        The time of the most recent request made by any task. Used to tell whether the radio is awake
+     */
+    public static long getLastRequestTime() {
+        return sLastRequestTime;
+    }
+
     public boolean hasTaskFailed() {
         return mTaskFailed;
     }
@@ -71,36 +184,181 @@ public class NetworkTask {
 
     @Nullable
     public HttpResponse run() {
+        if (mIdempotencyKey == null && mRetryPolicy != null && "POST".equals(mMethod)) {
+            mIdempotencyKey = UUID.randomUUID().toString();
+        }
+
+        int attempt = 0;
+
+        while (true) {
+            if (mCircuitBreaker != null && !mCircuitBreaker.allowRequest()) {
+                mTaskFailed = true;
+                mTaskFailureMessage = "Circuit open for " + mURL;
+                Log.w("NetworkTask", mTaskFailureMessage);
+                return null;
+            }
+
+            // The breaker always hears about the attempt, or a trial request that threw would hold it half open
+            HttpResponse response = null;
+            boolean attempted = false;
+            try {
+                response = runWithFallback();
+                attempted = true;
+            } finally {
+                if (!attempted && mCircuitBreaker != null) {
+                    mCircuitBreaker.onFailure(-1);
+                }
+            }
+            attempt++;
+
+            boolean retryable = RetryPolicy.isRetryable(response);
+            long retryAfter = response != null
+                    ? RetryPolicy.parseRetryAfter(response.getHeader("Retry-After"), System.currentTimeMillis())
+                    : -1;
+
+            if (mCircuitBreaker != null) {
+                if (retryable) {
+                    mCircuitBreaker.onFailure(retryAfter);
+                } else {
+                    mCircuitBreaker.onSuccess();
+                }
+            }
+
+            if (!retryable || mRetryPolicy == null || attempt >= mRetryPolicy.getMaxAttempts()) {
+                return response;
+            }
+
+            // Waiting longer than the policy allows is left to the caller's next attempt
+            long delay = mRetryPolicy.getDelay(attempt, retryAfter);
+            if (delay > mRetryPolicy.getMaxDelay()) {
+                return response;
+            }
+
+            if (response != null) {
+                response.close();
+            }
+
+            Log.w("NetworkTask", "Request failed, retrying in " + delay + "ms");
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+    }
+
+    @Nullable
+    private HttpResponse runWithFallback() {
+        HttpResponse response = run(mGzipRequest);
+
+        /*
+            A server that does not understand compressed bodies rejects them as an unsupported media
+            type, and a proxy that passes them on undecoded gets a 400 or 422 for the garbled body.
+            Any client error to a compressed body other than a timeout or throttling gets the payload
+            sent again uncompressed, so a rejection is never caused by the encoding alone
+         */
+        if (mGzipRequest && mPayloadProvider != null && response != null
+                && response.getStatus() >= 400 && response.getStatus() < 500
+                && !RetryPolicy.isRetryable(response)) {
+            Log.w("NetworkTask", "Compressed body rejected, retrying uncompressed");
+            response.close();
+            response = run(false);
+        }
+
+        return response;
+    }
+
+    @Nullable
+    private HttpResponse run(boolean gzipRequest) {
 
         InputStream is = null;
         HttpResponse response = null;
 
         HttpURLConnection connection = null;
 
+        mTaskFailed = false;
+        mTaskFailureMessage = null;
+
         try {
 
             Log.i("NetworkTask", "Connection to: " + mMethod + " " + mURL.toString());
 
-            connection = (HttpURLConnection)mURL.openConnection();
-            connection.setUseCaches(true);
+            sLastRequestTime = System.currentTimeMillis();
+
+            connection = (mTransport != null ? mTransport : getDefaultTransport()).openConnection(mURL);
             connection.setRequestMethod(mMethod);
             //connection.setRequestProperty("Content-Type", "application/json");
 
+            ValidatorStore.Entry validators = null;
+
+            if (mValidatorStore != null) {
+                // The platform cache would answer the 304 itself and hide it from us
+                connection.setUseCaches(false);
+
+                validators = mValidatorStore.get(mValidatorKey);
+                if (validators != null) {
+                    if (validators.getETag() != null) {
+                        connection.setRequestProperty("If-None-Match", validators.getETag());
+                    }
+                    if (validators.getLastModified() != null) {
+                        connection.setRequestProperty("If-Modified-Since", validators.getLastModified());
+                    }
+                }
+            } else {
+                connection.setUseCaches(true);
+            }
+
             if (mConnectionManager != null) {
                 mConnectionManager.onPrepareConnection(connection);
             }
 
+            if (mIdempotencyKey != null) {
+                connection.setRequestProperty("Idempotency-Key", mIdempotencyKey);
+            }
+
+            // Setting Accept-Encoding ourselves turns off the platform's transparent decompression
+            if (mGzipResponse) {
+                connection.setRequestProperty("Accept-Encoding", "gzip");
+            }
+
             connection.setDoInput(true);
 
             if (mPayloadProvider != null) {
 
                 mPayloadProvider.onPrepareConnection(connection);
 
+                if (gzipRequest) {
+                    connection.setRequestProperty("Content-Encoding", "gzip");
+                }
+
                 connection.setDoOutput(true);
 
+                /*
+                    The body is encoded once into a pooled buffer so its length is known up front.
+                    Fixed length streaming then writes it straight to the socket instead of the
+                    connection buffering a second copy
+                 */
+                BufferPool.Buffer buffer = BufferPool.getShared().acquire();
+
+                try {
+                    OutputStream bufferStream = gzipRequest ? new GZIPOutputStream(buffer) : buffer;
+
+                    OutputStreamWriter writer = new OutputStreamWriter(bufferStream, "UTF-8");
+                    mPayloadProvider.onProvidePayload(writer);
+
+                    // Closing finishes the gzip trailer. Providers may already have closed the writer
+                    writer.close();
 
-                OutputStream outputStream = connection.getOutputStream();
-                mPayloadProvider.onProvidePayload(new OutputStreamWriter(outputStream));
+                    connection.setFixedLengthStreamingMode(buffer.size());
+
+                    OutputStream outputStream = connection.getOutputStream();
+                    buffer.writeTo(outputStream);
+                    outputStream.close();
+                } finally {
+                    BufferPool.getShared().release(buffer);
+                }
 
 
 //                JsonWriter writer = new JsonWriter(new OutputStreamWriter(connection.getOutputStream()));
@@ -115,12 +373,29 @@ public class NetworkTask {
 
             response = new HttpResponse();
             response.setStatus(connection.getResponseCode());
-
-            try {
-                is = connection.getInputStream();
-                response.setBody(new InputStreamReader(is, "UTF-8"));
-            } catch (Exception e) {
-                Log.w("NetworkTask", "Failed to get input stream");
+            response.setHeaders(connection.getHeaderFields());
+
+            if (validators != null && response.getStatus() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                mValidatedEntry = validators;
+                response.setNotModified(true);
+                response.setCachedModel(validators.getModel());
+                response.setBody(new InputStreamReader(new ByteArrayInputStream(validators.getBody()), "UTF-8"));
+            } else {
+                try {
+                    is = decodedStream(connection, connection.getInputStream());
+
+                    if (mValidatorStore != null && response.isSuccessful()) {
+                        byte[] body = readFully(is);
+                        is.close();
+                        mValidatedEntry = mValidatorStore.put(mValidatorKey,
+                                response.getHeader("ETag"), response.getHeader("Last-Modified"), body);
+                        is = new ByteArrayInputStream(body);
+                    }
+
+                    response.setBody(new InputStreamReader(is, "UTF-8"));
+                } catch (Exception e) {
+                    Log.w("NetworkTask", "Failed to get input stream");
+                }
             }
 
             Log.i("NetworkTask", "HTTP Status: " + response.getStatus());
@@ -129,6 +404,11 @@ public class NetworkTask {
 
             if (connection != null) {
                 is = connection.getErrorStream();
+
+                try {
+                    is = decodedStream(connection, is);
+                } catch (IOException ignored) {
+                }
             }
 
             mTaskFailed = true;
@@ -149,6 +429,23 @@ public class NetworkTask {
         return response;
     }
 
+    private static InputStream decodedStream(HttpURLConnection connection, InputStream is) throws IOException {
+        if (is != null && "gzip".equalsIgnoreCase(connection.getContentEncoding())) {
+            return new GZIPInputStream(is);
+        }
+        return is;
+    }
+
+    private static byte[] readFully(InputStream is) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = is.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
     private static String getStringFromInputStream(InputStream is) {
 
         BufferedReader br = null;
@@ -0,0 +1,125 @@
+package io.rover.network;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Runs requests with at most a fixed number in flight. Requests sharing an ordering key, such as
+ * the id of the message they change, run one at a time in the order they were submitted, while
+ * requests with different keys or no key run in parallel. A request waiting on its key does not
+ * take a slot from the window. Threads are started on demand and stop once idle.
+ */
+public class RequestDispatcher {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private final ThreadPoolExecutor mExecutor;
+
+    // Requests waiting behind the running request of their key. A key is present while one runs
+    private final HashMap<String, ArrayDeque<Runnable>> mWaiting = new HashMap<>();
+
+    public RequestDispatcher(int maxConcurrentRequests) {
+        int window = Math.max(1, maxConcurrentRequests);
+
+        mExecutor = new ThreadPoolExecutor(window, window, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger mCount = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return new Thread(runnable, "Rover Request #" + mCount.incrementAndGet());
+            }
+        });
+        mExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    public int getMaxConcurrentRequests() {
+        return mExecutor.getMaximumPoolSize();
+    }
+
+    /*
+        Runs the request with no ordering constraint
+     */
+    public void execute(Runnable request) {
+        mExecutor.execute(request);
+    }
+
+    /*
+        Runs the request after every request submitted earlier with the same key. A null key has
+        no ordering constraint
+     */
+    public void execute(String key, Runnable request) {
+        if (key == null) {
+            execute(request);
+            return;
+        }
+
+        synchronized (mWaiting) {
+            ArrayDeque<Runnable> waiting = mWaiting.get(key);
+
+            if (waiting != null) {
+                waiting.add(request);
+                return;
+            }
+
+            mWaiting.put(key, new ArrayDeque<Runnable>());
+        }
+
+        mExecutor.execute(new Ordered(key, request));
+    }
+
+    /*
+        An executor that submits everything with the key, for AsyncTask.executeOnExecutor
+     */
+    public Executor forKey(final String key) {
+        return new Executor() {
+            @Override
+            public void execute(Runnable request) {
+                RequestDispatcher.this.execute(key, request);
+            }
+        };
+    }
+
+    private void onOrderedFinished(String key) {
+        Runnable next;
+
+        synchronized (mWaiting) {
+            ArrayDeque<Runnable> waiting = mWaiting.get(key);
+            next = waiting != null ? waiting.poll() : null;
+
+            if (next == null) {
+                mWaiting.remove(key);
+                return;
+            }
+        }
+
+        mExecutor.execute(new Ordered(key, next));
+    }
+
+    private class Ordered implements Runnable {
+        private final String mKey;
+        private final Runnable mRequest;
+
+        Ordered(String key, Runnable request) {
+            mKey = key;
+            mRequest = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                mRequest.run();
+            } finally {
+                onOrderedFinished(mKey);
+            }
+        }
+    }
+}
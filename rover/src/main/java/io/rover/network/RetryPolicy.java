@@ -0,0 +1,102 @@
+package io.rover.network;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * How often and how long to wait before repeating a failed request. Delays grow exponentially with
+ * equal jitter so devices that failed together do not retry together, and a Retry-After from the
+ * server takes precedence.
+ */
+public class RetryPolicy {
+
+    private final int mMaxAttempts;
+    private final long mBaseDelay;
+    private final long mMaxDelay;
+    private final Random mRandom;
+
+    public RetryPolicy(int maxAttempts, long baseDelay, long maxDelay) {
+        this(maxAttempts, baseDelay, maxDelay, new Random());
+    }
+
+    RetryPolicy(int maxAttempts, long baseDelay, long maxDelay, Random random) {
+        mMaxAttempts = Math.max(1, maxAttempts);
+        mBaseDelay = baseDelay;
+        mMaxDelay = maxDelay;
+        mRandom = random;
+    }
+
+    public int getMaxAttempts() {
+        return mMaxAttempts;
+    }
+
+    public long getMaxDelay() {
+        return mMaxDelay;
+    }
+
+    /*
+        Returns the delay before the given retry, starting at 1. retryAfter is the server's
+        Retry-After in milliseconds or -1 when there was none
+     */
+    public long getDelay(int retry, long retryAfter) {
+        if (retryAfter >= 0) {
+            return retryAfter;
+        }
+
+        long delay = mBaseDelay;
+        for (int i = 1; i < retry && delay < mMaxDelay; i++) {
+            delay *= 2;
+        }
+        delay = Math.min(delay, mMaxDelay);
+
+        long half = delay / 2;
+        return half + (long) (mRandom.nextDouble() * (delay - half));
+    }
+
+    /*
+        A missing response means the request never completed. Server errors, timeouts and rate
+        limiting are worth repeating, other statuses will not change
+     */
+    public static boolean isRetryable(HttpResponse response) {
+        if (response == null) {
+            return true;
+        }
+
+        int status = response.getStatus();
+        return status == 408 || status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /*
+        Parses a Retry-After header given either as seconds or as an HTTP date. Returns -1 when
+        the header is missing or malformed
+     */
+    public static long parseRetryAfter(String value, long now) {
+        if (value == null) {
+            return -1;
+        }
+
+        value = value.trim();
+
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? -1 : seconds * 1000;
+        } catch (NumberFormatException ignored) {
+        }
+
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        try {
+            Date date = format.parse(value);
+            return Math.max(0, date.getTime() - now);
+        } catch (ParseException e) {
+            return -1;
+        }
+    }
+}
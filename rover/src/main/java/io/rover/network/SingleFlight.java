@@ -0,0 +1,63 @@
+package io.rover.network;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Coalesces identical requests. The first caller for a key starts the request and later callers
+ * for the same key are attached to it until it completes, so every caller receives the one parsed
+ * result. Keys name the route and its parameters, for example "GET /inbox".
+ */
+public class SingleFlight<L> {
+
+    public interface Delivery<L> {
+        void deliver(L listener);
+    }
+
+    private final HashMap<String, List<L>> mInFlight = new HashMap<>();
+
+    /*
+        Returns true if the caller must start the request. Otherwise the listener is attached to
+        the request already in flight
+     */
+    public synchronized boolean join(String key, L listener) {
+        List<L> listeners = mInFlight.get(key);
+
+        if (listeners != null) {
+            listeners.add(listener);
+            return false;
+        }
+
+        listeners = new ArrayList<>();
+        listeners.add(listener);
+        mInFlight.put(key, listeners);
+        return true;
+    }
+
+    public synchronized boolean isInFlight(String key) {
+        return mInFlight.containsKey(key);
+    }
+
+    /*
+        Ends the request and hands its result to every attached caller, in the order they joined.
+        A caller joining after this starts a new request
+     */
+    public void complete(String key, Delivery<L> delivery) {
+        List<L> listeners;
+
+        synchronized (this) {
+            listeners = mInFlight.remove(key);
+        }
+
+        if (listeners == null) {
+            return;
+        }
+
+        for (L listener : listeners) {
+            delivery.deliver(listener);
+        }
+    }
+}
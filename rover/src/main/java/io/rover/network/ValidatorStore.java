@@ -0,0 +1,200 @@
+package io.rover.network;
+
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * The ETag, Last-Modified and body of the last successful response for each route, kept so the
+ * route can be requested conditionally. A 304 is answered from the stored body, and from the model
+ * parsed out of it while the process is alive, so unchanged content is neither downloaded nor
+ * parsed again. Each route is one file, replaced atomically.
+ */
+public class ValidatorStore {
+
+    private static final String TAG = "ValidatorStore";
+    private static final int FILE_VERSION = 1;
+
+    public static class Entry {
+        private final String mETag;
+        private final String mLastModified;
+        private final byte[] mBody;
+
+        // Only kept in memory. Tied to this entry so a newer response never reuses an older model
+        private volatile Object mModel;
+
+        Entry(String eTag, String lastModified, byte[] body) {
+            mETag = eTag;
+            mLastModified = lastModified;
+            mBody = body;
+        }
+
+        public String getETag() {
+            return mETag;
+        }
+
+        public String getLastModified() {
+            return mLastModified;
+        }
+
+        public byte[] getBody() {
+            return mBody;
+        }
+
+        public Object getModel() {
+            return mModel;
+        }
+
+        public void setModel(Object model) {
+            mModel = model;
+        }
+    }
+
+    private final File mDirectory;
+    private final HashMap<String, Entry> mEntries = new HashMap<>();
+
+    public ValidatorStore(File directory) {
+        mDirectory = directory;
+    }
+
+    public synchronized Entry get(String key) {
+        if (mEntries.containsKey(key)) {
+            return mEntries.get(key);
+        }
+
+        Entry entry = read(file(key));
+        mEntries.put(key, entry);
+        return entry;
+    }
+
+    /*
+        Stores the response. A response without validators removes the route's entry
+     */
+    public synchronized Entry put(String key, String eTag, String lastModified, byte[] body) {
+        if (eTag == null && lastModified == null) {
+            remove(key);
+            return null;
+        }
+
+        Entry entry = new Entry(eTag, lastModified, body);
+        mEntries.put(key, entry);
+        write(file(key), entry);
+        return entry;
+    }
+
+    public synchronized void remove(String key) {
+        mEntries.put(key, null);
+
+        File file = file(key);
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Unable to delete " + file);
+        }
+    }
+
+    private File file(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(key.getBytes("UTF-8"));
+
+            StringBuilder name = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16));
+                name.append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(mDirectory, name.toString());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /*
+        Persistence
+     */
+
+    private static Entry read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        DataInputStream input = null;
+
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+
+            if (input.readInt() != FILE_VERSION) {
+                return null;
+            }
+
+            String eTag = input.readBoolean() ? input.readUTF() : null;
+            String lastModified = input.readBoolean() ? input.readUTF() : null;
+            byte[] body = new byte[input.readInt()];
+            input.readFully(body);
+
+            return new Entry(eTag, lastModified, body);
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to read " + file + ": " + e);
+            return null;
+        } finally {
+            closeQuietly(input);
+        }
+    }
+
+    private void write(File file, Entry entry) {
+        if (!mDirectory.exists() && !mDirectory.mkdirs()) {
+            Log.e(TAG, "Unable to create " + mDirectory);
+            return;
+        }
+
+        // Written next to the file and renamed over it so a crash never leaves half a file behind
+        File temporary = new File(file.getPath() + ".tmp");
+        DataOutputStream output = null;
+
+        try {
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+            output.writeInt(FILE_VERSION);
+            writeOptional(output, entry.mETag);
+            writeOptional(output, entry.mLastModified);
+            output.writeInt(entry.mBody.length);
+            output.write(entry.mBody);
+            output.close();
+            output = null;
+
+            if (!temporary.renameTo(file)) {
+                Log.e(TAG, "Unable to replace " + file);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to write " + file + ": " + e);
+        } finally {
+            closeQuietly(output);
+        }
+    }
+
+    private static void writeOptional(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -15,6 +15,8 @@ import java.net.URL;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
+import io.rover.network.NetworkTask;
+
 /**
  * Created by Rover Labs Inc on 2016-07-07.
  */
@@ -59,7 +61,7 @@ public class AssetDownloader extends AsyncTask<String, Void, Bitmap> {
             // Download Asset
 
             URL url = new URL(urlString);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            HttpURLConnection connection = NetworkTask.getDefaultTransport().openConnection(url);
             connection.setDoInput(true);
             connection.connect();
             InputStream input = connection.getInputStream();
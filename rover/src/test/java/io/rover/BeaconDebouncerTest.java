@@ -0,0 +1,98 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import io.rover.model.BeaconTransitionEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class BeaconDebouncerTest {
+
+    @Test
+    public void enter_is_reported_immediately() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(30000, 0);
+
+        BeaconDebouncer.Transition enter = debouncer.onFound("a", 1000);
+
+        assertNotNull(enter);
+        assertEquals(BeaconTransitionEvent.TRANSITION_ENTER, enter.transition);
+        assertEquals(1000, enter.time);
+    }
+
+    @Test
+    public void duplicate_found_and_lost_are_suppressed() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(30000, 0);
+
+        debouncer.onFound("a", 1000);
+        assertNull(debouncer.onFound("a", 2000));
+
+        debouncer.onLost("b", 3000);
+
+        assertEquals(2, debouncer.takeSuppressedCount());
+        assertEquals(0, debouncer.takeSuppressedCount());
+    }
+
+    @Test
+    public void exit_waits_for_exit_delay() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(30000, 0);
+
+        debouncer.onFound("a", 0);
+        debouncer.onLost("a", 10000);
+
+        assertEquals(40000, debouncer.nextDeadline());
+        assertTrue(debouncer.expire(39999).isEmpty());
+
+        List<BeaconDebouncer.Transition> exits = debouncer.expire(40000);
+        assertEquals(1, exits.size());
+        assertEquals(BeaconTransitionEvent.TRANSITION_EXIT, exits.get(0).transition);
+        assertEquals(10000, exits.get(0).time);
+        assertEquals(-1, debouncer.nextDeadline());
+    }
+
+    @Test
+    public void flapping_beacon_reports_nothing() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(30000, 0);
+
+        debouncer.onFound("a", 0);
+
+        for (int i = 1; i <= 10; i++) {
+            debouncer.onLost("a", i * 2000);
+            assertNull(debouncer.onFound("a", i * 2000 + 1000));
+        }
+
+        assertTrue(debouncer.expire(1000000).isEmpty());
+        assertEquals(20, debouncer.takeSuppressedCount());
+    }
+
+    @Test
+    public void exit_waits_for_minimum_dwell() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(5000, 60000);
+
+        debouncer.onFound("a", 0);
+        debouncer.onLost("a", 1000);
+
+        assertEquals(60000, debouncer.nextDeadline());
+        assertTrue(debouncer.expire(59999).isEmpty());
+        assertEquals(1, debouncer.expire(60000).size());
+    }
+
+    @Test
+    public void enter_after_confirmed_exit_is_reported() throws Exception {
+        BeaconDebouncer debouncer = new BeaconDebouncer(30000, 0);
+
+        debouncer.onFound("a", 0);
+        debouncer.onLost("a", 1000);
+        debouncer.expire(31000);
+
+        assertNotNull(debouncer.onFound("a", 32000));
+    }
+}
@@ -0,0 +1,117 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class ContextStateTest {
+
+    private static final long NOW = 1000000;
+
+    @Test
+    public void first_update_is_full() throws Exception {
+        ContextState state = new ContextState();
+
+        ContextState.Update update = state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW);
+
+        assertTrue(update.isFull());
+    }
+
+    @Test
+    public void acknowledged_update_leaves_only_changes() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[\"x\"]", "\"t1\""), NOW), NOW);
+
+        ContextState.Update update = state.prepare(snapshot("\"a\"", "[\"x\"]", "\"t2\""), NOW + 1);
+
+        assertFalse(update.isFull());
+        assertEquals(map("identifier", "\"a\""), update.getCustomerFields());
+        assertEquals(map("udid", "\"d\"", "token", "\"t2\""), update.getDeviceFields());
+    }
+
+    @Test
+    public void removed_members_are_sent_as_null() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        ContextState.Update update = state.prepare(snapshot("\"a\"", "[]", null), NOW + 1);
+
+        assertEquals(map("udid", "\"d\"", "token", "null"), update.getDeviceFields());
+    }
+
+    @Test
+    public void unacknowledged_changes_are_sent_again() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        state.prepare(snapshot("\"a\"", "[\"x\"]", "\"t1\""), NOW + 1);
+        ContextState.Update update = state.prepare(snapshot("\"a\"", "[\"x\"]", "\"t1\""), NOW + 2);
+
+        assertEquals(map("identifier", "\"a\"", "tags", "[\"x\"]"), update.getCustomerFields());
+    }
+
+    @Test
+    public void new_identifier_forces_full_update() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        assertTrue(state.prepare(snapshot("\"b\"", "[]", "\"t1\""), NOW + 1).isFull());
+    }
+
+    @Test
+    public void resync_interval_forces_full_update() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        assertFalse(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW + ContextState.RESYNC_INTERVAL - 1).isFull());
+        assertTrue(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW + ContextState.RESYNC_INTERVAL).isFull());
+    }
+
+    @Test
+    public void resync_request_discards_updates_in_flight() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        ContextState.Update inFlight = state.prepare(snapshot("\"a\"", "[]", "\"t2\""), NOW + 1);
+        state.requestResync();
+        state.acknowledge(inFlight, NOW + 2);
+
+        assertTrue(state.prepare(snapshot("\"a\"", "[]", "\"t2\""), NOW + 3).isFull());
+    }
+
+    @Test
+    public void older_snapshot_does_not_replace_newer_acknowledgement() throws Exception {
+        ContextState state = new ContextState();
+        state.acknowledge(state.prepare(snapshot("\"a\"", "[]", "\"t1\""), NOW), NOW);
+
+        ContextState.Update older = state.prepare(snapshot("\"a\"", "[]", "\"t2\""), NOW + 1);
+        ContextState.Update newer = state.prepare(snapshot("\"a\"", "[]", "\"t3\""), NOW + 1);
+        state.acknowledge(newer, NOW + 2);
+        state.acknowledge(older, NOW + 2);
+
+        ContextState.Update update = state.prepare(snapshot("\"a\"", "[]", "\"t3\""), NOW + 3);
+        assertEquals(map("udid", "\"d\""), update.getDeviceFields());
+    }
+
+    private static ContextSnapshot snapshot(String identifier, String tags, String token) throws Exception {
+        Map<String, String> device = token != null ? map("udid", "\"d\"", "token", token) : map("udid", "\"d\"");
+        return new ContextSnapshot(map("identifier", identifier, "tags", tags), device);
+    }
+
+    private static Map<String, String> map(String... keyValues) {
+        LinkedHashMap<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,151 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class EventBatchPayloadProviderTest {
+
+    @Test
+    public void records_are_written_as_data_with_full_context_in_meta() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(
+                records("{\"object\":\"location\",\"action\":\"update\"}", "{\"object\":\"app\",\"action\":\"open\"}"),
+                snapshot("\"t1\""), state);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"location\",\"action\":\"update\"}},"
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"app\",\"action\":\"open\"}}],"
+                + "\"meta\":{"
+                + "\"user\":{\"identifier\":\"a\",\"tags\":[\"x\"]},"
+                + "\"device\":{\"udid\":\"d\",\"token\":\"t1\"}}}", write(provider));
+        assertTrue(provider.getContextUpdate().isFull());
+    }
+
+    @Test
+    public void acknowledged_context_is_written_as_delta() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider first = new EventBatchPayloadProvider(records("{}"), snapshot("\"t1\""), state);
+        write(first);
+        state.acknowledge(first.getContextUpdate(), System.currentTimeMillis());
+
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(records("{\"object\":\"app\"}"), snapshot("\"t2\""), state);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"app\"}}],"
+                + "\"meta\":{\"context\":\"delta\","
+                + "\"user\":{\"identifier\":\"a\"},"
+                + "\"device\":{\"udid\":\"d\",\"token\":\"t2\"}}}", write(provider));
+        assertFalse(provider.getContextUpdate().isFull());
+    }
+
+    @Test
+    public void removed_member_is_written_as_null_in_delta() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider first = new EventBatchPayloadProvider(records("{}"), snapshot("\"t1\""), state);
+        write(first);
+        state.acknowledge(first.getContextUpdate(), System.currentTimeMillis());
+
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(records("{}"), snapshot(null), state);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{}}],"
+                + "\"meta\":{\"context\":\"delta\","
+                + "\"user\":{\"identifier\":\"a\"},"
+                + "\"device\":{\"udid\":\"d\",\"token\":null}}}", write(provider));
+    }
+
+    @Test
+    public void full_context_is_written_when_asked_for_after_acknowledgement() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider first = new EventBatchPayloadProvider(records("{}"), snapshot("\"t1\""), state);
+        write(first);
+        state.acknowledge(first.getContextUpdate(), System.currentTimeMillis());
+
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(records("{}"), snapshot("\"t2\""), state);
+        provider.setFullContext(true);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{}}],"
+                + "\"meta\":{"
+                + "\"user\":{\"identifier\":\"a\",\"tags\":[\"x\"]},"
+                + "\"device\":{\"udid\":\"d\",\"token\":\"t2\"}}}", write(provider));
+        assertTrue(provider.getContextUpdate().isFull());
+    }
+
+    @Test
+    public void events_of_an_earlier_customer_only_name_the_customer() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(
+                records("\"b\"\n{\"object\":\"app\"}", "{\"object\":\"location\"}"), snapshot("\"t1\""), state);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"app\"}},"
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"location\"}}],"
+                + "\"meta\":{\"context\":\"delta\","
+                + "\"user\":{\"identifier\":\"b\"},"
+                + "\"device\":{\"udid\":\"d\"}}}", write(provider));
+        assertNull(provider.getContextUpdate());
+    }
+
+    @Test
+    public void events_of_the_current_customer_carry_its_attributes() throws Exception {
+        ContextState state = new ContextState();
+        EventBatchPayloadProvider provider = new EventBatchPayloadProvider(
+                records("\"a\"\n{\"object\":\"app\"}"), snapshot("\"t1\""), state);
+
+        assertEquals("{\"data\":["
+                + "{\"type\":\"events\",\"attributes\":{\"object\":\"app\"}}],"
+                + "\"meta\":{"
+                + "\"user\":{\"identifier\":\"a\",\"tags\":[\"x\"]},"
+                + "\"device\":{\"udid\":\"d\",\"token\":\"t1\"}}}", write(provider));
+    }
+
+    @Test
+    public void batch_ends_where_the_customer_changes() throws Exception {
+        assertEquals(3, EventSerializer.countSameCustomer(records("\"a\"\n{}", "{}", "\"a\"\n{}", "null\n{}", "\"a\"\n{}")));
+        assertEquals(2, EventSerializer.countSameCustomer(records("{}", "{}")));
+    }
+
+    private static String write(EventBatchPayloadProvider provider) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        // The provider closes the writer when it is done
+        provider.onProvidePayload(new OutputStreamWriter(output, "UTF-8"));
+        return output.toString("UTF-8");
+    }
+
+    private static List<EventJournal.Record> records(String... payloads) throws Exception {
+        List<EventJournal.Record> records = new ArrayList<>();
+        for (int i = 0; i < payloads.length; i++) {
+            records.add(new EventJournal.Record(0, i, payloads[i].getBytes("UTF-8")));
+        }
+        return records;
+    }
+
+    private static ContextSnapshot snapshot(String token) throws Exception {
+        LinkedHashMap<String, String> customer = new LinkedHashMap<>();
+        customer.put("identifier", "\"a\"");
+        customer.put("tags", "[\"x\"]");
+
+        LinkedHashMap<String, String> device = new LinkedHashMap<>();
+        device.put("udid", "\"d\"");
+        if (token != null) {
+            device.put("token", token);
+        }
+
+        return new ContextSnapshot(customer, device);
+    }
+}
@@ -0,0 +1,166 @@
+package io.rover;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class EventJournalTest {
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        mDirectory = File.createTempFile("journal", "");
+        mDirectory.delete();
+        mDirectory.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void read_returns_records_in_order() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+        journal.append(bytes("c"));
+
+        List<EventJournal.Record> records = journal.read(2);
+
+        assertEquals(2, records.size());
+        assertEquals("a", string(records.get(0)));
+        assertEquals("b", string(records.get(1)));
+        assertEquals(3, journal.getPendingCount());
+    }
+
+    @Test
+    public void acknowledge_advances_cursor() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+
+        journal.acknowledge(journal.read(1));
+
+        List<EventJournal.Record> records = journal.read(10);
+        assertEquals(1, records.size());
+        assertEquals("b", string(records.get(0)));
+        assertEquals(1, journal.getPendingCount());
+    }
+
+    @Test
+    public void unacknowledged_records_survive_reopen() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+        journal.acknowledge(journal.read(1));
+        journal.close();
+
+        EventJournal reopened = new EventJournal(mDirectory);
+        List<EventJournal.Record> records = reopened.read(10);
+
+        assertEquals(1, records.size());
+        assertEquals("b", string(records.get(0)));
+
+        reopened.append(bytes("c"));
+        assertEquals(2, reopened.read(10).size());
+    }
+
+    @Test
+    public void torn_record_is_truncated_on_open() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory);
+        journal.append(bytes("a"));
+        journal.close();
+
+        File[] segments = mDirectory.listFiles();
+        File segment = null;
+        for (File file : segments) {
+            if (file.getName().endsWith(".seg")) {
+                segment = file;
+            }
+        }
+
+        // Simulate a process dying halfway through writing a record header
+        FileOutputStream output = new FileOutputStream(segment, true);
+        output.write(new byte[] { 0, 0, 0, 9, 1 });
+        output.close();
+
+        EventJournal reopened = new EventJournal(mDirectory);
+        assertEquals(1, reopened.getPendingCount());
+
+        reopened.append(bytes("b"));
+        List<EventJournal.Record> records = reopened.read(10);
+        assertEquals(2, records.size());
+        assertEquals("b", string(records.get(1)));
+    }
+
+    @Test
+    public void consumed_segments_are_deleted() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory, 32);
+
+        for (int i = 0; i < 10; i++) {
+            journal.append(bytes("record-" + i));
+        }
+
+        assertTrue(segmentCount() > 1);
+
+        journal.acknowledge(journal.read(10));
+
+        assertEquals(0, journal.getPendingCount());
+        assertTrue(segmentCount() <= 1);
+    }
+
+    @Test
+    public void stale_acknowledge_does_not_move_cursor_back() throws Exception {
+        EventJournal journal = new EventJournal(mDirectory);
+        journal.append(bytes("a"));
+        journal.append(bytes("b"));
+        journal.append(bytes("c"));
+
+        List<EventJournal.Record> inFlight = journal.read(1);
+        assertEquals(2, journal.acknowledge(journal.read(2)));
+        assertEquals(0, journal.acknowledge(inFlight));
+
+        List<EventJournal.Record> records = journal.read(10);
+        assertEquals(1, records.size());
+        assertEquals("c", string(records.get(0)));
+        assertEquals(1, journal.getPendingCount());
+    }
+
+    private int segmentCount() {
+        int count = 0;
+        for (File file : mDirectory.listFiles()) {
+            if (file.getName().endsWith(".seg")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static byte[] bytes(String value) throws IOException {
+        return value.getBytes("UTF-8");
+    }
+
+    private static String string(EventJournal.Record record) throws IOException {
+        return new String(record.getPayload(), "UTF-8");
+    }
+}
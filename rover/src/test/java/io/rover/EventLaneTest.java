@@ -0,0 +1,154 @@
+package io.rover;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class EventLaneTest {
+
+    private File mDirectory;
+    private EventJournal mJournal;
+    private RoverMetrics mMetrics;
+
+    @Before
+    public void setUp() throws Exception {
+        mDirectory = File.createTempFile("lane", "");
+        mDirectory.delete();
+        mDirectory.mkdirs();
+        mJournal = new EventJournal(mDirectory);
+        mMetrics = new RoverMetrics();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mJournal.close();
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void full_lane_drops_oldest() throws Exception {
+        EventLane lane = new EventLane("test", mJournal, 2, RoverConfig.DROP_OLDEST, false, mMetrics);
+
+        assertTrue(lane.append(bytes("a")));
+        assertTrue(lane.append(bytes("b")));
+        assertTrue(lane.append(bytes("c")));
+        awaitLane(lane);
+
+        List<EventJournal.Record> records = mJournal.read(10);
+        assertEquals(2, records.size());
+        assertEquals("b", new String(records.get(0).getPayload(), "UTF-8"));
+        assertEquals(1, mMetrics.get(RoverMetrics.eventLaneMetric("test", RoverMetrics.EVENT_LANE_DROPPED)));
+        assertEquals(2, mMetrics.get(RoverMetrics.eventLaneMetric("test", RoverMetrics.EVENT_LANE_DEPTH)));
+    }
+
+    @Test
+    public void dropped_events_are_reported() throws Exception {
+        EventLane lane = new EventLane("test", mJournal, 1, RoverConfig.DROP_OLDEST, false, mMetrics);
+        final List<EventJournal.Record> dropped = new ArrayList<>();
+        lane.setOnEventsDroppedListener(new EventLane.OnEventsDroppedListener() {
+            @Override
+            public void onEventsDropped(EventLane lane, List<EventJournal.Record> records) {
+                dropped.addAll(records);
+            }
+        });
+
+        lane.append(bytes("a"));
+        lane.append(bytes("b"));
+        awaitLane(lane);
+
+        assertEquals(1, dropped.size());
+        assertEquals("a", new String(dropped.get(0).getPayload(), "UTF-8"));
+    }
+
+    @Test
+    public void batch_being_submitted_is_not_dropped() throws Exception {
+        EventLane lane = new EventLane("test", mJournal, 2, RoverConfig.DROP_OLDEST, false, mMetrics);
+        lane.append(bytes("a"));
+        lane.append(bytes("b"));
+
+        // Stands in for a submission holding the lane's thread
+        final List<EventJournal.Record> inFlight = mJournal.read(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        lane.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                mJournal.acknowledge(inFlight);
+            }
+        });
+
+        assertTrue(lane.append(bytes("c")));
+        assertEquals(3, mJournal.getPendingCount());
+
+        release.countDown();
+        awaitLane(lane);
+
+        List<EventJournal.Record> records = mJournal.read(10);
+        assertEquals(1, records.size());
+        assertEquals("c", new String(records.get(0).getPayload(), "UTF-8"));
+        assertEquals(0, mMetrics.get(RoverMetrics.eventLaneMetric("test", RoverMetrics.EVENT_LANE_DROPPED)));
+    }
+
+    @Test
+    public void full_lane_drops_newest() throws Exception {
+        EventLane lane = new EventLane("test", mJournal, 2, RoverConfig.DROP_NEWEST, false, mMetrics);
+
+        assertTrue(lane.append(bytes("a")));
+        assertTrue(lane.append(bytes("b")));
+        assertFalse(lane.append(bytes("c")));
+
+        List<EventJournal.Record> records = mJournal.read(10);
+        assertEquals(2, records.size());
+        assertEquals("a", new String(records.get(0).getPayload(), "UTF-8"));
+        assertEquals(1, mMetrics.get(RoverMetrics.eventLaneMetric("test", RoverMetrics.EVENT_LANE_DROPPED)));
+    }
+
+    @Test
+    public void depth_includes_replayed_events() throws Exception {
+        mJournal.append(bytes("a"));
+        mJournal.append(bytes("b"));
+
+        EventLane lane = new EventLane("test", mJournal, 10, RoverConfig.DROP_OLDEST, false, mMetrics);
+
+        assertEquals(2, lane.getPendingCount());
+        assertEquals(2, mMetrics.get(RoverMetrics.eventLaneMetric("test", RoverMetrics.EVENT_LANE_DEPTH)));
+    }
+
+    private static void awaitLane(EventLane lane) throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        lane.execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    private static byte[] bytes(String value) throws Exception {
+        return value.getBytes("UTF-8");
+    }
+}
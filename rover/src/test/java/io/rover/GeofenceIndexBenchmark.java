@@ -0,0 +1,81 @@
+package io.rover;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import io.rover.model.GeofenceRegion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Times building the index and selecting the nearest 100 regions against a linear scan, for region
+ * sets the size of a large retail chain spread over a continent. Building 100k regions is slow, so
+ * it is left out of the unit tests and run by hand.
+ */
+
+@Ignore("Benchmark, run by hand")
+public class GeofenceIndexBenchmark {
+
+    private static final int QUERIES = 200;
+
+    @Test
+    public void nearest_100_of_10k_regions() throws Exception {
+        run(10000);
+    }
+
+    @Test
+    public void nearest_100_of_50k_regions() throws Exception {
+        run(50000);
+    }
+
+    @Test
+    public void nearest_100_of_100k_regions() throws Exception {
+        run(100000);
+    }
+
+    private void run(int count) {
+        // Roughly the continental United States
+        List<GeofenceRegion> regions = GeofenceIndexTest.randomRegions(new Random(count), count, 25.0, -125.0, 25.0);
+
+        long buildStart = System.nanoTime();
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(regions);
+        long buildTime = System.nanoTime() - buildStart;
+
+        Random random = new Random(1);
+        double[] latitudes = new double[QUERIES];
+        double[] longitudes = new double[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            latitudes[i] = 25.0 + random.nextDouble() * 25.0;
+            longitudes[i] = -125.0 + random.nextDouble() * 25.0;
+        }
+
+        // Warm up
+        for (int i = 0; i < QUERIES; i++) {
+            index.nearest(latitudes[i], longitudes[i], 100);
+        }
+
+        long indexStart = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            index.nearest(latitudes[i], longitudes[i], 100);
+        }
+        long indexTime = (System.nanoTime() - indexStart) / QUERIES;
+
+        int scanQueries = Math.max(5, QUERIES / 20);
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < scanQueries; i++) {
+            List<GeofenceRegion> expected = GeofenceIndexTest.linearNearest(regions, latitudes[i], longitudes[i], 100);
+            assertEquals(GeofenceIndexTest.ids(expected), GeofenceIndexTest.ids(index.nearest(latitudes[i], longitudes[i], 100)));
+        }
+        long scanTime = (System.nanoTime() - scanStart) / scanQueries;
+
+        assertTrue(String.format("%d regions: build %.1f ms, nearest 100 %.3f ms, sorting every region %.3f ms",
+                count, buildTime / 1e6, indexTime / 1e6, scanTime / 1e6), indexTime < scanTime);
+    }
+}
@@ -0,0 +1,147 @@
+package io.rover;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import io.rover.model.GeofenceRegion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class GeofenceIndexTest {
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        mDirectory = File.createTempFile("geofences", "");
+        mDirectory.delete();
+        mDirectory.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        File file = new File(mDirectory, "geofence-regions");
+        file.delete();
+        mDirectory.delete();
+    }
+
+    @Test
+    public void nearest_matches_linear_scan() throws Exception {
+        List<GeofenceRegion> regions = randomRegions(new Random(7), 5000, 43.0, -80.0, 2.0);
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(regions);
+
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            double latitude = 43.0 + random.nextDouble() * 2;
+            double longitude = -80.0 + random.nextDouble() * 2;
+
+            assertEquals(ids(linearNearest(regions, latitude, longitude, 100)),
+                    ids(index.nearest(latitude, longitude, 100)));
+        }
+    }
+
+    @Test
+    public void sparse_regions_fall_back_to_a_full_scan() throws Exception {
+        List<GeofenceRegion> regions = Arrays.asList(
+                new GeofenceRegion("toronto", 43.65, -79.38, 100),
+                new GeofenceRegion("vancouver", 49.28, -123.12, 100),
+                new GeofenceRegion("sydney", -33.87, 151.21, 100));
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(regions);
+
+        assertEquals(Arrays.asList("toronto", "vancouver"), ids(index.nearest(45.5, -73.57, 2)));
+    }
+
+    @Test
+    public void distance_is_measured_to_the_region_edge() throws Exception {
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(Arrays.asList(
+                new GeofenceRegion("small", 43.6510, -79.3800, 10),
+                new GeofenceRegion("large", 43.6600, -79.3800, 1500)));
+
+        assertEquals("large", index.nearest(43.6500, -79.3800, 1).get(0).getId());
+    }
+
+    @Test
+    public void regions_are_persisted() throws Exception {
+        File file = new File(mDirectory, "geofence-regions");
+        List<GeofenceRegion> regions = randomRegions(new Random(3), 200, 43.0, -80.0, 1.0);
+        new GeofenceIndex(file).setRegions(regions);
+
+        GeofenceIndex loaded = new GeofenceIndex(file);
+
+        assertEquals(200, loaded.size());
+        assertEquals(ids(linearNearest(regions, 43.5, -79.5, 10)), ids(loaded.nearest(43.5, -79.5, 10)));
+    }
+
+    @Test
+    public void selection_is_redone_after_moving_away() throws Exception {
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(randomRegions(new Random(5), 1000, 43.0, -80.0, 2.0));
+
+        assertTrue(index.needsSelection(44.0, -79.0));
+        index.select(44.0, -79.0, 20);
+
+        assertFalse(index.needsSelection(44.0001, -79.0001));
+        assertTrue(index.needsSelection(44.5, -79.0));
+    }
+
+    @Test
+    public void selection_never_changes_when_everything_fits() throws Exception {
+        GeofenceIndex index = new GeofenceIndex(null);
+        index.setRegions(randomRegions(new Random(5), 10, 43.0, -80.0, 2.0));
+        index.select(44.0, -79.0, 100);
+
+        assertFalse(index.needsSelection(-33.87, 151.21));
+    }
+
+    static List<GeofenceRegion> randomRegions(Random random, int count, double latitude, double longitude, double span) {
+        ArrayList<GeofenceRegion> regions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            regions.add(new GeofenceRegion("region-" + i,
+                    latitude + random.nextDouble() * span,
+                    longitude + random.nextDouble() * span,
+                    50 + random.nextInt(200)));
+        }
+        return regions;
+    }
+
+    static List<GeofenceRegion> linearNearest(List<GeofenceRegion> regions, final double latitude, final double longitude, int count) {
+        ArrayList<GeofenceRegion> sorted = new ArrayList<>(regions);
+        Collections.sort(sorted, new Comparator<GeofenceRegion>() {
+            @Override
+            public int compare(GeofenceRegion a, GeofenceRegion b) {
+                return Double.compare(edgeDistance(a, latitude, longitude), edgeDistance(b, latitude, longitude));
+            }
+        });
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    private static double edgeDistance(GeofenceRegion region, double latitude, double longitude) {
+        return Math.max(0, LocationFilter.distance(latitude, longitude, region.getlatitude(), region.getLongitude()) - region.getRadius());
+    }
+
+    static List<String> ids(List<GeofenceRegion> regions) {
+        ArrayList<String> ids = new ArrayList<>(regions.size());
+        for (GeofenceRegion region : regions) {
+            ids.add(region.getId());
+        }
+        return ids;
+    }
+}
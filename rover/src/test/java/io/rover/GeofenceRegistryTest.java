@@ -0,0 +1,99 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.rover.model.GeofenceRegion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class GeofenceRegistryTest {
+
+    @Test
+    public void everything_is_added_to_an_empty_registry() throws Exception {
+        GeofenceRegistry registry = new GeofenceRegistry();
+
+        GeofenceRegistry.Diff diff = registry.diff(Arrays.asList(region("a", 1), region("b", 1)));
+
+        assertEquals(2, diff.getAdded().size());
+        assertTrue(diff.getRemoved().isEmpty());
+    }
+
+    @Test
+    public void unchanged_set_is_empty_diff() throws Exception {
+        GeofenceRegistry registry = registered(region("a", 1), region("b", 1));
+
+        assertTrue(registry.diff(Arrays.asList(region("b", 1), region("a", 1))).isEmpty());
+    }
+
+    @Test
+    public void diff_contains_only_changes() throws Exception {
+        GeofenceRegistry registry = registered(region("a", 1), region("b", 1), region("c", 1));
+
+        GeofenceRegistry.Diff diff = registry.diff(Arrays.asList(region("a", 1), region("b", 2), region("d", 1)));
+
+        assertEquals(Collections.singletonList("c"), diff.getRemoved());
+        assertEquals(2, diff.getAdded().size());
+        assertEquals("b", diff.getAdded().get(0).getId());
+        assertEquals("d", diff.getAdded().get(1).getId());
+    }
+
+    @Test
+    public void duplicate_ids_are_added_once() throws Exception {
+        GeofenceRegistry registry = new GeofenceRegistry();
+
+        GeofenceRegistry.Diff diff = registry.diff(Arrays.asList(region("a", 1), region("a", 1)));
+
+        assertEquals(1, diff.getAdded().size());
+    }
+
+    @Test
+    public void unapplied_diff_is_computed_again() throws Exception {
+        GeofenceRegistry registry = registered(region("a", 1));
+
+        GeofenceRegistry.Diff first = registry.diff(Collections.singletonList(region("b", 1)));
+        registry.applyRemoved(first.getRemoved());
+
+        // The add failed so the next diff still adds b but no longer removes a
+        GeofenceRegistry.Diff second = registry.diff(Collections.singletonList(region("b", 1)));
+        assertTrue(second.getRemoved().isEmpty());
+        assertEquals(1, second.getAdded().size());
+    }
+
+    @Test
+    public void cleared_registry_adds_everything_again() throws Exception {
+        GeofenceRegistry registry = registered(region("a", 1));
+        registry.clear();
+
+        assertEquals(1, registry.diff(Collections.singletonList(region("a", 1))).getAdded().size());
+    }
+
+    @Test
+    public void place_is_matched_to_registered_region() throws Exception {
+        GeofenceRegistry registry = registered(region("a", 100), region("b", 200));
+
+        assertEquals("b", registry.findId(43.65, -79.38, 200.0));
+        assertNull(registry.findId(43.65, -79.38, 300.0));
+    }
+
+    private static GeofenceRegistry registered(GeofenceRegion... regions) {
+        GeofenceRegistry registry = new GeofenceRegistry();
+        List<GeofenceRegion> list = new ArrayList<>(Arrays.asList(regions));
+        registry.applyAdded(registry.diff(list).getAdded());
+        return registry;
+    }
+
+    private static GeofenceRegion region(String id, int radius) {
+        return new GeofenceRegion(id, 43.65, -79.38, radius);
+    }
+}
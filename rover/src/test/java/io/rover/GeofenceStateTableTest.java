@@ -0,0 +1,91 @@
+package io.rover;
+
+import com.google.android.gms.location.Geofence;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class GeofenceStateTableTest {
+
+    private static final int ENTER = Geofence.GEOFENCE_TRANSITION_ENTER;
+    private static final int EXIT = Geofence.GEOFENCE_TRANSITION_EXIT;
+
+    @Test
+    public void first_transition_is_accepted() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(60000);
+
+        assertTrue(table.accept("a", ENTER, 0));
+        assertTrue(table.accept("b", EXIT, 0));
+    }
+
+    @Test
+    public void repeated_transition_is_dropped() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(0);
+
+        assertTrue(table.accept("a", ENTER, 0));
+        assertFalse(table.accept("a", ENTER, 1000000));
+        assertTrue(table.accept("a", EXIT, 2000000));
+        assertFalse(table.accept("a", EXIT, 3000000));
+
+        assertEquals(2, table.takeSuppressedCount());
+        assertEquals(0, table.takeSuppressedCount());
+    }
+
+    @Test
+    public void transition_within_min_interval_is_dropped() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(60000);
+
+        assertTrue(table.accept("a", ENTER, 0));
+        assertFalse(table.accept("a", EXIT, 59999));
+        assertTrue(table.accept("a", EXIT, 60000));
+    }
+
+    @Test
+    public void dropped_transition_does_not_change_state() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(60000);
+
+        table.accept("a", ENTER, 0);
+        table.accept("a", EXIT, 1000);
+
+        // The server still believes the device is inside
+        assertFalse(table.accept("a", ENTER, 120000));
+        assertTrue(table.accept("a", EXIT, 130000));
+    }
+
+    @Test
+    public void clock_set_backwards_does_not_hold_transitions() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(60000);
+
+        table.accept("a", ENTER, 100000);
+
+        assertTrue(table.accept("a", EXIT, 1000));
+    }
+
+    @Test
+    public void dwell_is_not_tracked() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(60000);
+
+        assertTrue(table.accept("a", Geofence.GEOFENCE_TRANSITION_DWELL, 0));
+        assertTrue(table.accept("a", Geofence.GEOFENCE_TRANSITION_DWELL, 0));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void oldest_region_is_evicted() throws Exception {
+        GeofenceStateTable table = new GeofenceStateTable(0);
+
+        for (int i = 0; i <= GeofenceStateTable.MAX_REGIONS; i++) {
+            table.accept("region-" + i, ENTER, i);
+        }
+
+        assertEquals(GeofenceStateTable.MAX_REGIONS, table.size());
+        assertTrue(table.accept("region-0", ENTER, 5000));
+    }
+}
@@ -0,0 +1,100 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class LocationFilterTest {
+
+    private static final long MINUTE = 60000;
+
+    // Roughly 11 meters of latitude
+    private static final double STEP = 0.0001;
+
+    @Test
+    public void first_point_is_always_accepted() {
+        LocationFilter filter = new LocationFilter(50, MINUTE, 100);
+
+        List<Integer> accepted = filter.filter(points(point(0, 0, 10, 0)));
+
+        assertEquals(Arrays.asList(0), accepted);
+    }
+
+    @Test
+    public void stationary_device_is_dropped() {
+        LocationFilter filter = new LocationFilter(50, MINUTE, 100);
+        filter.filter(points(point(0, 0, 10, 0)));
+
+        List<Integer> accepted = filter.filter(points(point(STEP, 0, 10, 15 * MINUTE)));
+
+        assertTrue(accepted.isEmpty());
+    }
+
+    @Test
+    public void updates_within_minimum_interval_are_dropped() {
+        LocationFilter filter = new LocationFilter(50, 10 * MINUTE, 100);
+        filter.filter(points(point(0, 0, 10, 0)));
+
+        assertTrue(filter.filter(points(point(100 * STEP, 0, 10, MINUTE))).isEmpty());
+        assertEquals(1, filter.filter(points(point(100 * STEP, 0, 10, 11 * MINUTE))).size());
+    }
+
+    @Test
+    public void inaccurate_updates_are_dropped() {
+        LocationFilter filter = new LocationFilter(50, 0, 100);
+
+        assertTrue(filter.filter(points(point(0, 0, 500, 0))).isEmpty());
+    }
+
+    @Test
+    public void straight_run_is_simplified_to_its_end() {
+        LocationFilter filter = new LocationFilter(20, 0, 100);
+        filter.filter(points(point(0, 0, 10, 0)));
+
+        List<LocationFilter.Point> run = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            run.add(point(i * 10 * STEP, 0, 10, i * MINUTE));
+        }
+
+        assertEquals(Arrays.asList(9), filter.filter(run));
+    }
+
+    @Test
+    public void corners_survive_simplification() {
+        LocationFilter filter = new LocationFilter(20, 0, 100);
+        filter.filter(points(point(0, 0, 10, 0)));
+
+        List<LocationFilter.Point> run = points(
+                point(10 * STEP, 0, 10, MINUTE),
+                point(20 * STEP, 0, 10, 2 * MINUTE),
+                point(20 * STEP, 10 * STEP, 10, 3 * MINUTE),
+                point(20 * STEP, 20 * STEP, 10, 4 * MINUTE));
+
+        assertEquals(Arrays.asList(1, 3), filter.filter(run));
+    }
+
+    @Test
+    public void distance_matches_known_value() {
+        // One degree of latitude is about 111.2 km
+        double distance = LocationFilter.distance(point(0, 0, 0, 0), point(1, 0, 0, 0));
+
+        assertTrue(Math.abs(distance - 111195) < 10);
+    }
+
+    private static LocationFilter.Point point(double latitude, double longitude, float accuracy, long time) {
+        return new LocationFilter.Point(latitude, longitude, accuracy, time);
+    }
+
+    private static List<LocationFilter.Point> points(LocationFilter.Point... points) {
+        return new ArrayList<>(Arrays.asList(points));
+    }
+}
@@ -0,0 +1,180 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import io.rover.model.Message;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class MessageOutboxTest {
+
+    @Test
+    public void delete_replaces_pending_read() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.enqueue("a", MessageOutbox.DELETE);
+
+        List<MessageOutbox.Mutation> ready = outbox.takeReady(0);
+        assertEquals(1, ready.size());
+        assertEquals(MessageOutbox.DELETE, ready.get(0).type);
+        assertEquals(1, outbox.takeCollapsedCount());
+    }
+
+    @Test
+    public void change_after_delete_is_dropped() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.DELETE);
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+
+        assertEquals(MessageOutbox.DELETE, outbox.getPendingType("a"));
+        assertEquals(1, outbox.takeCollapsedCount());
+    }
+
+    @Test
+    public void messages_are_sent_independently() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.enqueue("b", MessageOutbox.DELETE);
+
+        assertEquals(2, outbox.takeReady(0).size());
+        assertEquals(0, outbox.takeReady(0).size());
+    }
+
+    @Test
+    public void sent_change_is_removed() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        MessageOutbox.Mutation mutation = outbox.takeReady(0).get(0);
+        outbox.onSent(mutation, MessageOutbox.SENT, 0);
+
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    public void failed_change_is_sent_again_after_backoff() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.onSent(outbox.takeReady(0).get(0), MessageOutbox.RETRY, 0);
+
+        assertTrue(outbox.takeReady(MessageOutbox.RETRY_DELAY - 1).isEmpty());
+        assertEquals(MessageOutbox.RETRY_DELAY, outbox.nextDue());
+        assertEquals(1, outbox.takeReady(MessageOutbox.RETRY_DELAY).size());
+    }
+
+    @Test
+    public void backoff_doubles_with_each_failure() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.onSent(outbox.takeReady(0).get(0), MessageOutbox.RETRY, 0);
+        outbox.onSent(outbox.takeReady(MessageOutbox.RETRY_DELAY).get(0), MessageOutbox.RETRY, MessageOutbox.RETRY_DELAY);
+
+        assertEquals(3 * MessageOutbox.RETRY_DELAY, outbox.nextDue());
+    }
+
+    @Test
+    public void new_change_does_not_resend_changes_waiting_for_backoff() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.onSent(outbox.takeReady(0).get(0), MessageOutbox.RETRY, 0);
+
+        outbox.enqueue("b", MessageOutbox.DELETE);
+        outbox.enqueue("a", MessageOutbox.MARK_UNREAD);
+
+        List<MessageOutbox.Mutation> ready = outbox.takeReady(1);
+        assertEquals(1, ready.size());
+        assertEquals("b", ready.get(0).messageId);
+        assertEquals(MessageOutbox.RETRY_DELAY, outbox.nextDue());
+    }
+
+    @Test
+    public void rejected_change_is_dropped() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.DELETE);
+        outbox.onSent(outbox.takeReady(0).get(0), MessageOutbox.REJECTED, 0);
+
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    public void change_made_while_sending_waits_and_survives_completion() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        MessageOutbox.Mutation read = outbox.takeReady(0).get(0);
+
+        outbox.enqueue("a", MessageOutbox.DELETE);
+        assertTrue(outbox.takeReady(0).isEmpty());
+        assertEquals(0, outbox.takeCollapsedCount());
+
+        outbox.onSent(read, MessageOutbox.SENT, 0);
+
+        List<MessageOutbox.Mutation> ready = outbox.takeReady(0);
+        assertEquals(1, ready.size());
+        assertEquals(MessageOutbox.DELETE, ready.get(0).type);
+    }
+
+    @Test
+    public void pending_changes_are_applied_to_fetched_inbox() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+        outbox.enqueue("b", MessageOutbox.DELETE);
+        outbox.enqueue("c", MessageOutbox.MARK_UNREAD);
+
+        Message c = message("c");
+        c.setRead(true);
+
+        List<Message> inbox = new ArrayList<>();
+        inbox.add(message("a"));
+        inbox.add(message("b"));
+        inbox.add(c);
+        inbox.add(message("d"));
+
+        List<Message> applied = outbox.apply(inbox);
+
+        assertEquals(3, applied.size());
+        assertEquals("a", applied.get(0).getId());
+        assertTrue(applied.get(0).isRead());
+        assertEquals("c", applied.get(1).getId());
+        assertFalse(applied.get(1).isRead());
+        assertFalse(applied.get(2).isRead());
+    }
+
+    @Test
+    public void applied_changes_leave_the_fetched_messages_untouched() throws Exception {
+        MessageOutbox outbox = new MessageOutbox();
+        outbox.enqueue("a", MessageOutbox.MARK_READ);
+
+        Message a = message("a");
+        List<Message> cached = new ArrayList<>();
+        cached.add(a);
+
+        List<Message> applied = outbox.apply(new ArrayList<>(cached));
+
+        assertTrue(applied.get(0).isRead());
+        assertEquals("a", applied.get(0).getId());
+        assertFalse(a.isRead());
+        assertTrue(cached.get(0) == a);
+    }
+
+    private static Message message(String id) {
+        return new Message("Title", "Text", new Date(0), id, true);
+    }
+}
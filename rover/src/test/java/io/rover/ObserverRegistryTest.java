@@ -0,0 +1,143 @@
+package io.rover;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import io.rover.model.Message;
+import io.rover.model.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class ObserverRegistryTest {
+
+    private static class GeofenceObserver implements RoverObserver.GeofenceTransitionObserver {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void onEnterGeofence(Place place) {
+            calls.add("enter");
+        }
+
+        @Override
+        public void onExitGeofence(Place place) {
+            calls.add("exit");
+        }
+    }
+
+    private static class CombinedObserver extends GeofenceObserver implements RoverObserver.MessageDeliveryObserver {
+        @Override
+        public void onMessageReceived(Message message) {
+            calls.add("message");
+        }
+    }
+
+    private static class QueueExecutor implements Executor {
+        final List<Runnable> queue = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queue.add(command);
+        }
+    }
+
+    private static final ObserverRegistry.Dispatch<RoverObserver.GeofenceTransitionObserver> ENTER =
+            new ObserverRegistry.Dispatch<RoverObserver.GeofenceTransitionObserver>() {
+        @Override
+        public void dispatch(RoverObserver.GeofenceTransitionObserver observer) {
+            observer.onEnterGeofence(null);
+        }
+    };
+
+    @Test
+    public void dispatch_reaches_only_matching_observers() throws Exception {
+        ObserverRegistry registry = new ObserverRegistry();
+        GeofenceObserver geofenceObserver = new GeofenceObserver();
+        CombinedObserver combinedObserver = new CombinedObserver();
+        registry.add(geofenceObserver, null);
+        registry.add(combinedObserver, null);
+
+        registry.dispatch(RoverObserver.MessageDeliveryObserver.class, null,
+                new ObserverRegistry.Dispatch<RoverObserver.MessageDeliveryObserver>() {
+            @Override
+            public void dispatch(RoverObserver.MessageDeliveryObserver observer) {
+                observer.onMessageReceived(null);
+            }
+        });
+
+        assertTrue(geofenceObserver.calls.isEmpty());
+        assertEquals(1, combinedObserver.calls.size());
+
+        // Interfaces inherited from a superclass are indexed too
+        registry.dispatch(RoverObserver.GeofenceTransitionObserver.class, null, ENTER);
+
+        assertEquals(1, geofenceObserver.calls.size());
+        assertEquals(2, combinedObserver.calls.size());
+        assertTrue(registry.get(RoverObserver.BeaconTransitionObserver.class).isEmpty());
+    }
+
+    @Test
+    public void observers_are_added_once_and_removed() throws Exception {
+        ObserverRegistry registry = new ObserverRegistry();
+        GeofenceObserver observer = new GeofenceObserver();
+        registry.add(observer, null);
+        registry.add(observer, null);
+
+        registry.dispatch(RoverObserver.GeofenceTransitionObserver.class, null, ENTER);
+        assertEquals(1, observer.calls.size());
+
+        registry.remove(observer);
+        registry.dispatch(RoverObserver.GeofenceTransitionObserver.class, null, ENTER);
+        assertEquals(1, observer.calls.size());
+    }
+
+    @Test
+    public void registered_executor_overrides_default() throws Exception {
+        ObserverRegistry registry = new ObserverRegistry();
+        QueueExecutor registered = new QueueExecutor();
+        QueueExecutor fallback = new QueueExecutor();
+        GeofenceObserver withExecutor = new GeofenceObserver();
+        GeofenceObserver withoutExecutor = new GeofenceObserver();
+        registry.add(withExecutor, registered);
+        registry.add(withoutExecutor, null);
+
+        registry.dispatch(RoverObserver.GeofenceTransitionObserver.class, fallback, ENTER);
+
+        assertEquals(1, registered.queue.size());
+        assertEquals(1, fallback.queue.size());
+        assertTrue(withExecutor.calls.isEmpty());
+
+        registered.queue.get(0).run();
+        assertEquals(1, withExecutor.calls.size());
+    }
+
+    @Test
+    public void observer_can_remove_itself_during_dispatch() throws Exception {
+        final ObserverRegistry registry = new ObserverRegistry();
+        final GeofenceObserver second = new GeofenceObserver();
+        GeofenceObserver first = new GeofenceObserver() {
+            @Override
+            public void onEnterGeofence(Place place) {
+                super.onEnterGeofence(place);
+                registry.remove(this);
+                registry.remove(second);
+            }
+        };
+        registry.add(first, null);
+        registry.add(second, null);
+
+        registry.dispatch(RoverObserver.GeofenceTransitionObserver.class, null, ENTER);
+
+        // The dispatch keeps iterating the snapshot it started with
+        assertEquals(1, first.calls.size());
+        assertEquals(1, second.calls.size());
+        assertTrue(registry.get(RoverObserver.GeofenceTransitionObserver.class).isEmpty());
+    }
+}
@@ -0,0 +1,114 @@
+package io.rover;
+
+import com.google.android.gms.location.Geofence;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import io.rover.model.Place;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class PlaceCacheTest {
+
+    @Test
+    public void put_replaces_place() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.put("a", place("old"));
+        cache.put("a", place("new"));
+
+        assertEquals("new", cache.get("a").getName());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void least_recently_used_place_is_evicted() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        for (int i = 0; i < PlaceCache.MAX_PLACES; i++) {
+            cache.put("region-" + i, place("place-" + i));
+        }
+
+        cache.get("region-0");
+        cache.put("extra", place("extra"));
+
+        assertEquals(PlaceCache.MAX_PLACES, cache.size());
+        assertNotNull(cache.get("region-0"));
+        assertNull(cache.get("region-1"));
+    }
+
+    @Test
+    public void dispatched_transition_is_taken_once() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.markDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+
+        assertFalse(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_EXIT, 0));
+        assertTrue(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0));
+        assertFalse(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0));
+    }
+
+    @Test
+    public void enter_and_exit_can_both_be_pending() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.markDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+        cache.markDispatched("a", Geofence.GEOFENCE_TRANSITION_EXIT, 0);
+
+        assertTrue(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0));
+        assertTrue(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_EXIT, 0));
+        assertFalse(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_EXIT, 0));
+    }
+
+    @Test
+    public void dispatch_expires_without_a_response() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.markDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+        cache.markDispatched("b", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+
+        assertFalse(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, PlaceCache.DISPATCH_TIMEOUT));
+
+        cache.expireDispatched(PlaceCache.DISPATCH_TIMEOUT);
+        assertNull(cache.clearDispatched("b", Geofence.GEOFENCE_TRANSITION_ENTER));
+    }
+
+    @Test
+    public void dropped_event_clears_dispatch() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.markDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+        assertEquals(Long.valueOf(0), cache.clearDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER));
+
+        assertFalse(cache.takeDispatched("a", Geofence.GEOFENCE_TRANSITION_ENTER, 1));
+    }
+
+    @Test
+    public void evicted_place_forgets_its_dispatches() throws Exception {
+        PlaceCache cache = new PlaceCache();
+
+        cache.put("region-0", place("place-0"));
+        cache.markDispatched("region-0", Geofence.GEOFENCE_TRANSITION_ENTER, 0);
+
+        for (int i = 1; i <= PlaceCache.MAX_PLACES; i++) {
+            cache.put("region-" + i, place("place-" + i));
+        }
+
+        assertNull(cache.get("region-0"));
+        assertFalse(cache.takeDispatched("region-0", Geofence.GEOFENCE_TRANSITION_ENTER, 1));
+    }
+
+    private static Place place(String name) {
+        return new Place(43.65, -79.38, 100, name, Collections.<String>emptyList());
+    }
+}
@@ -0,0 +1,115 @@
+package io.rover;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class UploadPolicyTest {
+
+    private static final long HOUR = 60 * 60 * 1000;
+    private static final long NOW = 10 * HOUR;
+
+    private static class FakeConditions implements UploadPolicy.Conditions {
+        boolean connected = true;
+        boolean unmetered;
+        boolean charging;
+        boolean radioActive;
+
+        @Override
+        public boolean isNetworkConnected() {
+            return connected;
+        }
+
+        @Override
+        public boolean isUnmeteredNetwork() {
+            return unmetered;
+        }
+
+        @Override
+        public boolean isCharging() {
+            return charging;
+        }
+
+        @Override
+        public boolean isRadioActive() {
+            return radioActive;
+        }
+    }
+
+    private final UploadPolicy mPolicy = new UploadPolicy(HOUR, 100);
+
+    @Test
+    public void metered_idle_device_defers() {
+        FakeConditions conditions = new FakeConditions();
+
+        assertFalse(mPolicy.shouldUpload(conditions, 5, NOW - 1000, NOW));
+    }
+
+    @Test
+    public void unmetered_network_uploads() {
+        FakeConditions conditions = new FakeConditions();
+        conditions.unmetered = true;
+
+        assertTrue(mPolicy.shouldUpload(conditions, 5, NOW - 1000, NOW));
+    }
+
+    @Test
+    public void charging_uploads() {
+        FakeConditions conditions = new FakeConditions();
+        conditions.charging = true;
+
+        assertTrue(mPolicy.shouldUpload(conditions, 5, NOW - 1000, NOW));
+    }
+
+    @Test
+    public void active_radio_uploads() {
+        FakeConditions conditions = new FakeConditions();
+        conditions.radioActive = true;
+
+        assertTrue(mPolicy.shouldUpload(conditions, 5, NOW - 1000, NOW));
+    }
+
+    @Test
+    public void nothing_uploads_without_a_network() {
+        FakeConditions conditions = new FakeConditions();
+        conditions.connected = false;
+        conditions.charging = true;
+
+        assertFalse(mPolicy.shouldUpload(conditions, 500, NOW - 2 * HOUR, NOW));
+    }
+
+    @Test
+    public void nothing_uploads_when_journal_is_empty() {
+        FakeConditions conditions = new FakeConditions();
+        conditions.unmetered = true;
+
+        assertFalse(mPolicy.shouldUpload(conditions, 0, 0, NOW));
+    }
+
+    @Test
+    public void max_deferral_forces_upload() {
+        FakeConditions conditions = new FakeConditions();
+
+        assertFalse(mPolicy.shouldUpload(conditions, 5, NOW - HOUR + 1, NOW));
+        assertTrue(mPolicy.shouldUpload(conditions, 5, NOW - HOUR, NOW));
+    }
+
+    @Test
+    public void backlog_cap_forces_upload() {
+        FakeConditions conditions = new FakeConditions();
+
+        assertTrue(mPolicy.shouldUpload(conditions, 100, NOW - 1000, NOW));
+    }
+
+    @Test
+    public void zero_deferral_disables_constraints() {
+        UploadPolicy policy = new UploadPolicy(0, 100);
+
+        assertTrue(policy.shouldUpload(new FakeConditions(), 1, NOW, NOW));
+    }
+}
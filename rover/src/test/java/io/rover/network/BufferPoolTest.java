@@ -0,0 +1,63 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class BufferPoolTest {
+
+    @Test
+    public void released_buffer_is_reused_empty() throws Exception {
+        BufferPool pool = new BufferPool();
+
+        BufferPool.Buffer buffer = pool.acquire();
+        buffer.write(new byte[] { 1, 2, 3 });
+        pool.release(buffer);
+
+        BufferPool.Buffer reused = pool.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.size());
+    }
+
+    @Test
+    public void oversized_buffer_is_not_retained() throws Exception {
+        BufferPool pool = new BufferPool();
+
+        BufferPool.Buffer buffer = pool.acquire();
+        buffer.write(new byte[BufferPool.MAX_RETAINED_SIZE + 1]);
+        pool.release(buffer);
+
+        assertEquals(0, pool.size());
+        assertNotSame(buffer, pool.acquire());
+    }
+
+    @Test
+    public void pool_is_bounded() throws Exception {
+        BufferPool pool = new BufferPool();
+
+        for (int i = 0; i < BufferPool.MAX_POOLED + 2; i++) {
+            pool.release(new BufferPool.Buffer());
+        }
+
+        assertEquals(BufferPool.MAX_POOLED, pool.size());
+    }
+
+    @Test
+    public void write_to_copies_only_the_contents() throws Exception {
+        BufferPool.Buffer buffer = new BufferPool.Buffer();
+        buffer.write(new byte[] { 4, 5 });
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        buffer.writeTo(output);
+
+        assertEquals(2, output.size());
+    }
+}
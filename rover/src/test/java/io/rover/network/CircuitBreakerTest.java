@@ -0,0 +1,115 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class CircuitBreakerTest {
+
+    private static class TestCircuitBreaker extends CircuitBreaker {
+        long now = 1000;
+
+        TestCircuitBreaker(int failureThreshold, long openDuration, long maxOpenDuration) {
+            // Zero jitter keeps the open period exact
+            super(failureThreshold, openDuration, maxOpenDuration, new Random() {
+                @Override
+                public double nextDouble() {
+                    return 0;
+                }
+            });
+        }
+
+        @Override
+        long currentTime() {
+            return now;
+        }
+    }
+
+    @Test
+    public void opens_after_consecutive_failures() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(3, 1000, 10000);
+
+        breaker.onFailure(-1);
+        breaker.onFailure(-1);
+        assertTrue(breaker.allowRequest());
+
+        breaker.onFailure(-1);
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void success_resets_the_failure_count() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(2, 1000, 10000);
+
+        breaker.onFailure(-1);
+        breaker.onSuccess();
+        breaker.onFailure(-1);
+
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void half_open_allows_a_single_trial() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(1, 1000, 10000);
+        breaker.onFailure(-1);
+
+        breaker.now += 1000;
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+
+        breaker.onSuccess();
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.isOpen());
+    }
+
+    @Test
+    public void failed_trial_doubles_the_open_period() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(1, 1000, 10000);
+        breaker.onFailure(-1);
+
+        breaker.now += 1000;
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure(-1);
+
+        breaker.now += 1000;
+        assertFalse(breaker.allowRequest());
+
+        breaker.now += 1000;
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void retry_after_opens_immediately_for_its_duration() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(5, 1000, 10000);
+        breaker.onFailure(5000);
+
+        breaker.now += 4999;
+        assertFalse(breaker.allowRequest());
+
+        breaker.now += 1;
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void abandoned_trial_expires() throws Exception {
+        TestCircuitBreaker breaker = new TestCircuitBreaker(1, 1000, 10000);
+        breaker.onFailure(-1);
+
+        breaker.now += 1000;
+        assertTrue(breaker.allowRequest());
+
+        // The trial never reports back
+        breaker.now += CircuitBreaker.TRIAL_TIMEOUT - 1;
+        assertFalse(breaker.allowRequest());
+
+        breaker.now += 1;
+        assertTrue(breaker.allowRequest());
+    }
+}
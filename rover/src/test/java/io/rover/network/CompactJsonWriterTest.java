@@ -0,0 +1,74 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class CompactJsonWriterTest {
+
+    @Test
+    public void writes_nested_values_without_whitespace() throws Exception {
+        StringWriter output = new StringWriter();
+        CompactJsonWriter writer = new CompactJsonWriter(output);
+
+        writer.beginObject();
+        writer.name("string").value("value");
+        writer.name("number").value(42);
+        writer.name("double").value(1.5);
+        writer.name("boolean").value(true);
+        writer.name("null").nullValue();
+        writer.name("array").beginArray().value("a").value(Integer.valueOf(2)).beginObject().endObject().endArray();
+        writer.endObject();
+
+        assertEquals("{\"string\":\"value\",\"number\":42,\"double\":1.5,\"boolean\":true,\"null\":null,\"array\":[\"a\",2,{}]}", output.toString());
+    }
+
+    @Test
+    public void escapes_strings() throws Exception {
+        StringWriter output = new StringWriter();
+        new CompactJsonWriter(output).value("quote\" slash\\ newline\n tab\t control\u0001 separator\u2028");
+
+        assertEquals("\"quote\\\" slash\\\\ newline\\n tab\\t control\\u0001 separator\\u2028\"", output.toString());
+    }
+
+    @Test
+    public void raw_values_are_copied_verbatim() throws Exception {
+        StringWriter output = new StringWriter();
+        CompactJsonWriter writer = new CompactJsonWriter(output);
+
+        writer.beginArray();
+        writer.rawValue("{\"a\":1}");
+        writer.rawValue("{\"b\":2}");
+        writer.endArray();
+
+        assertEquals("[{\"a\":1},{\"b\":2}]", output.toString());
+    }
+
+    @Test
+    public void null_string_is_written_as_null() throws Exception {
+        StringWriter output = new StringWriter();
+        CompactJsonWriter writer = new CompactJsonWriter(output);
+
+        writer.beginObject().name("value").value((String) null).endObject();
+
+        assertEquals("{\"value\":null}", output.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void value_without_name_in_object_fails() throws Exception {
+        CompactJsonWriter writer = new CompactJsonWriter(new StringWriter());
+        writer.beginObject();
+        writer.value("orphan");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void non_finite_numbers_are_rejected() throws Exception {
+        new CompactJsonWriter(new StringWriter()).value(Double.NaN);
+    }
+}
@@ -0,0 +1,125 @@
+package io.rover.network;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class DefaultHttpTransportTest {
+
+    private static class Listener implements DefaultHttpTransport.Listener {
+        final CountDownLatch preconnected = new CountDownLatch(1);
+        final List<Boolean> preconnects = new ArrayList<>();
+        final List<Boolean> firstRequests = new ArrayList<>();
+
+        @Override
+        public synchronized void onPreconnect(URL origin, boolean connected) {
+            preconnects.add(connected);
+            preconnected.countDown();
+        }
+
+        @Override
+        public synchronized void onFirstRequest(URL url, boolean warm) {
+            firstRequests.add(warm);
+        }
+    }
+
+    private HttpServer mServer;
+    private URL mURL;
+
+    @Before
+    public void setUp() throws Exception {
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mServer.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = "{}".getBytes("UTF-8");
+                boolean head = "HEAD".equals(exchange.getRequestMethod());
+                exchange.sendResponseHeaders(200, head ? -1 : body.length);
+                OutputStream output = exchange.getResponseBody();
+                if (!head) {
+                    output.write(body);
+                }
+                output.close();
+            }
+        });
+        mServer.start();
+        mURL = new URL("http://127.0.0.1:" + mServer.getAddress().getPort() + "/v1/events");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.stop(0);
+    }
+
+    @Test
+    public void first_request_after_preconnect_is_warm() throws Exception {
+        DefaultHttpTransport transport = new DefaultHttpTransport();
+        Listener listener = new Listener();
+        transport.setListener(listener);
+
+        transport.preconnect(mURL);
+        assertTrue(listener.preconnected.await(10, TimeUnit.SECONDS));
+
+        request(transport);
+        request(transport);
+
+        assertEquals(1, listener.preconnects.size());
+        assertTrue(listener.preconnects.get(0));
+        assertEquals(1, listener.firstRequests.size());
+        assertTrue(listener.firstRequests.get(0));
+    }
+
+    @Test
+    public void first_request_without_preconnect_is_cold() throws Exception {
+        DefaultHttpTransport transport = new DefaultHttpTransport();
+        Listener listener = new Listener();
+        transport.setListener(listener);
+
+        request(transport);
+
+        assertEquals(0, listener.preconnects.size());
+        assertEquals(1, listener.firstRequests.size());
+        assertFalse(listener.firstRequests.get(0));
+    }
+
+    @Test
+    public void failed_preconnect_is_reported() throws Exception {
+        DefaultHttpTransport transport = new DefaultHttpTransport();
+        Listener listener = new Listener();
+        transport.setListener(listener);
+        mServer.stop(0);
+
+        transport.preconnect(mURL);
+        assertTrue(listener.preconnected.await(20, TimeUnit.SECONDS));
+
+        assertFalse(listener.preconnects.get(0));
+    }
+
+    private void request(DefaultHttpTransport transport) throws IOException {
+        HttpURLConnection connection = transport.openConnection(mURL);
+        assertEquals(200, connection.getResponseCode());
+        DefaultHttpTransport.drain(connection);
+    }
+}
@@ -0,0 +1,190 @@
+package io.rover.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Serves queued responses from memory and records every request, so network code can be tested
+ * without sockets.
+ */
+public class InMemoryHttpTransport implements HttpTransport {
+
+    public static class Request {
+        public final String method;
+        public final URL url;
+        public final Map<String, List<String>> headers;
+        public final byte[] body;
+
+        Request(String method, URL url, Map<String, List<String>> headers, byte[] body) {
+            this.method = method;
+            this.url = url;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String getHeader(String name) {
+            for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+                if (entry.getKey() != null && entry.getKey().equalsIgnoreCase(name)) {
+                    return entry.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class Response {
+        final int status;
+        final Map<String, List<String>> headers;
+        final byte[] body;
+
+        Response(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final LinkedList<Response> mResponses = new LinkedList<>();
+    private final List<Request> mRequests = new ArrayList<>();
+    private final List<URL> mPreconnects = new ArrayList<>();
+
+    public synchronized InMemoryHttpTransport enqueue(int status, String body) {
+        return enqueue(status, Collections.<String, String>emptyMap(), body);
+    }
+
+    public synchronized InMemoryHttpTransport enqueue(int status, Map<String, String> headers, String body) {
+        HashMap<String, List<String>> headerFields = new HashMap<>();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            headerFields.put(header.getKey(), Collections.singletonList(header.getValue()));
+        }
+
+        try {
+            mResponses.add(new Response(status, headerFields, body != null ? body.getBytes("UTF-8") : new byte[0]));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return this;
+    }
+
+    public synchronized List<Request> getRequests() {
+        return new ArrayList<>(mRequests);
+    }
+
+    public synchronized List<URL> getPreconnects() {
+        return new ArrayList<>(mPreconnects);
+    }
+
+    @Override
+    public HttpURLConnection openConnection(URL url) throws IOException {
+        return new Connection(url);
+    }
+
+    @Override
+    public synchronized void preconnect(URL url) {
+        mPreconnects.add(url);
+    }
+
+    private synchronized Response respond(Request request) throws IOException {
+        mRequests.add(request);
+
+        Response response = mResponses.poll();
+        if (response == null) {
+            throw new IOException("No response queued for " + request.method + " " + request.url);
+        }
+        return response;
+    }
+
+    private class Connection extends HttpURLConnection {
+
+        private final ByteArrayOutputStream mRequestBody = new ByteArrayOutputStream();
+        private Response mResponse;
+
+        Connection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void connect() throws IOException {
+            if (mResponse != null) {
+                return;
+            }
+
+            Map<String, List<String>> headers = new HashMap<>(getRequestProperties());
+            mResponse = respond(new Request(getRequestMethod(), getURL(), headers, mRequestBody.toByteArray()));
+            connected = true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            if (mResponse != null) {
+                throw new IOException("Request already sent");
+            }
+            return mRequestBody;
+        }
+
+        @Override
+        public int getResponseCode() throws IOException {
+            connect();
+            return mResponse.status;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            connect();
+            if (mResponse.status >= 400) {
+                throw new FileNotFoundException(getURL().toString());
+            }
+            return new ByteArrayInputStream(mResponse.body);
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            if (mResponse == null || mResponse.status < 400) {
+                return null;
+            }
+            return new ByteArrayInputStream(mResponse.body);
+        }
+
+        @Override
+        public Map<String, List<String>> getHeaderFields() {
+            return mResponse != null ? mResponse.headers : Collections.<String, List<String>>emptyMap();
+        }
+
+        @Override
+        public String getHeaderField(String name) {
+            if (mResponse == null) {
+                return null;
+            }
+
+            for (Map.Entry<String, List<String>> entry : mResponse.headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(name)) {
+                    return entry.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package io.rover.network;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class NetworkTaskTest {
+
+    private HttpServer mServer;
+    private final List<String> mContentEncodings = new ArrayList<>();
+    private final List<String> mBodies = new ArrayList<>();
+    private final List<String> mIdempotencyKeys = new ArrayList<>();
+    private final List<String> mContentLengths = new ArrayList<>();
+    private int mRejectCompressedBodies;
+
+    // Statuses returned, in order, before the server starts answering normally
+    private final LinkedList<Integer> mInjectedFailures = new LinkedList<>();
+    private String mRetryAfter;
+
+    @Before
+    public void setUp() throws Exception {
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        mServer.createContext("/echo", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+                mContentEncodings.add(contentEncoding);
+                mIdempotencyKeys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+                mContentLengths.add(exchange.getRequestHeaders().getFirst("Content-Length"));
+
+                Integer failure = mInjectedFailures.poll();
+                if (failure != null) {
+                    readFully(exchange.getRequestBody());
+                    if (mRetryAfter != null) {
+                        exchange.getResponseHeaders().set("Retry-After", mRetryAfter);
+                    }
+                    exchange.sendResponseHeaders(failure, -1);
+                    exchange.close();
+                    return;
+                }
+
+                if (mRejectCompressedBodies != 0 && "gzip".equals(contentEncoding)) {
+                    exchange.sendResponseHeaders(mRejectCompressedBodies, -1);
+                    exchange.close();
+                    return;
+                }
+
+                InputStream input = exchange.getRequestBody();
+                if ("gzip".equals(contentEncoding)) {
+                    input = new GZIPInputStream(input);
+                }
+                byte[] body = readFully(input);
+                mBodies.add(new String(body, "UTF-8"));
+
+                byte[] responseBody = body;
+                if ("gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+                    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                    GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+                    gzip.write(body);
+                    gzip.close();
+                    responseBody = compressed.toByteArray();
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+
+                exchange.sendResponseHeaders(200, responseBody.length);
+                OutputStream output = exchange.getResponseBody();
+                output.write(responseBody);
+                output.close();
+            }
+        });
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.stop(0);
+    }
+
+    @Test
+    public void uncompressed_request_and_response() throws Exception {
+        NetworkTask task = newTask("{\"a\":1}");
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertNull(mContentEncodings.get(0));
+        assertEquals("{\"a\":1}", mBodies.get(0));
+        assertEquals("{\"a\":1}", read(response.getBody()));
+    }
+
+    @Test
+    public void body_is_sent_with_fixed_length_in_utf8() throws Exception {
+        String body = "{\"name\":\"caf\u00e9 \u2615\"}";
+        NetworkTask task = newTask(body);
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(String.valueOf(body.getBytes("UTF-8").length), mContentLengths.get(0));
+        assertEquals(body, mBodies.get(0));
+    }
+
+    @Test
+    public void gzip_request_and_response_round_trip() throws Exception {
+        NetworkTask task = newTask("{\"compressed\":true}");
+        task.setGzipRequest(true);
+        task.setGzipResponse(true);
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", mContentEncodings.get(0));
+        assertEquals("{\"compressed\":true}", mBodies.get(0));
+        assertEquals("{\"compressed\":true}", read(response.getBody()));
+    }
+
+    @Test
+    public void rejected_compressed_body_is_resent_uncompressed() throws Exception {
+        mRejectCompressedBodies = HttpURLConnection.HTTP_UNSUPPORTED_TYPE;
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setGzipRequest(true);
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(2, mContentEncodings.size());
+        assertNull(mContentEncodings.get(1));
+        assertEquals("{\"a\":1}", mBodies.get(0));
+    }
+
+    @Test
+    public void compressed_body_rejected_as_bad_request_is_resent_uncompressed() throws Exception {
+        // A proxy that does not decode bodies passes the compressed bytes on as invalid JSON
+        mRejectCompressedBodies = HttpURLConnection.HTTP_BAD_REQUEST;
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setGzipRequest(true);
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(2, mContentEncodings.size());
+        assertNull(mContentEncodings.get(1));
+    }
+
+    @Test
+    public void uncompressed_body_rejected_as_bad_request_is_not_resent() throws Exception {
+        mInjectedFailures.add(HttpURLConnection.HTTP_BAD_REQUEST);
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setGzipRequest(false);
+
+        HttpResponse response = task.run();
+
+        assertEquals(400, response.getStatus());
+        assertEquals(1, mContentEncodings.size());
+    }
+
+    @Test
+    public void server_errors_are_retried_with_the_same_idempotency_key() throws Exception {
+        mInjectedFailures.add(503);
+        mInjectedFailures.add(500);
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setRetryPolicy(new RetryPolicy(3, 1, 10, new Random(0)));
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(3, mIdempotencyKeys.size());
+        assertNotNull(mIdempotencyKeys.get(0));
+        assertEquals(mIdempotencyKeys.get(0), mIdempotencyKeys.get(1));
+        assertEquals(mIdempotencyKeys.get(0), mIdempotencyKeys.get(2));
+    }
+
+    @Test
+    public void retry_after_overrides_backoff() throws Exception {
+        mInjectedFailures.add(429);
+        mRetryAfter = "0";
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setRetryPolicy(new RetryPolicy(2, 60000, 60000, new Random(0)));
+
+        long start = System.currentTimeMillis();
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertTrue(System.currentTimeMillis() - start < 10000);
+    }
+
+    @Test
+    public void retry_after_beyond_max_delay_is_not_waited_for() throws Exception {
+        mInjectedFailures.add(503);
+        mRetryAfter = "3600";
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setRetryPolicy(new RetryPolicy(3, 1, 10, new Random(0)));
+
+        HttpResponse response = task.run();
+
+        assertEquals(503, response.getStatus());
+        assertEquals(1, mIdempotencyKeys.size());
+    }
+
+    @Test
+    public void gives_up_after_max_attempts() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mInjectedFailures.add(503);
+        }
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setRetryPolicy(new RetryPolicy(2, 1, 10, new Random(0)));
+
+        HttpResponse response = task.run();
+
+        assertEquals(503, response.getStatus());
+        assertEquals(2, mIdempotencyKeys.size());
+    }
+
+    @Test
+    public void client_errors_are_not_retried() throws Exception {
+        mInjectedFailures.add(400);
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setRetryPolicy(new RetryPolicy(3, 1, 10, new Random(0)));
+
+        HttpResponse response = task.run();
+
+        assertEquals(400, response.getStatus());
+        assertEquals(1, mIdempotencyKeys.size());
+    }
+
+    @Test
+    public void open_circuit_fails_fast_without_a_request() throws Exception {
+        mInjectedFailures.add(503);
+        CircuitBreaker breaker = new CircuitBreaker(1, 60000, 60000, new Random(0));
+
+        NetworkTask first = newTask("{\"a\":1}");
+        first.setCircuitBreaker(breaker);
+        assertEquals(503, first.run().getStatus());
+
+        NetworkTask second = newTask("{\"a\":1}");
+        second.setCircuitBreaker(breaker);
+
+        assertNull(second.run());
+        assertTrue(second.hasTaskFailed());
+        assertEquals(1, mIdempotencyKeys.size());
+        assertFalse(mInjectedFailures.size() > 0);
+    }
+
+    @Test
+    public void trial_that_throws_does_not_hold_the_circuit() throws Exception {
+        mInjectedFailures.add(503);
+        // Opens for no time at all so the next request is the trial
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 0, new Random(0));
+
+        NetworkTask first = newTask("{\"a\":1}");
+        first.setCircuitBreaker(breaker);
+        assertEquals(503, first.run().getStatus());
+
+        NetworkTask trial = new NetworkTask("POST", new URL("http://127.0.0.1:" + mServer.getAddress().getPort() + "/echo"));
+        trial.setCircuitBreaker(breaker);
+        trial.setPayloadProvider(new NetworkTask.PayloadProvider() {
+            @Override
+            public void onPrepareConnection(HttpURLConnection connection) {}
+
+            @Override
+            public void onProvidePayload(OutputStreamWriter writer) throws IOException {
+                throw new IllegalStateException("Payload failed");
+            }
+        });
+
+        try {
+            trial.run();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        NetworkTask next = newTask("{\"a\":1}");
+        next.setCircuitBreaker(breaker);
+        assertEquals(200, next.run().getStatus());
+    }
+
+    @Test
+    public void transport_serves_requests_from_memory() throws Exception {
+        InMemoryHttpTransport transport = new InMemoryHttpTransport()
+                .enqueue(503, Collections.singletonMap("Retry-After", "0"), null)
+                .enqueue(200, "{\"ok\":true}");
+
+        NetworkTask task = newTask("{\"a\":1}");
+        task.setTransport(transport);
+        task.setRetryPolicy(new RetryPolicy(2, 1, 10, new Random(0)));
+
+        HttpResponse response = task.run();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"ok\":true}", read(response.getBody()));
+        assertTrue(mBodies.isEmpty());
+
+        List<InMemoryHttpTransport.Request> requests = transport.getRequests();
+        assertEquals(2, requests.size());
+        assertEquals("POST", requests.get(1).method);
+        assertEquals("{\"a\":1}", new String(requests.get(1).body, "UTF-8"));
+        assertEquals("application/json", requests.get(1).getHeader("Content-Type"));
+        assertEquals(requests.get(0).getHeader("Idempotency-Key"), requests.get(1).getHeader("Idempotency-Key"));
+    }
+
+    @Test
+    public void default_transport_is_used_without_one_set() throws Exception {
+        InMemoryHttpTransport transport = new InMemoryHttpTransport().enqueue(204, null);
+        HttpTransport previous = NetworkTask.getDefaultTransport();
+        NetworkTask.setDefaultTransport(transport);
+
+        try {
+            assertEquals(204, newTask("{}").run().getStatus());
+            assertEquals(1, transport.getRequests().size());
+        } finally {
+            NetworkTask.setDefaultTransport(previous);
+        }
+    }
+
+    @Test
+    public void not_modified_is_answered_from_validator_store() throws Exception {
+        File directory = File.createTempFile("validators", "");
+        directory.delete();
+        ValidatorStore store = new ValidatorStore(directory);
+        Object model = new Object();
+
+        InMemoryHttpTransport transport = new InMemoryHttpTransport()
+                .enqueue(200, Collections.singletonMap("ETag", "\"v1\""), "[\"inbox\"]")
+                .enqueue(304, null);
+
+        try {
+            NetworkTask first = new NetworkTask("GET", new URL("http://localhost/inbox"));
+            first.setTransport(transport);
+            first.setValidatorStore(store, "GET /inbox");
+            HttpResponse response = first.run();
+            assertFalse(response.isNotModified());
+            assertEquals("[\"inbox\"]", read(response.getBody()));
+            first.setParsedModel(model);
+
+            NetworkTask second = new NetworkTask("GET", new URL("http://localhost/inbox"));
+            second.setTransport(transport);
+            second.setValidatorStore(store, "GET /inbox");
+            response = second.run();
+
+            assertTrue(response.isSuccessful());
+            assertTrue(response.isNotModified());
+            assertSame(model, response.getCachedModel());
+            assertEquals("[\"inbox\"]", read(response.getBody()));
+
+            List<InMemoryHttpTransport.Request> requests = transport.getRequests();
+            assertNull(requests.get(0).getHeader("If-None-Match"));
+            assertEquals("\"v1\"", requests.get(1).getHeader("If-None-Match"));
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            directory.delete();
+        }
+    }
+
+    private NetworkTask newTask(final String body) throws Exception {
+        NetworkTask task = new NetworkTask("POST", new URL("http://127.0.0.1:" + mServer.getAddress().getPort() + "/echo"));
+        task.setPayloadProvider(new NetworkTask.PayloadProvider() {
+            @Override
+            public void onPrepareConnection(HttpURLConnection connection) {
+                connection.setRequestProperty("Content-Type", "application/json");
+            }
+
+            @Override
+            public void onProvidePayload(OutputStreamWriter writer) throws IOException {
+                writer.write(body);
+            }
+        });
+        return task;
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+        }
+        return output.toByteArray();
+    }
+
+    private static String read(Reader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[1024];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+        reader.close();
+        return builder.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package io.rover.network;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ *
+ * Times a burst of inbox-like requests against a local server that answers after a random 20 to
+ * 120 ms, one at a time as the serial AsyncTask executor ran them and through the dispatcher with
+ * growing windows. Every fifth request is slow, standing in for a stalled call. It takes several
+ * seconds and opens a local server, so it is left out of the unit tests and run by hand.
+ */
+
+@Ignore("Benchmark, run by hand")
+public class RequestDispatcherBenchmark {
+
+    private static final int REQUESTS = 60;
+
+    private HttpServer mServer;
+
+    @Before
+    public void setUp() throws Exception {
+        mServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 64);
+        mServer.setExecutor(Executors.newCachedThreadPool());
+        mServer.createContext("/inbox", new HttpHandler() {
+            private final Random mRandom = new Random(0);
+
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                long latency;
+                synchronized (mRandom) {
+                    latency = 20 + mRandom.nextInt(100);
+                }
+                if (exchange.getRequestURI().getQuery() != null && exchange.getRequestURI().getQuery().endsWith("slow")) {
+                    latency += 500;
+                }
+
+                try {
+                    Thread.sleep(latency);
+                } catch (InterruptedException ignored) {
+                }
+
+                byte[] body = "{\"data\":[]}".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                OutputStream output = exchange.getResponseBody();
+                output.write(body);
+                output.close();
+            }
+        });
+        mServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mServer.stop(0);
+    }
+
+    @Test
+    public void every_window_beats_serial() throws Exception {
+        long serial = run(0);
+
+        for (int window : new int[] { 2, 4, 8 }) {
+            long elapsed = run(window);
+            assertTrue("window " + window + " took " + elapsed / 1000000 + " ms, serial " + serial / 1000000 + " ms",
+                    elapsed < serial);
+        }
+    }
+
+    /*
+        Returns the time the burst took in nanoseconds
+     */
+    private long run(int window) throws Exception {
+        final CountDownLatch done = new CountDownLatch(REQUESTS);
+        final AtomicInteger succeeded = new AtomicInteger();
+        RequestDispatcher dispatcher = window > 0 ? new RequestDispatcher(window) : null;
+
+        long start = System.nanoTime();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            final URL url = new URL("http://127.0.0.1:" + mServer.getAddress().getPort()
+                    + "/inbox?request=" + i + (i % 5 == 0 ? "&slow" : ""));
+
+            Runnable request = new Runnable() {
+                @Override
+                public void run() {
+                    HttpResponse response = new NetworkTask("GET", url).run();
+                    if (response != null && response.isSuccessful()) {
+                        succeeded.incrementAndGet();
+                        response.close();
+                    }
+                    done.countDown();
+                }
+            };
+
+            if (dispatcher != null) {
+                // A few requests share a key, as patches to the same message would
+                dispatcher.execute(i % 10 == 0 ? "message:a" : null, request);
+            } else {
+                request.run();
+            }
+        }
+
+        assertTrue(done.await(2, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - start;
+
+        assertEquals(REQUESTS, succeeded.get());
+        return elapsed;
+    }
+}
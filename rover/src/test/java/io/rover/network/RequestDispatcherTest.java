@@ -0,0 +1,127 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class RequestDispatcherTest {
+
+    @Test
+    public void same_key_runs_in_order() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher(4);
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            final int index = i;
+            dispatcher.execute("message:a", new Runnable() {
+                @Override
+                public void run() {
+                    sleep(index % 3);
+                    order.add(index);
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void same_key_never_overlaps() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher(4);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(10);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.execute("message:a", new Runnable() {
+                @Override
+                public void run() {
+                    track(running, maxRunning);
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void different_keys_run_in_parallel_up_to_the_window() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher(3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(12);
+
+        for (int i = 0; i < 12; i++) {
+            dispatcher.execute(i % 2 == 0 ? null : "message:" + i, new Runnable() {
+                @Override
+                public void run() {
+                    track(running, maxRunning);
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void failing_request_does_not_block_its_key() throws Exception {
+        RequestDispatcher dispatcher = new RequestDispatcher(2);
+        final CountDownLatch done = new CountDownLatch(1);
+
+        dispatcher.execute("message:a", new Runnable() {
+            @Override
+            public void run() {
+                throw new RuntimeException("Request failed");
+            }
+        });
+        dispatcher.forKey("message:a").execute(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    private static void track(AtomicInteger running, AtomicInteger maxRunning) {
+        int now = running.incrementAndGet();
+        while (true) {
+            int max = maxRunning.get();
+            if (now <= max || maxRunning.compareAndSet(max, now)) {
+                break;
+            }
+        }
+        sleep(50);
+        running.decrementAndGet();
+    }
+
+    private static void sleep(long milliseconds) {
+        try {
+            Thread.sleep(milliseconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class RetryPolicyTest {
+
+    @Test
+    public void delay_grows_exponentially_within_jitter_bounds() throws Exception {
+        RetryPolicy policy = new RetryPolicy(10, 1000, 60000, new Random(42));
+
+        for (int retry = 1; retry <= 5; retry++) {
+            long ceiling = 1000L << (retry - 1);
+            for (int i = 0; i < 50; i++) {
+                long delay = policy.getDelay(retry, -1);
+                assertTrue(delay >= ceiling / 2);
+                assertTrue(delay <= ceiling);
+            }
+        }
+    }
+
+    @Test
+    public void delay_is_capped() throws Exception {
+        RetryPolicy policy = new RetryPolicy(40, 1000, 8000, new Random(42));
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(policy.getDelay(30, -1) <= 8000);
+        }
+    }
+
+    @Test
+    public void retry_after_takes_precedence() throws Exception {
+        RetryPolicy policy = new RetryPolicy(3, 1000, 8000, new Random(42));
+
+        assertEquals(5000, policy.getDelay(1, 5000));
+    }
+
+    @Test
+    public void parses_retry_after_seconds_and_dates() throws Exception {
+        assertEquals(120000, RetryPolicy.parseRetryAfter("120", 0));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null, 0));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon", 0));
+
+        long now = 784111777000L - 30000;
+        assertEquals(30000, RetryPolicy.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", now));
+        assertEquals(0, RetryPolicy.parseRetryAfter("Sun, 06 Nov 1994 08:49:37 GMT", now + 60000));
+    }
+
+    @Test
+    public void retryable_statuses() throws Exception {
+        assertTrue(RetryPolicy.isRetryable(null));
+        assertTrue(RetryPolicy.isRetryable(response(503)));
+        assertTrue(RetryPolicy.isRetryable(response(429)));
+        assertTrue(RetryPolicy.isRetryable(response(408)));
+        assertFalse(RetryPolicy.isRetryable(response(200)));
+        assertFalse(RetryPolicy.isRetryable(response(404)));
+        assertFalse(RetryPolicy.isRetryable(response(501)));
+    }
+
+    private static HttpResponse response(int status) {
+        HttpResponse response = new HttpResponse();
+        response.setStatus(status);
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package io.rover.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class SingleFlightTest {
+
+    private static class Listener {
+        final List<Object> results = new ArrayList<>();
+    }
+
+    @Test
+    public void first_caller_starts_the_request() throws Exception {
+        SingleFlight<Listener> flights = new SingleFlight<>();
+
+        assertTrue(flights.join("GET /inbox", new Listener()));
+        assertFalse(flights.join("GET /inbox", new Listener()));
+        assertTrue(flights.isInFlight("GET /inbox"));
+    }
+
+    @Test
+    public void different_keys_do_not_coalesce() throws Exception {
+        SingleFlight<Listener> flights = new SingleFlight<>();
+
+        assertTrue(flights.join("GET /experiences/a", new Listener()));
+        assertTrue(flights.join("GET /experiences/b", new Listener()));
+    }
+
+    @Test
+    public void every_caller_receives_the_same_result() throws Exception {
+        SingleFlight<Listener> flights = new SingleFlight<>();
+        Listener first = new Listener();
+        Listener second = new Listener();
+        final Object result = new Object();
+
+        flights.join("GET /inbox", first);
+        flights.join("GET /inbox", second);
+
+        flights.complete("GET /inbox", new SingleFlight.Delivery<Listener>() {
+            @Override
+            public void deliver(Listener listener) {
+                listener.results.add(result);
+            }
+        });
+
+        assertEquals(1, first.results.size());
+        assertEquals(1, second.results.size());
+        assertSame(first.results.get(0), second.results.get(0));
+        assertFalse(flights.isInFlight("GET /inbox"));
+    }
+
+    @Test
+    public void caller_after_completion_starts_a_new_request() throws Exception {
+        SingleFlight<Listener> flights = new SingleFlight<>();
+
+        flights.join("GET /inbox", new Listener());
+        flights.complete("GET /inbox", new SingleFlight.Delivery<Listener>() {
+            @Override
+            public void deliver(Listener listener) {}
+        });
+
+        assertTrue(flights.join("GET /inbox", new Listener()));
+    }
+
+    @Test
+    public void listener_may_join_again_while_delivered() throws Exception {
+        final SingleFlight<Listener> flights = new SingleFlight<>();
+        final List<Boolean> started = new ArrayList<>();
+
+        flights.join("GET /inbox", new Listener());
+        flights.complete("GET /inbox", new SingleFlight.Delivery<Listener>() {
+            @Override
+            public void deliver(Listener listener) {
+                // A pull to refresh triggered from the callback
+                started.add(flights.join("GET /inbox", new Listener()));
+            }
+        });
+
+        assertEquals(1, started.size());
+        assertTrue(started.get(0));
+    }
+}
@@ -0,0 +1,83 @@
+package io.rover.network;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Created by Rover Labs Inc. on 2026-10-17.
+ */
+
+public class ValidatorStoreTest {
+
+    private File mDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        mDirectory = File.createTempFile("validators", "");
+        mDirectory.delete();
+        mDirectory.mkdirs();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        File[] files = mDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        mDirectory.delete();
+    }
+
+    @Test
+    public void entry_survives_reopen() throws Exception {
+        new ValidatorStore(mDirectory).put("GET /inbox", "\"v1\"", null, "[1,2]".getBytes("UTF-8"));
+
+        ValidatorStore.Entry entry = new ValidatorStore(mDirectory).get("GET /inbox");
+
+        assertEquals("\"v1\"", entry.getETag());
+        assertNull(entry.getLastModified());
+        assertEquals("[1,2]", new String(entry.getBody(), "UTF-8"));
+        assertNull(entry.getModel());
+    }
+
+    @Test
+    public void response_without_validators_removes_entry() throws Exception {
+        ValidatorStore store = new ValidatorStore(mDirectory);
+        store.put("GET /inbox", null, "Tue, 01 Jun 2027 00:00:00 GMT", new byte[0]);
+
+        assertNull(store.put("GET /inbox", null, null, new byte[0]));
+
+        assertNull(store.get("GET /inbox"));
+        assertNull(new ValidatorStore(mDirectory).get("GET /inbox"));
+    }
+
+    @Test
+    public void routes_are_stored_separately() throws Exception {
+        ValidatorStore store = new ValidatorStore(mDirectory);
+        store.put("GET /experiences/a", "\"a\"", null, new byte[0]);
+        store.put("GET /experiences/b", "\"b\"", null, new byte[0]);
+
+        assertEquals("\"a\"", new ValidatorStore(mDirectory).get("GET /experiences/a").getETag());
+        assertEquals("\"b\"", new ValidatorStore(mDirectory).get("GET /experiences/b").getETag());
+    }
+
+    @Test
+    public void model_is_kept_with_its_entry() throws Exception {
+        ValidatorStore store = new ValidatorStore(mDirectory);
+        Object model = new Object();
+
+        store.put("GET /inbox", "\"v1\"", null, new byte[0]).setModel(model);
+        assertSame(model, store.get("GET /inbox").getModel());
+
+        store.put("GET /inbox", "\"v2\"", null, new byte[0]);
+        assertNull(store.get("GET /inbox").getModel());
+    }
+}